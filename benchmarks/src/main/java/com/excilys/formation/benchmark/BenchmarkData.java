@@ -0,0 +1,89 @@
+package com.excilys.formation.benchmark;
+
+import com.excilys.formation.dto.ComputerDto;
+import com.excilys.formation.model.Company;
+import com.excilys.formation.model.Computer;
+import com.excilys.formation.model.util.ComputerRow;
+import com.excilys.formation.pagination.Page;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data shared by the benchmarks, shaped like the rows of the dashboard.
+ */
+final class BenchmarkData {
+    private static final LocalDate INTRODUCED = LocalDate.of(1990, 1, 2);
+    private static final LocalDate DISCONTINUED = LocalDate.of(1995, 6, 30);
+
+    /**
+     * BenchmarkData constructor, not used.
+     */
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds computers with dates and a company, one computer out of four having none of them.
+     * @param size the number of computers
+     * @return a List of Computers
+     */
+    static List<Computer> computers(int size) {
+        List<Computer> computers = new ArrayList<>(size);
+        Company company = new Company.CompanyBuilder("Apple Inc.").id(1L).build();
+        for (int i = 1; i <= size; i++) {
+            Computer.ComputerBuilder builder = new Computer.ComputerBuilder("Computer " + i).id((long) i);
+            if (i % 4 != 0) {
+                builder.dateIntro(INTRODUCED).dateDisc(DISCONTINUED).company(company);
+            }
+            computers.add(builder.build());
+        }
+        return computers;
+    }
+
+    /**
+     * Builds the rows of computers with dates and a company, one row out of four having none of them.
+     * @param size the number of rows
+     * @return a List of ComputerRows
+     */
+    static List<ComputerRow> rows(int size) {
+        List<ComputerRow> rows = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            boolean complete = i % 4 != 0;
+            rows.add(new ComputerRow((long) i, "Computer " + i, complete ? INTRODUCED : null,
+                    complete ? DISCONTINUED : null, complete ? 1L : null, complete ? "Apple Inc." : null));
+        }
+        return rows;
+    }
+
+    /**
+     * Builds a page of elements.
+     * @param elements the elements of the page
+     * @param <T> the type of the elements
+     * @return a Page
+     */
+    static <T> Page<T> page(List<T> elements) {
+        Page<T> page = new Page<>(elements.size());
+        page.setPage(1);
+        page.setElements(elements);
+        page.setTotalElements(elements.size() * 50);
+        return page;
+    }
+
+    /**
+     * Builds a ComputerDto as submitted by the forms, its dates in the format of the default locale.
+     * @param introduced the introduction date
+     * @param discontinued the discontinuation date
+     * @return a ComputerDto
+     */
+    static ComputerDto computerDto(String introduced, String discontinued) {
+        ComputerDto computerDto = new ComputerDto();
+        computerDto.setId(42L);
+        computerDto.setName("MacBook Pro");
+        computerDto.setIntroduced(introduced);
+        computerDto.setDiscontinued(discontinued);
+        computerDto.setCompanyId(1L);
+        computerDto.setCompanyName("Apple Inc.");
+        return computerDto;
+    }
+}
@@ -0,0 +1,49 @@
+package com.excilys.formation.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Entry point of target/benchmarks.jar.
+ * It takes the usual JMH options, and always adds the GC profiler so that the allocation rate
+ * of each benchmark (gc.alloc.rate.norm, in bytes per operation) is reported next to its time.
+ * Unless another format is given with -rf, the results are also written as JSON to jmh-result.json
+ * (or to the file given with -rff), so that they can be kept and compared from one commit to another.
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * BenchmarkRunner constructor, not used.
+     */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     * @param args the JMH command line options, for example a regular expression of the benchmarks to run
+     * @throws RunnerException if a benchmark fails
+     * @throws CommandLineOptionException if the options can't be parsed
+     * @throws IOException if the help can't be printed
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp()) {
+            commandLineOptions.showHelp();
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions).addProfiler(GCProfiler.class)
+                .shouldFailOnError(true);
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package com.excilys.formation.benchmark;
+
+import com.excilys.formation.config.CacheConfig;
+import com.excilys.formation.model.util.PageFilter;
+import com.excilys.formation.service.CompanyService;
+import com.excilys.formation.service.ComputerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.interceptor.KeyGenerator;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the key generator of the caches, called on each cached service call.
+ * The keys of the pages without search are interned, unlike the ones with a search.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheKeyBenchmark {
+    private KeyGenerator keyGenerator;
+    private Method getRowPage;
+    private Method getAll;
+    private PageFilter pageFilter;
+    private PageFilter searchFilter;
+
+    /**
+     * Builds the key generator and the filters of the cached pages.
+     * @throws NoSuchMethodException if a cached method doesn't exist
+     */
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        keyGenerator = new CacheConfig().keyGenerator();
+        getRowPage = ComputerService.class.getMethod("getRowPage", PageFilter.class);
+        getAll = CompanyService.class.getMethod("getAll");
+        pageFilter = new PageFilter();
+        pageFilter.setPageNum(3);
+        pageFilter.setElementsByPage(50);
+        pageFilter.addCondition("table", "computer");
+        pageFilter.addCondition("column", "name");
+        pageFilter.addCondition("order", "ASC");
+        searchFilter = new PageFilter();
+        searchFilter.setPageNum(1);
+        searchFilter.setElementsByPage(10);
+        searchFilter.addCondition("computerName", "mac");
+        searchFilter.addCondition("companyName", "mac");
+    }
+
+    @Benchmark
+    public Object pageKey() {
+        return keyGenerator.generate(this, getRowPage, pageFilter);
+    }
+
+    @Benchmark
+    public Object searchPageKey() {
+        return keyGenerator.generate(this, getRowPage, searchFilter);
+    }
+
+    @Benchmark
+    public Object methodKey() {
+        return keyGenerator.generate(this, getAll);
+    }
+}
@@ -0,0 +1,132 @@
+package com.excilys.formation.benchmark;
+
+import com.excilys.formation.model.Company;
+import com.excilys.formation.model.Computer;
+import com.excilys.formation.persistence.ComputerDao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the lookup by name and of the deletions of computers in the seeded database.
+ * The deleted computers are inserted before each deletion, outside of the measured time,
+ * so that the database keeps its size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ComputerDaoBenchmark {
+
+    @Benchmark
+    public Computer getByName(SeededDatabase database) {
+        ComputerDao computerDao = database.getBean(ComputerDao.class);
+        String name = "test" + database.getComputers() / 2;
+        return database.getTransactionTemplate().execute(status -> computerDao.getByName(name));
+    }
+
+    @Benchmark
+    public void deleteList(SeededDatabase database, Selection selection) {
+        ComputerDao computerDao = database.getBean(ComputerDao.class);
+        database.getTransactionTemplate().execute(status -> {
+            computerDao.deleteList(selection.ids);
+            return null;
+        });
+    }
+
+    @Benchmark
+    public void deleteByCompany(SeededDatabase database, DeletedCompany company) {
+        ComputerDao computerDao = database.getBean(ComputerDao.class);
+        database.getTransactionTemplate().execute(status -> {
+            computerDao.deleteByCompany(company.id);
+            return null;
+        });
+    }
+
+    /**
+     * Computers selected on the dashboard, inserted before each deletion.
+     */
+    @State(Scope.Thread)
+    public static class Selection {
+        private static final int SIZE = 100;
+        private List<Long> ids;
+
+        /**
+         * Inserts the selected computers.
+         * @param database the SeededDatabase
+         */
+        @Setup(Level.Invocation)
+        public void setUp(SeededDatabase database) {
+            ids = insertComputers(database, null, SIZE);
+        }
+    }
+
+    /**
+     * Company with as many computers as the seeded ones, inserted before each deletion.
+     */
+    @State(Scope.Thread)
+    public static class DeletedCompany {
+        private long id;
+        private int size;
+
+        /**
+         * Inserts the computers of the company, and the company itself before the first invocation.
+         * @param database the SeededDatabase
+         * @throws SQLException if the company can't be inserted
+         */
+        @Setup(Level.Invocation)
+        public void setUp(SeededDatabase database) throws SQLException {
+            if (id == 0) {
+                // Inserted with the next seeded id, which the generator of the companies doesn't know about
+                id = database.getCompanies() + 1;
+                size = Math.max(1, database.getComputers() / database.getCompanies());
+                try (Connection connection = database.getBean(DataSource.class).getConnection();
+                        Statement statement = connection.createStatement()) {
+                    statement.execute("INSERT INTO company (id, name) VALUES (" + id + ", 'companyTest" + id + "')");
+                }
+            }
+            insertComputers(database, id, size);
+        }
+    }
+
+    /**
+     * Inserts computers in a transaction.
+     * @param database the SeededDatabase
+     * @param companyId the id of the company of the computers, or null
+     * @param size the number of computers
+     * @return the ids of the computers
+     */
+    private static List<Long> insertComputers(SeededDatabase database, Long companyId, int size) {
+        List<Computer> computers = new ArrayList<>(size);
+        Company company = companyId == null ? null : new Company.CompanyBuilder("companyTest" + companyId)
+                .id(companyId).build();
+        for (int i = 0; i < size; i++) {
+            computers.add(new Computer.ComputerBuilder("deleted" + i).company(company).build());
+        }
+        ComputerDao computerDao = database.getBean(ComputerDao.class);
+        database.getTransactionTemplate().execute(status -> {
+            computerDao.createAll(computers);
+            return null;
+        });
+        List<Long> ids = new ArrayList<>(size);
+        computers.forEach(computer -> ids.add(computer.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,91 @@
+package com.excilys.formation.benchmark;
+
+import com.excilys.formation.model.Computer;
+import com.excilys.formation.model.util.PageFilter;
+import com.excilys.formation.pagination.Page;
+import com.excilys.formation.persistence.ComputerDao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the pages of the dashboard read from the seeded database, for each sort of the dashboard.
+ * The deep pages are read by offset, 90% into the computers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ComputerDaoPageBenchmark {
+    private static final int ELEMENTS_BY_PAGE = 10;
+    private static final String SEARCH = "test1";
+    /**
+     * The sort of the page as "table.column", or none to keep the order of the ids.
+     */
+    @Param({"none", "computer.name", "computer.introduced", "computer.discontinued", "company.name"})
+    private String sort;
+    private ComputerDao computerDao;
+    private SeededDatabase database;
+    private int deepPage;
+
+    /**
+     * Gets the DAO of the seeded database.
+     * @param database the SeededDatabase
+     */
+    @Setup
+    public void setUp(SeededDatabase database) {
+        this.database = database;
+        computerDao = database.getBean(ComputerDao.class);
+        deepPage = database.getComputers() / ELEMENTS_BY_PAGE * 9 / 10;
+    }
+
+    @Benchmark
+    public Page<Computer> shallowPage() {
+        return getPage(1, null);
+    }
+
+    @Benchmark
+    public Page<Computer> deepPage() {
+        return getPage(deepPage, null);
+    }
+
+    @Benchmark
+    public Page<Computer> searchPage() {
+        return getPage(1, SEARCH);
+    }
+
+    /**
+     * Reads a page in a transaction, as the services do.
+     * @param pageNum the number of the page
+     * @param search the searched prefix, or null
+     * @return the Page of Computers
+     */
+    private Page<Computer> getPage(int pageNum, String search) {
+        PageFilter pageFilter = new PageFilter();
+        pageFilter.setPageNum(pageNum);
+        pageFilter.setElementsByPage(ELEMENTS_BY_PAGE);
+        if (search != null) {
+            pageFilter.addCondition("computerName", search);
+            pageFilter.addCondition("companyName", search);
+        }
+        if (!"none".equals(sort)) {
+            String[] tableColumn = sort.split("\\.");
+            pageFilter.addCondition("table", tableColumn[0]);
+            pageFilter.addCondition("column", tableColumn[1]);
+            pageFilter.addCondition("order", "ASC");
+        }
+        return database.getTransactionTemplate().execute(status -> computerDao.getPage(pageFilter));
+    }
+}
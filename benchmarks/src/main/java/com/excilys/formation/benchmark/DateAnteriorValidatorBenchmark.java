@@ -0,0 +1,95 @@
+package com.excilys.formation.benchmark;
+
+import com.excilys.formation.dto.ComputerDto;
+import com.excilys.formation.validation.DateAnteriorValidator;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the validation of the dates of the submitted computers.
+ * isValid is measured alone on a valid DTO, the rejections being measured through the whole bean validation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateAnteriorValidatorBenchmark {
+    private DateAnteriorValidator dateAnteriorValidator;
+    private Validator validator;
+    private ConstraintValidatorContext context;
+    private ComputerDto valid;
+    private ComputerDto invalid;
+
+    /**
+     * Builds the validators and the validated DTOs.
+     */
+    @Setup
+    public void setUp() {
+        LocaleContextHolder.setDefaultLocale(Locale.ENGLISH);
+        dateAnteriorValidator = new DateAnteriorValidator();
+        validator = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator()).buildValidatorFactory().getValidator();
+        context = new ValidContext();
+        valid = BenchmarkData.computerDto("01-02-1990", "06-30-1995");
+        invalid = BenchmarkData.computerDto("06-30-1995", "01-02-1990");
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return dateAnteriorValidator.isValid(valid, context);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ComputerDto>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ComputerDto>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+
+    /**
+     * Context of a validation without violation, which only disables the default violation.
+     */
+    private static final class ValidContext implements ConstraintValidatorContext {
+        @Override
+        public void disableDefaultConstraintViolation() {
+        }
+
+        @Override
+        public String getDefaultConstraintMessageTemplate() {
+            return null;
+        }
+
+        @Override
+        public ConstraintViolationBuilder buildConstraintViolationWithTemplate(String messageTemplate) {
+            throw new IllegalStateException("The benchmarked computer should be valid");
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> type) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
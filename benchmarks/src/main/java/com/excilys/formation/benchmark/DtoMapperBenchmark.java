@@ -0,0 +1,59 @@
+package com.excilys.formation.benchmark;
+
+import com.excilys.formation.dto.ComputerDto;
+import com.excilys.formation.mapper.DtoMapper;
+import com.excilys.formation.model.Computer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the conversions between the Computers and their DTOs, done for each row of the pages and forms.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMapperBenchmark {
+    @Param({"10", "100"})
+    private int size;
+    private DtoMapper dtoMapper;
+    private List<Computer> computers;
+    private ComputerDto computerDto;
+
+    /**
+     * Builds the mapped data.
+     */
+    @Setup
+    public void setUp() {
+        LocaleContextHolder.setDefaultLocale(Locale.ENGLISH);
+        dtoMapper = new DtoMapper();
+        computers = BenchmarkData.computers(size);
+        computerDto = BenchmarkData.computerDto("01-02-1990", "06-30-1995");
+    }
+
+    @Benchmark
+    public List<ComputerDto> fromComputerList() {
+        return dtoMapper.fromComputerList(computers);
+    }
+
+    @Benchmark
+    public Computer toComputer() {
+        return dtoMapper.toComputer(computerDto);
+    }
+}
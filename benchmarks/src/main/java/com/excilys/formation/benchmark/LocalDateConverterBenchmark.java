@@ -0,0 +1,52 @@
+package com.excilys.formation.benchmark;
+
+import com.excilys.formation.converter.LocalDateConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the conversion of the dates of the computers, done twice for each loaded or written computer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalDateConverterBenchmark {
+    private LocalDateConverter converter;
+    private LocalDate date;
+    private Timestamp timestamp;
+
+    /**
+     * Builds the converter and the converted dates.
+     */
+    @Setup
+    public void setUp() {
+        converter = new LocalDateConverter();
+        date = LocalDate.of(1990, 1, 2);
+        timestamp = converter.convertToDatabaseColumn(date);
+    }
+
+    @Benchmark
+    public Timestamp convertToDatabaseColumn() {
+        return converter.convertToDatabaseColumn(date);
+    }
+
+    @Benchmark
+    public LocalDate convertToEntityAttribute() {
+        return converter.convertToEntityAttribute(timestamp);
+    }
+}
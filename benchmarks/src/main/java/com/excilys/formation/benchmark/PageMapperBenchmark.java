@@ -0,0 +1,73 @@
+package com.excilys.formation.benchmark;
+
+import com.excilys.formation.dto.ComputerDto;
+import com.excilys.formation.mapper.DtoMapper;
+import com.excilys.formation.mapper.PageMapper;
+import com.excilys.formation.model.Computer;
+import com.excilys.formation.model.util.ComputerRow;
+import com.excilys.formation.pagination.Page;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the conversion of the pages of the dashboard to pages of DTOs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageMapperBenchmark {
+    @Param({"10", "100"})
+    private int size;
+    private AnnotationConfigApplicationContext context;
+    private PageMapper pageMapper;
+    private Page<Computer> pageComputer;
+    private Page<ComputerRow> pageRows;
+
+    /**
+     * Builds the mapper, wired like in the applications, and the mapped pages.
+     */
+    @Setup
+    public void setUp() {
+        LocaleContextHolder.setDefaultLocale(Locale.ENGLISH);
+        context = new AnnotationConfigApplicationContext(PageMapper.class, DtoMapper.class);
+        pageMapper = context.getBean(PageMapper.class);
+        pageComputer = BenchmarkData.page(BenchmarkData.computers(size));
+        pageRows = BenchmarkData.page(BenchmarkData.rows(size));
+    }
+
+    /**
+     * Closes the context of the mapper.
+     */
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<ComputerDto> fromComputerToComputerDto() {
+        return pageMapper.fromComputerToComputerDto(pageComputer);
+    }
+
+    @Benchmark
+    public Page<ComputerDto> fromComputerRowToComputerDto() {
+        return pageMapper.fromComputerRowToComputerDto(pageRows);
+    }
+}
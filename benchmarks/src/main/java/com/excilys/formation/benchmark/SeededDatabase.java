@@ -0,0 +1,119 @@
+package com.excilys.formation.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import com.excilys.formation.config.PersistenceSpringConfig;
+import com.excilys.formation.model.Company;
+import com.excilys.formation.model.Computer;
+import com.excilys.formation.persistence.CountService;
+import com.excilys.formation.persistence.IdGeneratorSync;
+import com.excilys.formation.persistence.SearchIndex;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.orm.hibernate5.HibernateTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The persistence layer booted like in the applications, against an in-memory H2 database in MySQL mode
+ * seeded with as many computers and companies as the Gatling database.
+ * As with the scripts of gatling-test, the computers are named "test" + id and the companies "companyTest" + id,
+ * but the computers are spread over all the companies and three out of four have dates, so that each sort
+ * has something to sort.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(SeededDatabase.class);
+    @Param({"1000000"})
+    private int computers;
+    @Param({"50000"})
+    private int companies;
+    private AnnotationConfigApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Boots the persistence layer and seeds the database.
+     * @throws IOException if the configuration of the benchmarks can't be read
+     * @throws SQLException if the database can't be seeded
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources()
+                .addFirst(new ResourcePropertySource("classpath:benchmark.properties"));
+        context.register(PersistenceSpringConfig.class);
+        context.refresh();
+        transactionTemplate = new TransactionTemplate(context.getBean(HibernateTransactionManager.class));
+        long start = System.currentTimeMillis();
+        try (Connection connection = context.getBean(DataSource.class).getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO company (id, name) SELECT x, CONCAT('companyTest', x) "
+                    + "FROM SYSTEM_RANGE(1, " + companies + ")");
+            statement.execute("INSERT INTO computer (id, name, introduced, discontinued, company_id) "
+                    + "SELECT x, CONCAT('test', x), "
+                    + "CASEWHEN(MOD(x, 4) = 0, NULL, DATEADD('DAY', MOD(x, 9000), DATE '1980-01-01')), "
+                    + "CASEWHEN(MOD(x, 4) = 0, NULL, DATEADD('DAY', MOD(x, 9000) + 1000, DATE '1980-01-01')), "
+                    + "MOD(x, " + companies + ") + 1 FROM SYSTEM_RANGE(1, " + computers + ")");
+        }
+        // The next generated ids follow the seeded ones
+        context.getBean(IdGeneratorSync.class).align();
+        context.getBean(CountService.class).invalidate(Computer.class);
+        context.getBean(CountService.class).invalidate(Company.class);
+        context.getBean(SearchIndex.class).rebuild();
+        LOGGER.info("SeededDatabase : " + computers + " computers and " + companies + " companies seeded in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Closes the persistence layer.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Get a bean of the persistence layer.
+     * @param type the class of the bean
+     * @param <T> the type of the bean
+     * @return the bean
+     */
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Getter for the transactionTemplate field.
+     * @return the TransactionTemplate running the calls to the DAOs, as the services do.
+     */
+    public TransactionTemplate getTransactionTemplate() {
+        return transactionTemplate;
+    }
+
+    /**
+     * Getter for the computers field.
+     * @return int representing the number of seeded computers.
+     */
+    public int getComputers() {
+        return computers;
+    }
+
+    /**
+     * Getter for the companies field.
+     * @return int representing the number of seeded companies.
+     */
+    public int getCompanies() {
+        return companies;
+    }
+}
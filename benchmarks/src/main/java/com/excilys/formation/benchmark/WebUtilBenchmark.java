@@ -0,0 +1,65 @@
+package com.excilys.formation.benchmark;
+
+import com.excilys.formation.model.util.PageFilter;
+import com.excilys.formation.util.WebUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the parsing of the parameters of the dashboard and of the deleted selection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WebUtilBenchmark {
+    @Param({"10", "1000"})
+    private int selectionSize;
+    private Map<String, String> parameters;
+    private String selection;
+
+    /**
+     * Builds the parameters of a sorted search and a selection of ids.
+     */
+    @Setup
+    public void setUp() {
+        parameters = new HashMap<>();
+        parameters.put("page", "3");
+        parameters.put("limit", "50");
+        parameters.put("search", "mac");
+        parameters.put("column", "companyName");
+        parameters.put("order", "DESC");
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 1; i <= selectionSize; i++) {
+            joiner.add(String.valueOf(i * 7));
+        }
+        selection = joiner.toString();
+    }
+
+    @Benchmark
+    public PageFilter toPageFilter() {
+        return WebUtil.toPageFilter(parameters);
+    }
+
+    @Benchmark
+    public List<Long> toListIds() {
+        return WebUtil.toListIds(selection);
+    }
+}
@@ -27,4 +27,9 @@ public interface ComputerMenu extends Menu {
      * Asks the user for the id of a computer to delete and delete it.
      */
     void delete();
+
+    /**
+     * Asks the user for a file of computers and imports them.
+     */
+    void importComputers();
 }
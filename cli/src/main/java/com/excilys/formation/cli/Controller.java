@@ -1,13 +1,22 @@
 package com.excilys.formation.cli;
 
 import ch.qos.logback.classic.Logger;
+import com.excilys.formation.dto.BatchReport;
 import com.excilys.formation.dto.CompanyDto;
 import com.excilys.formation.dto.ComputerDto;
+import com.excilys.formation.dto.DeletionJob;
+import com.excilys.formation.dto.ImportReport;
 import com.excilys.formation.mapper.PageMapper;
 import com.excilys.formation.model.Company;
-import com.excilys.formation.model.Computer;
+import com.excilys.formation.model.util.ComputerRow;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
+import com.excilys.formation.util.SmileProvider;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.glassfish.jersey.client.filter.EncodingFilter;
+import org.glassfish.jersey.message.DeflateEncoder;
+import org.glassfish.jersey.message.GZipEncoder;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -18,13 +27,26 @@ import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Component
 public class Controller {
 
     private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(Controller.class);
-    private static Client client = ClientBuilder.newClient();
+    private static Client client = ClientBuilder.newClient().register(SmileProvider.class)
+            .register(GZipEncoder.class).register(DeflateEncoder.class).register(EncodingFilter.class);
     private static final String BASE_URL = "http://localhost:8180/rest/";
+    /**
+     * Formats of the responses : Smile, smaller and faster to read, and JSON for the servers without it.
+     * The EncodingFilter asks for them to be compressed too, the encoders decompressing them.
+     */
+    private static final String[] ACCEPTED_TYPES = {SmileProvider.SMILE, MediaType.APPLICATION_JSON + ";q=0.5"};
     @Autowired
     private PageMapper pageMapper;
 
@@ -40,19 +62,38 @@ public class Controller {
     public Page<CompanyDto> getPageCompany(PageFilter pPageFilter) {
         if (pPageFilter != null) {
             WebTarget target = client.target(BASE_URL).path("companies/" + pPageFilter.getElementsByPage() + "/" + pPageFilter.getPageNum());
-            return pageMapper.fromCompanyToCompanyDto(target.request().get().readEntity(new GenericType<Page<Company>>() { }));
+            return pageMapper.fromCompanyToCompanyDto(target.request(ACCEPTED_TYPES).get().readEntity(new GenericType<Page<Company>>() { }));
         }
         return null;
     }
 
     /**
-     * Asks the service to delete a Company.
+     * Asks the service to delete a Company, which is done in the background.
      * @param pId the id of the Company to delete
+     * @return the DeletionJob following the deletion, or null if it couldn't start
      */
-    public void deleteCompany(long pId) {
+    public DeletionJob deleteCompany(long pId) {
         WebTarget target = client.target(BASE_URL).path("companies/" + pId);
-        String result = target.request().delete().readEntity(String.class);
-        System.out.println(result);
+        Response response = target.request(ACCEPTED_TYPES).delete();
+        if (response.getStatus() != Response.Status.ACCEPTED.getStatusCode()) {
+            System.out.println(response.readEntity(String.class));
+            return null;
+        }
+        return response.readEntity(DeletionJob.class);
+    }
+
+    /**
+     * Get the status of the deletion of a Company.
+     * @param pJobId the id of the DeletionJob
+     * @return the DeletionJob, or null if the service doesn't know it
+     */
+    public DeletionJob getDeletionJob(String pJobId) {
+        WebTarget target = client.target(BASE_URL).path("companies/jobs/" + pJobId);
+        Response response = target.request(ACCEPTED_TYPES).get();
+        if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+            return null;
+        }
+        return response.readEntity(DeletionJob.class);
     }
 
     /**
@@ -64,7 +105,7 @@ public class Controller {
      */
     public ComputerDto createComputer(ComputerDto pComputerDto) {
         WebTarget target = client.target(BASE_URL).path("computers");
-        return target.request().post(Entity.entity(pComputerDto, MediaType.APPLICATION_JSON)).readEntity(ComputerDto.class);
+        return target.request(ACCEPTED_TYPES).post(Entity.entity(pComputerDto, MediaType.APPLICATION_JSON)).readEntity(ComputerDto.class);
     }
 
     /**
@@ -78,15 +119,85 @@ public class Controller {
     }
 
     /**
-     * Get a Page<Computer> from the service and converts it to
+     * Get Computers by their ids with a single request.
+     * @param pIds the ids of the Computers to get
+     * @return the BatchReport with the ComputerDto of each found Computer
+     */
+    public BatchReport getComputersById(List<Long> pIds) {
+        WebTarget target = client.target(BASE_URL).path("computers/batch").queryParam("ids", joinIds(pIds));
+        return target.request(ACCEPTED_TYPES).get().readEntity(BatchReport.class);
+    }
+
+    /**
+     * Asks the service to create Computers with a single request, inserted in one transaction.
+     * @param pComputerDtos the ComputerDtos containing the informations of the Computers
+     * @return the BatchReport with the created ComputerDto of each inserted Computer
+     */
+    public BatchReport createComputers(List<ComputerDto> pComputerDtos) {
+        WebTarget target = client.target(BASE_URL).path("computers/batch");
+        return target.request(ACCEPTED_TYPES)
+                .post(Entity.entity(pComputerDtos, SmileProvider.SMILE_TYPE)).readEntity(BatchReport.class);
+    }
+
+    /**
+     * Asks the service to update Computers with a single request, updated in one transaction.
+     * @param pComputerDtos the ComputerDtos containing the informations of the Computers, with their id
+     * @return the BatchReport with the status of each Computer
+     */
+    public BatchReport updateComputers(List<ComputerDto> pComputerDtos) {
+        WebTarget target = client.target(BASE_URL).path("computers/batch");
+        return target.request(ACCEPTED_TYPES)
+                .put(Entity.entity(pComputerDtos, SmileProvider.SMILE_TYPE)).readEntity(BatchReport.class);
+    }
+
+    /**
+     * Asks the service to delete Computers with a single request, deleted in one transaction.
+     * @param pIds the ids of the Computers to delete
+     * @return the BatchReport with the status of each Computer
+     */
+    public BatchReport deleteComputers(List<Long> pIds) {
+        WebTarget target = client.target(BASE_URL).path("computers/batch").queryParam("ids", joinIds(pIds));
+        return target.request(ACCEPTED_TYPES).delete().readEntity(BatchReport.class);
+    }
+
+    /**
+     * Joins ids as a query parameter.
+     * @param pIds the ids
+     * @return the ids separated by commas
+     */
+    private static String joinIds(List<Long> pIds) {
+        return pIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Asks the service to import the computers of a file, one JSON object per line.
+     * The file is sent in chunks as it is read instead of being loaded in memory.
+     * @param pFile the Path of the file
+     * @return the ImportReport of the import
+     * @throws IOException if the file can't be read
+     */
+    public ImportReport importComputers(Path pFile) throws IOException {
+        WebTarget target = client.target(BASE_URL).path("computers/import");
+        try (InputStream in = Files.newInputStream(pFile)) {
+            return target.request(ACCEPTED_TYPES)
+                    .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED)
+                    .post(Entity.entity(in, "application/x-ndjson")).readEntity(ImportReport.class);
+        }
+    }
+
+    /**
+     * Get a Page<ComputerRow> from the service and converts it to
      * Page<ComputerDto>.
      * @param pPageFilter the PageFilter containing the parameters of the page
-     * @return a Page<Computer>
+     * @return a Page<ComputerDto>
      */
     public Page<ComputerDto> getPageComputer(PageFilter pPageFilter) {
         if (pPageFilter != null) {
-            WebTarget target = client.target(BASE_URL).path("computers/" + pPageFilter.getElementsByPage() + "/" + pPageFilter.getPageNum());
-            return pageMapper.fromComputerToComputerDto(target.request().accept(MediaType.APPLICATION_JSON_TYPE).header("Content-type", "application/json").get().readEntity(new GenericType<Page<Computer>>() { }));
+            WebTarget target = client.target(BASE_URL).path("computers/rows/" + pPageFilter.getElementsByPage() + "/" + pPageFilter.getPageNum());
+            if (pPageFilter.getCursor() != null) {
+                target = target.queryParam("cursor", pPageFilter.getCursor().encode());
+            }
+            return pageMapper.fromComputerRowToComputerDto(target.request(ACCEPTED_TYPES).get().readEntity(new GenericType<Page<ComputerRow>>() { }));
         }
         return null;
     }
@@ -98,7 +209,7 @@ public class Controller {
      */
     public ComputerDto getComputerById(long pId) {
         WebTarget target = client.target(BASE_URL).path("computers/" + pId);
-        return target.request().get().readEntity(ComputerDto.class);
+        return target.request(ACCEPTED_TYPES).get().readEntity(ComputerDto.class);
     }
 
     /**
@@ -4,6 +4,7 @@ import com.excilys.formation.cli.CompanyMenu;
 import com.excilys.formation.cli.Controller;
 import com.excilys.formation.cli.MainMenu;
 import com.excilys.formation.dto.CompanyDto;
+import com.excilys.formation.dto.DeletionJob;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
 import com.excilys.formation.util.MenuUtil;
@@ -19,6 +20,7 @@ import java.util.Scanner;
  */
 @Component
 public class CompanyMenuImpl implements CompanyMenu {
+    private static final long PROGRESS_INTERVAL_MILLIS = 500;
     private Page<CompanyDto> pageCompany;
     private PageFilter pageFilter;
     private Scanner scanner = MainMenu.scanner;
@@ -97,7 +99,25 @@ public class CompanyMenuImpl implements CompanyMenu {
             System.out.println("Vous devez entrer un nombre");
             return;
         }
-        controller.deleteCompany(idToDelete);
-        //System.out.println("Company supprimée");
+        DeletionJob job = controller.deleteCompany(idToDelete);
+        // The deletion runs in the background, its progress is shown until it ends
+        while (job != null && !job.isFinished()) {
+            System.out.println("Suppression en cours : " + job.getDeleted() + " / " + job.getTotal() + " ordinateurs");
+            try {
+                Thread.sleep(PROGRESS_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            job = controller.getDeletionJob(job.getId());
+        }
+        if (job == null) {
+            return;
+        }
+        if (job.getStatus() == DeletionJob.Status.DONE) {
+            System.out.println("Company supprimée avec ses " + job.getDeleted() + " ordinateurs");
+        } else {
+            System.out.println("La suppression a échoué : " + job.getError());
+        }
     }
 }
@@ -3,13 +3,22 @@ package com.excilys.formation.cli.implementation;
 import com.excilys.formation.cli.ComputerMenu;
 import com.excilys.formation.cli.Controller;
 import com.excilys.formation.cli.MainMenu;
+import com.excilys.formation.dto.BatchReport;
 import com.excilys.formation.dto.ComputerDto;
+import com.excilys.formation.dto.ImportReport;
+import com.excilys.formation.model.util.PageCursor;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
 import com.excilys.formation.util.MenuUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -42,13 +51,14 @@ public class ComputerMenuImpl implements ComputerMenu {
      * <li>3 : Create</li>
      * <li>4 : Update</li>
      * <li>5 : Delete</li>
-     * <li>6 : Back</li>
+     * <li>6 : Import</li>
+     * <li>7 : Back</li>
      * </ul>
      */
     @Override
     public void startMenu() {
         System.out.println(
-                "Voici les opérations disponibles : \n1 : Voir la liste des ordinateurs\n2 : Voir les informations d'un ordinateur\n3 : Créer un ordinateur\n4 : Mettre à jour un ordinateur\n5 : Supprimer un ordinateur\n6 : Retour");
+                "Voici les opérations disponibles : \n1 : Voir la liste des ordinateurs\n2 : Voir les informations d'un ordinateur\n3 : Créer un ordinateur\n4 : Mettre à jour un ordinateur\n5 : Supprimer un ordinateur\n6 : Importer des ordinateurs\n7 : Retour");
         int choice = MenuUtil.waitForInt();
         if (scanner.hasNextLine()) {
             scanner.nextLine();
@@ -76,6 +86,10 @@ public class ComputerMenuImpl implements ComputerMenu {
             quit = false;
             break;
         case 6:
+            importComputers();
+            quit = false;
+            break;
+        case 7:
             quit = true;
             break;
         default:
@@ -91,11 +105,14 @@ public class ComputerMenuImpl implements ComputerMenu {
     @Override
     public void list() {
         pageFilter.setPageNum(1);
+        pageFilter.setCursor(null);
         pageComputer = new Page<>(10);
         // While the user doesn't quit the list, continue.
         do {
             pageComputer = controller.getPageComputer(pageFilter);
             pageFilter.setNbPage(pageComputer.getTotalPages());
+            // Keeps the position of the last element so the next page can be seeked instead of skipped
+            pageFilter.setCursor(PageCursor.decode(pageComputer.getNextCursor()));
             showPage();
         } while (MenuUtil.manageNavigation(pageFilter));
     }
@@ -204,15 +221,53 @@ public class ComputerMenuImpl implements ComputerMenu {
 
     @Override
     public void delete() {
-        System.out.println("Entrez l'id de l'ordinateur à supprimer (ou entrée pour annuler) : ");
+        System.out.println("Entrez l'id de l'ordinateur à supprimer, ou plusieurs ids séparés par des virgules "
+                + "(ou entrée pour annuler) : ");
         String input = MenuUtil.waitForLine();
-        long idToDelete;
+        List<Long> idsToDelete = new ArrayList<>();
         try {
-            idToDelete = Long.parseLong(input);
+            for (String id : input.split(",")) {
+                idsToDelete.add(Long.parseLong(id.trim()));
+            }
         } catch (NumberFormatException e) {
             System.out.println("Vous devez entrer un nombre");
             return;
         }
-        controller.deleteComputer(idToDelete);
+        if (idsToDelete.size() == 1) {
+            controller.deleteComputer(idsToDelete.get(0));
+            return;
+        }
+        // Several computers are deleted by a single request, in one transaction
+        BatchReport report = controller.deleteComputers(idsToDelete);
+        report.getItems().stream().filter(item -> item.getStatus() != BatchReport.OK)
+                .forEach(item -> System.out.println("Ordinateur " + item.getId() + " non supprimé : " + item.getMessage()));
+        System.out.println(report.getSucceeded() + " ordinateur(s) supprimé(s)");
+    }
+
+    @Override
+    public void importComputers() {
+        System.out.println("Entrez le chemin du fichier à importer, un ordinateur JSON par ligne (ou entrée pour annuler) :");
+        String input = MenuUtil.waitForLine();
+        if (input.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(input);
+        if (!Files.isReadable(file)) {
+            System.out.println("Fichier introuvable");
+            return;
+        }
+        ImportReport report;
+        try {
+            report = controller.importComputers(file);
+        } catch (IOException e) {
+            System.out.println("Impossible de lire le fichier");
+            return;
+        }
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("Lus : ").append(report.getRead()).append(", importés : ").append(report.getImported())
+                .append(", rejetés : ").append(report.getRejected()).append(" (").append(report.getRowsPerSecond())
+                .append(" ordinateurs/s)");
+        report.getErrors().forEach(error -> stringBuilder.append("\n").append(error));
+        System.out.println(stringBuilder.toString());
     }
 }
\ No newline at end of file
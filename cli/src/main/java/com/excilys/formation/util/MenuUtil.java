@@ -100,6 +100,7 @@ public class MenuUtil {
             if (nextOption == 1) {
                 if (pPageFilter.getPageNum() - 1 >= 1) {
                     pPageFilter.setPageNum(pPageFilter.getPageNum() - 1);
+                    pPageFilter.setCursor(null);
                     ok = true;
                 } else {
                     System.out.println("Vous êtes déjà sur la première page");
@@ -126,6 +127,7 @@ public class MenuUtil {
                 }
                 if (0 < newPage && newPage <= pPageFilter.getNbPage()) {
                     pPageFilter.setPageNum(newPage);
+                    pPageFilter.setCursor(null);
                     ok = true;
                 } else {
                     System.out.println("Cette page n'existe pas");
@@ -0,0 +1,77 @@
+package com.excilys.formation.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Provider reading and writing the entities in Smile, the binary encoding of JSON the rest module answers with
+ * when it is asked first in the Accept header.
+ */
+@Provider
+@Consumes(SmileProvider.SMILE)
+@Produces(SmileProvider.SMILE)
+public class SmileProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+    public static final String SMILE = "application/x-jackson-smile";
+    public static final MediaType SMILE_TYPE = new MediaType("application", "x-jackson-smile");
+    /**
+     * Mapper sharing the short string values besides the names, which leaves the streams of Jersey open.
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper(new SmileFactory()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isMapped(type) && SMILE_TYPE.isCompatible(mediaType);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        return MAPPER.readValue(entityStream, MAPPER.constructType(genericType));
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isMapped(type) && SMILE_TYPE.isCompatible(mediaType);
+    }
+
+    /**
+     * Tells whether a type is mapped to Smile, the strings and the streams being left to the providers of Jersey :
+     * the messages answered as strings are written as is by the server, whatever type is asked.
+     * @param type the class of the entity
+     * @return true if the entity is read and written by the mapper
+     */
+    private static boolean isMapped(Class<?> type) {
+        return type != String.class && type != byte[].class && !InputStream.class.isAssignableFrom(type)
+                && !OutputStream.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public long getSize(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        MAPPER.writerFor(MAPPER.constructType(genericType)).writeValue(entityStream, o);
+    }
+}
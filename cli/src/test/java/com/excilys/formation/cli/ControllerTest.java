@@ -1,6 +1,7 @@
 package com.excilys.formation.cli;
 
 import com.excilys.formation.config.CliSpringTestConfig;
+import com.excilys.formation.dto.BatchReport;
 import com.excilys.formation.dto.CompanyDto;
 import com.excilys.formation.dto.ComputerDto;
 import com.excilys.formation.model.util.PageFilter;
@@ -17,6 +18,8 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 
 /**
@@ -69,4 +72,14 @@ public class ControllerTest {
         assertNotNull(computerDto);
         assertEquals(computerDto.getName(), "test computer");
     }
+
+    @Test
+    public void getComputersById_ShouldReturnBatchReport() throws Exception {
+        BatchReport report = controller.getComputersById(Arrays.asList(2L, 3L));
+        assertNotNull(report);
+        assertEquals(2, report.getItems().size());
+        assertEquals(BatchReport.OK, report.getItems().get(0).getStatus());
+        assertEquals("test computer", report.getItems().get(0).getComputer().getName());
+        assertEquals(BatchReport.NOT_FOUND, report.getItems().get(1).getStatus());
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.excilys.formation.model;
 import java.io.Serializable;
 import java.util.Objects;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -15,6 +16,7 @@ import javax.persistence.Table;
  * @author kfuster
  */
 @Entity
+@Cacheable
 @Table(name = "company")
 public final class Company implements Serializable {
     private static final long serialVersionUID = 2065269485702193829L;
@@ -1,11 +1,13 @@
 package com.excilys.formation.model;
 
 import com.excilys.formation.converter.LocalDateConverter;
+import com.excilys.formation.model.util.IdGenerators;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
@@ -15,6 +17,7 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.TableGenerator;
 
 import java.io.Serializable;
 import java.time.LocalDate;
@@ -26,12 +29,16 @@ import java.util.Objects;
  * @author kfuster
  */
 @Entity
+@Cacheable
 @Table(name = "computer")
 public final class Computer implements Serializable {
     private static final long serialVersionUID = -7424514145722416760L;
     // ######### ATTRIBUTES #########
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.COMPUTER)
+    @TableGenerator(name = IdGenerators.COMPUTER, table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.COMPUTER,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     @Column
     private String name;
@@ -1,5 +1,6 @@
 package com.excilys.formation.model;
 
+import com.excilys.formation.model.util.IdGenerators;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import javax.persistence.CascadeType;
@@ -13,6 +14,7 @@ import javax.persistence.JoinTable;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToMany;
 import javax.persistence.Table;
+import javax.persistence.TableGenerator;
 
 import java.util.Collection;
 
@@ -26,7 +28,10 @@ import java.util.Collection;
 public class User implements UserDetails {
     private static final long serialVersionUID = 5516692655625378444L;
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdGenerators.USER)
+    @TableGenerator(name = IdGenerators.USER, table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.USER,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     @Column(nullable = false)
     private String username;
@@ -0,0 +1,124 @@
+package com.excilys.formation.model.util;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Immutable row of a listing page of computers, selected by a projection query.
+ * Unlike a Computer, it isn't an entity : it is neither attached to a session nor dirty checked,
+ * and its company is flattened to its id and name.
+ */
+public final class ComputerRow implements Serializable {
+    private static final long serialVersionUID = 5817324401237617480L;
+    private final Long id;
+    private final String name;
+    @JsonSerialize(using = LocalDateSerializer.class)
+    private final LocalDate introduced;
+    @JsonSerialize(using = LocalDateSerializer.class)
+    private final LocalDate discontinued;
+    private final Long companyId;
+    private final String companyName;
+
+    /**
+     * ComputerRow constructor, used by the projection queries.
+     * @param id the computer's id
+     * @param name the computer's name
+     * @param introduced the computer's introduction date, may be null
+     * @param discontinued the computer's discontinuation date, may be null
+     * @param companyId the id of the computer's company, may be null
+     * @param companyName the name of the computer's company, may be null
+     */
+    @JsonCreator
+    public ComputerRow(@JsonProperty("id") Long id, @JsonProperty("name") String name,
+            @JsonProperty("introduced") @JsonDeserialize(using = LocalDateDeserializer.class) LocalDate introduced,
+            @JsonProperty("discontinued") @JsonDeserialize(using = LocalDateDeserializer.class) LocalDate discontinued,
+            @JsonProperty("companyId") Long companyId, @JsonProperty("companyName") String companyName) {
+        this.id = id;
+        this.name = name;
+        this.introduced = introduced;
+        this.discontinued = discontinued;
+        this.companyId = companyId;
+        this.companyName = companyName;
+    }
+
+    /**
+     * Getter for the id field.
+     * @return Long representing the id.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Getter for the name field.
+     * @return String representing the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for the introduced field.
+     * @return LocalDate representing the introduction date.
+     */
+    public LocalDate getIntroduced() {
+        return introduced;
+    }
+
+    /**
+     * Getter for the discontinued field.
+     * @return LocalDate representing the discontinuation date.
+     */
+    public LocalDate getDiscontinued() {
+        return discontinued;
+    }
+
+    /**
+     * Getter for the companyId field.
+     * @return Long representing the id of the company.
+     */
+    public Long getCompanyId() {
+        return companyId;
+    }
+
+    /**
+     * Getter for the companyName field.
+     * @return String representing the name of the company.
+     */
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, introduced, discontinued, companyId, companyName);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        ComputerRow other = (ComputerRow) obj;
+        return Objects.equals(id, other.id) && Objects.equals(name, other.name)
+                && Objects.equals(introduced, other.introduced) && Objects.equals(discontinued, other.discontinued)
+                && Objects.equals(companyId, other.companyId) && Objects.equals(companyName, other.companyName);
+    }
+
+    @Override
+    public String toString() {
+        return "ComputerRow [id=" + id + ", name=" + name + ", introduced=" + introduced + ", discontinued="
+                + discontinued + ", companyId=" + companyId + ", companyName=" + companyName + "]";
+    }
+}
@@ -0,0 +1,40 @@
+package com.excilys.formation.model.util;
+
+/**
+ * Settings of the table generating the ids of the entities which are inserted in batches.
+ * Unlike an IDENTITY column, whose id is only known once the row is inserted, the table gives the ids
+ * before the insert, by blocks of ALLOCATION_SIZE, so that Hibernate can group the inserts in JDBC batches.
+ * Each entity has a row in the table, whose value is the first id of the next block.
+ */
+public final class IdGenerators {
+    /**
+     * Name of the table of the generators.
+     */
+    public static final String TABLE = "id_generator";
+    /**
+     * Column of the name of the entity.
+     */
+    public static final String NAME_COLUMN = "entity";
+    /**
+     * Column of the first id of the next block.
+     */
+    public static final String VALUE_COLUMN = "next_id";
+    /**
+     * Number of ids taken from the table at once.
+     */
+    public static final int ALLOCATION_SIZE = 50;
+    /**
+     * Name of the generator of the computers, and of their row in the table.
+     */
+    public static final String COMPUTER = "computer";
+    /**
+     * Name of the generator of the users, and of their row in the table.
+     */
+    public static final String USER = "user";
+
+    /**
+     * IdGenerators constructor, not used.
+     */
+    private IdGenerators() {
+    }
+}
@@ -0,0 +1,137 @@
+package com.excilys.formation.model.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Class representing the position of the last element of a page, used for keyset (seek) pagination.
+ * Instead of skipping (pageNum - 1) * elementsByPage rows, the next page is fetched with a
+ * WHERE clause on the last seen (sort key, id) couple. It travels between clients and the
+ * server as an opaque token.
+ */
+public final class PageCursor {
+    private static final String SEPARATOR = "|";
+    private static final String VALUE_PREFIX = "=";
+    private final String sortKey;
+    private final boolean descending;
+    private final String lastValue;
+    private final long lastId;
+
+    /**
+     * PageCursor constructor.
+     * @param sortKey the sort the cursor was built for, of the form "table.column" or empty when sorting by id
+     * @param descending true if the sort is descending
+     * @param lastValue the sort value of the last element of the page, may be null
+     * @param lastId the id of the last element of the page
+     */
+    public PageCursor(String sortKey, boolean descending, String lastValue, long lastId) {
+        this.sortKey = sortKey == null ? "" : sortKey;
+        this.descending = descending;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Getter for the sortKey field.
+     * @return String representing the sort the cursor was built for.
+     */
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    /**
+     * Getter for the descending field.
+     * @return boolean indicating if the sort is descending.
+     */
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Getter for the lastValue field.
+     * @return String representing the sort value of the last element, or null.
+     */
+    public String getLastValue() {
+        return lastValue;
+    }
+
+    /**
+     * Getter for the lastId field.
+     * @return long representing the id of the last element.
+     */
+    public long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Checks if the cursor was built for the given sort.
+     * @param pSortKey the sort key of the current request
+     * @param pDescending the order of the current request
+     * @return true if the cursor can be used with this sort
+     */
+    public boolean matches(String pSortKey, boolean pDescending) {
+        return sortKey.equals(pSortKey == null ? "" : pSortKey) && descending == pDescending;
+    }
+
+    /**
+     * Encodes the cursor to an opaque URL-safe token.
+     * @return a String token
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder()
+                .append(sortKey).append(SEPARATOR)
+                .append(descending ? "DESC" : "ASC").append(SEPARATOR)
+                .append(lastId).append(SEPARATOR);
+        if (lastValue != null) {
+            sb.append(VALUE_PREFIX).append(lastValue);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     * @param token the token to decode
+     * @return a PageCursor, or null if the token is empty or can't be read
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4) {
+                return null;
+            }
+            String value = parts[3].startsWith(VALUE_PREFIX) ? parts[3].substring(VALUE_PREFIX.length()) : null;
+            return new PageCursor(parts[0], "DESC".equals(parts[1]), value, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortKey, descending, lastValue, lastId);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        PageCursor other = (PageCursor) obj;
+        return descending == other.descending && lastId == other.lastId
+                && sortKey.equals(other.sortKey) && Objects.equals(lastValue, other.lastValue);
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor [sortKey=" + sortKey + ", descending=" + descending + ", lastValue=" + lastValue
+                + ", lastId=" + lastId + "]";
+    }
+}
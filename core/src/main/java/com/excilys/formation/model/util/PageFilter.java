@@ -11,6 +11,7 @@ public class PageFilter {
     private int elementsByPage;
     private int pageNum;
     private Map<String, String> conditions = new HashMap<>();
+    private PageCursor cursor;
 
     /**
      * Adds a condition in the conditions Map.
@@ -76,4 +77,28 @@ public class PageFilter {
     public void setPageNum(int pageNum) {
         this.pageNum = pageNum;
     }
+
+    /**
+     * Getter for the keyset cursor.
+     * @return PageCursor pointing after the last element of the previous page, or null to use the page number.
+     */
+    public PageCursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Setter for the keyset cursor.
+     * @param cursor PageCursor pointing after the last element of the previous page, or null to use the page number.
+     */
+    public void setCursor(PageCursor cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Get the immutable key of the current state of the filter.
+     * @return a PageFilterKey
+     */
+    public PageFilterKey toKey() {
+        return PageFilterKey.of(this);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.excilys.formation.model.util;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable key of a PageFilter, used to cache the pages.
+ * Its hash is computed once, and the keys of the filters without search nor cursor,
+ * which are the most requested ones, are interned so that the cache keeps a single instance of them.
+ */
+public final class PageFilterKey {
+    private static final int MAX_INTERNED = 10000;
+    private static final ConcurrentMap<PageFilterKey, PageFilterKey> INTERNED = new ConcurrentHashMap<>();
+    private final int pageNum;
+    private final int elementsByPage;
+    private final String computerName;
+    private final String companyName;
+    private final String table;
+    private final String column;
+    private final String order;
+    private final PageCursor cursor;
+    private final int hash;
+
+    /**
+     * PageFilterKey constructor.
+     * @param pageFilter the PageFilter to build the key from
+     */
+    private PageFilterKey(PageFilter pageFilter) {
+        Map<String, String> conditions = pageFilter.getConditions();
+        pageNum = pageFilter.getPageNum();
+        elementsByPage = pageFilter.getElementsByPage();
+        computerName = conditions.get("computerName");
+        companyName = conditions.get("companyName");
+        table = conditions.get("table");
+        column = conditions.get("column");
+        order = conditions.get("order");
+        cursor = pageFilter.getCursor();
+        hash = Objects.hash(pageNum, elementsByPage, computerName, companyName, table, column, order, cursor);
+    }
+
+    /**
+     * Get the key of a PageFilter.
+     * @param pageFilter the PageFilter
+     * @return a PageFilterKey, interned if the filter has neither search nor cursor
+     */
+    public static PageFilterKey of(PageFilter pageFilter) {
+        if (pageFilter == null) {
+            throw new IllegalArgumentException("A PageFilter is needed");
+        }
+        PageFilterKey key = new PageFilterKey(pageFilter);
+        if (key.computerName != null || key.companyName != null || key.cursor != null) {
+            return key;
+        }
+        PageFilterKey interned = INTERNED.get(key);
+        if (interned != null) {
+            return interned;
+        }
+        if (INTERNED.size() < MAX_INTERNED) {
+            interned = INTERNED.putIfAbsent(key, key);
+            return interned != null ? interned : key;
+        }
+        return key;
+    }
+
+    /**
+     * Getter for the pageNum field.
+     * @return int representing the page number.
+     */
+    public int getPageNum() {
+        return pageNum;
+    }
+
+    /**
+     * Getter for the elementsByPage field.
+     * @return int representing the number of elements per page.
+     */
+    public int getElementsByPage() {
+        return elementsByPage;
+    }
+
+    /**
+     * Getter for the computerName field.
+     * @return String representing the searched computer name, or null.
+     */
+    public String getComputerName() {
+        return computerName;
+    }
+
+    /**
+     * Getter for the companyName field.
+     * @return String representing the searched company name, or null.
+     */
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    /**
+     * Get the sort of the page.
+     * @return the sort in the form "table.column", or null when sorted by id
+     */
+    public String getSortKey() {
+        return column == null ? null : table + "." + column;
+    }
+
+    /**
+     * Getter for the order field.
+     * @return String representing the order of the sort, or null.
+     */
+    public String getOrder() {
+        return order;
+    }
+
+    /**
+     * Getter for the cursor field.
+     * @return the PageCursor of the filter, or null.
+     */
+    public PageCursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Builds a new PageFilter from the key.
+     * @return a PageFilter with the attributes of the key
+     */
+    public PageFilter toPageFilter() {
+        PageFilter pageFilter = new PageFilter();
+        pageFilter.setPageNum(pageNum);
+        pageFilter.setElementsByPage(elementsByPage);
+        addCondition(pageFilter, "computerName", computerName);
+        addCondition(pageFilter, "companyName", companyName);
+        addCondition(pageFilter, "table", table);
+        addCondition(pageFilter, "column", column);
+        addCondition(pageFilter, "order", order);
+        pageFilter.setCursor(cursor);
+        return pageFilter;
+    }
+
+    /**
+     * Adds a condition to a PageFilter if it has a value.
+     * @param pageFilter the PageFilter
+     * @param key the condition's key
+     * @param value the condition's value, may be null
+     */
+    private static void addCondition(PageFilter pageFilter, String key, String value) {
+        if (value != null) {
+            pageFilter.addCondition(key, value);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        PageFilterKey other = (PageFilterKey) obj;
+        return hash == other.hash && pageNum == other.pageNum && elementsByPage == other.elementsByPage
+                && Objects.equals(computerName, other.computerName) && Objects.equals(companyName, other.companyName)
+                && Objects.equals(table, other.table) && Objects.equals(column, other.column)
+                && Objects.equals(order, other.order) && Objects.equals(cursor, other.cursor);
+    }
+
+    @Override
+    public String toString() {
+        return "PageFilterKey [pageNum=" + pageNum + ", elementsByPage=" + elementsByPage + ", computerName="
+                + computerName + ", companyName=" + companyName + ", table=" + table + ", column=" + column
+                + ", order=" + order + ", cursor=" + cursor + "]";
+    }
+}
@@ -0,0 +1,208 @@
+package com.excilys.formation.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Report of a batch of computers read, created, updated or deleted at once : the status of each item,
+ * in the order of the request, with the numbers of succeeded and failed items.
+ * The statuses are the HTTP statuses the item would have had in a request of its own.
+ */
+public class BatchReport implements Serializable {
+    private static final long serialVersionUID = -4830259147735410268L;
+    /**
+     * Statuses of the items, as the HTTP statuses of the matching single requests.
+     */
+    public static final int OK = 200;
+    public static final int CREATED = 201;
+    public static final int INVALID = 400;
+    public static final int NOT_FOUND = 404;
+    public static final int FAILED = 500;
+    private int succeeded;
+    private int failed;
+    private List<ItemStatus> items = new ArrayList<>();
+
+    /**
+     * Getter for the succeeded field.
+     * @return int representing the number of items whose status is a success.
+     */
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * Setter for the succeeded field.
+     * @param succeeded int representing the number of succeeded items.
+     */
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    /**
+     * Getter for the failed field.
+     * @return int representing the number of items whose status is an error.
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Setter for the failed field.
+     * @param failed int representing the number of failed items.
+     */
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * Getter for the items field.
+     * @return the List of the ItemStatuses, in the order of the request.
+     */
+    public List<ItemStatus> getItems() {
+        return items;
+    }
+
+    /**
+     * Setter for the items field.
+     * @param items the List of ItemStatuses.
+     */
+    public void setItems(List<ItemStatus> items) {
+        this.items = items;
+    }
+
+    /**
+     * Adds the status of the next item, counting it as succeeded or failed.
+     * @param item the ItemStatus of the item
+     */
+    public void add(ItemStatus item) {
+        items.add(item);
+        if (item.getStatus() < INVALID) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BatchReport [items=" + items.size() + ", succeeded=" + succeeded + ", failed=" + failed + "]";
+    }
+
+    /**
+     * Status of an item of a batch.
+     */
+    public static class ItemStatus implements Serializable {
+        private static final long serialVersionUID = 6190453379421735210L;
+        private int index;
+        private Long id;
+        private int status;
+        private String message;
+        private ComputerDto computer;
+
+        /**
+         * ItemStatus constructor, used by the deserialization.
+         */
+        public ItemStatus() {
+        }
+
+        /**
+         * ItemStatus constructor.
+         * @param index the index of the item in the request
+         * @param id the id of the computer, may be null
+         * @param status the HTTP status of the item
+         * @param message the reason of a failure, may be null
+         */
+        public ItemStatus(int index, Long id, int status, String message) {
+            this.index = index;
+            this.id = id;
+            this.status = status;
+            this.message = message;
+        }
+
+        /**
+         * Getter for the index field.
+         * @return int representing the index of the item in the request, from 0.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Setter for the index field.
+         * @param index int representing the index of the item.
+         */
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Getter for the id field.
+         * @return Long representing the id of the computer, or null.
+         */
+        public Long getId() {
+            return id;
+        }
+
+        /**
+         * Setter for the id field.
+         * @param id Long representing the id of the computer.
+         */
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        /**
+         * Getter for the status field.
+         * @return int representing the HTTP status of the item.
+         */
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * Setter for the status field.
+         * @param status int representing the HTTP status of the item.
+         */
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        /**
+         * Getter for the message field.
+         * @return String representing the reason of a failure, or null.
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Setter for the message field.
+         * @param message String representing the reason of a failure.
+         */
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        /**
+         * Getter for the computer field.
+         * @return the read or created ComputerDto, or null.
+         */
+        public ComputerDto getComputer() {
+            return computer;
+        }
+
+        /**
+         * Setter for the computer field.
+         * @param computer the read or created ComputerDto.
+         */
+        public void setComputer(ComputerDto computer) {
+            this.computer = computer;
+        }
+
+        @Override
+        public String toString() {
+            return "item " + index + " : " + status + (message == null ? "" : " " + message);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.excilys.formation.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.io.Serializable;
+
+/**
+ * State of a background deletion of a company and of its computers.
+ * It is updated by the thread running the deletion and read by the requests following its progress.
+ */
+@JsonIgnoreProperties(value = "finished", allowGetters = true)
+public class DeletionJob implements Serializable {
+    private static final long serialVersionUID = -4427154087135270632L;
+    private String id;
+    private long companyId;
+    private volatile Status status = Status.PENDING;
+    private volatile long total;
+    private volatile long deleted;
+    private volatile String error;
+    private volatile long startTime;
+    private volatile long endTime;
+
+    /**
+     * Status of a DeletionJob.
+     */
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    /**
+     * DeletionJob constructor, used by the deserialization.
+     */
+    public DeletionJob() {
+    }
+
+    /**
+     * DeletionJob constructor.
+     * @param id the id of the job
+     * @param companyId the id of the deleted company
+     */
+    public DeletionJob(String id, long companyId) {
+        this.id = id;
+        this.companyId = companyId;
+    }
+
+    /**
+     * Getter for the id field.
+     * @return String representing the id of the job.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Setter for the id field.
+     * @param id String representing the id of the job.
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Getter for the companyId field.
+     * @return long representing the id of the deleted company.
+     */
+    public long getCompanyId() {
+        return companyId;
+    }
+
+    /**
+     * Setter for the companyId field.
+     * @param companyId long representing the id of the deleted company.
+     */
+    public void setCompanyId(long companyId) {
+        this.companyId = companyId;
+    }
+
+    /**
+     * Getter for the status field.
+     * @return the Status of the job.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Setter for the status field.
+     * @param status the Status of the job.
+     */
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * Getter for the total field.
+     * @return long representing the number of computers of the company when the job started.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Setter for the total field.
+     * @param total long representing the number of computers of the company when the job started.
+     */
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    /**
+     * Getter for the deleted field.
+     * @return long representing the number of computers deleted so far.
+     */
+    public long getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Setter for the deleted field.
+     * @param deleted long representing the number of computers deleted so far.
+     */
+    public void setDeleted(long deleted) {
+        this.deleted = deleted;
+    }
+
+    /**
+     * Getter for the error field.
+     * @return String representing the error of a failed job, or null.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Setter for the error field.
+     * @param error String representing the error of a failed job.
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * Getter for the startTime field.
+     * @return long representing the time the job started running in milliseconds, or 0.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Setter for the startTime field.
+     * @param startTime long representing the time the job started running in milliseconds.
+     */
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    /**
+     * Getter for the endTime field.
+     * @return long representing the time the job ended in milliseconds, or 0.
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Setter for the endTime field.
+     * @param endTime long representing the time the job ended in milliseconds.
+     */
+    public void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    /**
+     * Tells if the job has ended, successfully or not.
+     * @return true if the job is DONE or FAILED
+     */
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    @Override
+    public String toString() {
+        return "DeletionJob [id=" + id + ", companyId=" + companyId + ", status=" + status + ", deleted=" + deleted
+                + "/" + total + (error == null ? "" : ", error=" + error) + "]";
+    }
+}
@@ -0,0 +1,194 @@
+package com.excilys.formation.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Report of a bulk import of computers : the number of read, imported and rejected rows, the throughput,
+ * and the errors of the rejected rows, of which only the first MAX_ERRORS are kept.
+ */
+@JsonIgnoreProperties(value = "rowsPerSecond", allowGetters = true)
+public class ImportReport implements Serializable {
+    private static final long serialVersionUID = 3920571785164082761L;
+    /**
+     * Maximum number of kept errors, so that the report doesn't grow with the rejected rows.
+     */
+    public static final int MAX_ERRORS = 100;
+    private long read;
+    private long imported;
+    private long rejected;
+    private long elapsedMillis;
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * Getter for the read field.
+     * @return long representing the number of read rows.
+     */
+    public long getRead() {
+        return read;
+    }
+
+    /**
+     * Setter for the read field.
+     * @param read long representing the number of read rows.
+     */
+    public void setRead(long read) {
+        this.read = read;
+    }
+
+    /**
+     * Getter for the imported field.
+     * @return long representing the number of inserted rows.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Setter for the imported field.
+     * @param imported long representing the number of inserted rows.
+     */
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * Getter for the rejected field.
+     * @return long representing the number of rejected rows, including the ones whose error isn't kept.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Setter for the rejected field.
+     * @param rejected long representing the number of rejected rows.
+     */
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * Getter for the elapsedMillis field.
+     * @return long representing the duration of the import in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Setter for the elapsedMillis field.
+     * @param elapsedMillis long representing the duration of the import in milliseconds.
+     */
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Get the throughput of the import.
+     * @return the number of imported rows per second
+     */
+    public long getRowsPerSecond() {
+        return elapsedMillis <= 0 ? imported : imported * 1000 / elapsedMillis;
+    }
+
+    /**
+     * Getter for the errors field.
+     * @return the List of the kept RowErrors.
+     */
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Setter for the errors field.
+     * @param errors the List of RowErrors.
+     */
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Rejects rows, keeping their error if there are less than MAX_ERRORS of them.
+     * @param line the line of the first rejected row, counted from 1
+     * @param count the number of rejected rows
+     * @param message the reason of the rejection
+     */
+    public void reject(long line, long count, String message) {
+        rejected += count;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport [read=" + read + ", imported=" + imported + ", rejected=" + rejected
+                + ", elapsedMillis=" + elapsedMillis + ", rowsPerSecond=" + getRowsPerSecond() + "]";
+    }
+
+    /**
+     * Error of a rejected row.
+     */
+    public static class RowError implements Serializable {
+        private static final long serialVersionUID = -1290374461750925322L;
+        private long line;
+        private String message;
+
+        /**
+         * RowError constructor, used by the deserialization.
+         */
+        public RowError() {
+        }
+
+        /**
+         * RowError constructor.
+         * @param line the line of the row, counted from 1
+         * @param message the reason of the rejection
+         */
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        /**
+         * Getter for the line field.
+         * @return long representing the line of the row.
+         */
+        public long getLine() {
+            return line;
+        }
+
+        /**
+         * Setter for the line field.
+         * @param line long representing the line of the row.
+         */
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        /**
+         * Getter for the message field.
+         * @return String representing the reason of the rejection.
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Setter for the message field.
+         * @param message String representing the reason of the rejection.
+         */
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line + " : " + message;
+        }
+    }
+}
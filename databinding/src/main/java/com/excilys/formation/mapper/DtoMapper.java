@@ -5,17 +5,16 @@ import com.excilys.formation.dto.ComputerDto;
 import com.excilys.formation.model.Company;
 import com.excilys.formation.model.Computer;
 import com.excilys.formation.model.Computer.ComputerBuilder;
-import org.springframework.context.i18n.LocaleContextHolder;
+import com.excilys.formation.model.util.ComputerRow;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.ResourceBundle;
 
 /**
  * Mapper class for DTOs.
+ * The date formats are resolved once per call through LocaleFormats, also for the lists.
  * @author kfuster
  */
 @Component
@@ -27,9 +26,16 @@ public class DtoMapper {
      * @return a Computer
      */
     public Computer toComputer(ComputerDto computerDto) {
-        ResourceBundle messages = ResourceBundle.getBundle("messages/messages", LocaleContextHolder.getLocale());
-        DateTimeFormatter formatter = DateTimeFormatter
-                .ofPattern(messages.getString("util.date.format"));
+        return toComputer(computerDto, LocaleFormats.current());
+    }
+
+    /**
+     * Converts a ComputerDto to a Computer with the given formats.
+     * @param computerDto the ComputerDto to convert
+     * @param formats the LocaleFormats of the dates
+     * @return a Computer
+     */
+    private static Computer toComputer(ComputerDto computerDto, LocaleFormats formats) {
         Computer computer = null;
         if (computerDto != null) {
             Company company = new Company.CompanyBuilder(computerDto.getCompanyName()).id(computerDto.getCompanyId())
@@ -37,10 +43,10 @@ public class DtoMapper {
             ComputerBuilder builder = new Computer.ComputerBuilder(computerDto.getName()).id(computerDto.getId())
                     .company(company);
             if (computerDto.getIntroduced() != null && !computerDto.getIntroduced().isEmpty()) {
-                builder.dateIntro(LocalDate.parse(computerDto.getIntroduced(), formatter));
+                builder.dateIntro(formats.parse(computerDto.getIntroduced()));
             }
             if (computerDto.getDiscontinued() != null && !computerDto.getDiscontinued().isEmpty()) {
-                builder.dateDisc(LocalDate.parse(computerDto.getDiscontinued(), formatter)).build();
+                builder.dateDisc(formats.parse(computerDto.getDiscontinued()));
             }
             computer = builder.build();
         }
@@ -54,8 +60,9 @@ public class DtoMapper {
      */
     public List<Computer> toComputerList(List<ComputerDto> listComputerDto) {
         if (listComputerDto != null) {
-            List<Computer> computers = new ArrayList<>();
-            listComputerDto.forEach(computer -> computers.add(toComputer(computer)));
+            LocaleFormats formats = LocaleFormats.current();
+            List<Computer> computers = new ArrayList<>(listComputerDto.size());
+            listComputerDto.forEach(computer -> computers.add(toComputer(computer, formats)));
             return computers;
         } else {
             return null;
@@ -68,9 +75,16 @@ public class DtoMapper {
      * @return a ComputerDto
      */
     public ComputerDto fromComputer(Computer computer) {
-        ResourceBundle messages = ResourceBundle.getBundle("messages/messages", LocaleContextHolder.getLocale());
-        DateTimeFormatter formatter = DateTimeFormatter
-                .ofPattern(messages.getString("util.date.format"));
+        return fromComputer(computer, LocaleFormats.current());
+    }
+
+    /**
+     * Converts a Computer to a ComputerDto with the given formats.
+     * @param computer the Computer to convert
+     * @param formats the LocaleFormats of the dates
+     * @return a ComputerDto
+     */
+    private static ComputerDto fromComputer(Computer computer, LocaleFormats formats) {
         ComputerDto computerDto = null;
         if (computer != null) {
             computerDto = new ComputerDto();
@@ -78,11 +92,11 @@ public class DtoMapper {
             computerDto.setName(computer.getName());
             LocalDate dateIntro = computer.getIntroduced();
             if (dateIntro != null) {
-                computerDto.setIntroduced(dateIntro.format(formatter));
+                computerDto.setIntroduced(formats.format(dateIntro));
             }
             LocalDate dateDisc = computer.getDiscontinued();
             if (dateDisc != null) {
-                computerDto.setDiscontinued(dateDisc.format(formatter));
+                computerDto.setDiscontinued(formats.format(dateDisc));
             }
             if (computer.getCompany() != null) {
                 Company company = computer.getCompany();
@@ -100,8 +114,34 @@ public class DtoMapper {
      */
     public List<ComputerDto> fromComputerList(List<Computer> listComputers) {
         if (listComputers != null) {
-            List<ComputerDto> computersDto = new ArrayList<>();
-            listComputers.forEach(computer -> computersDto.add(fromComputer(computer)));
+            LocaleFormats formats = LocaleFormats.current();
+            List<ComputerDto> computersDto = new ArrayList<>(listComputers.size());
+            listComputers.forEach(computer -> computersDto.add(fromComputer(computer, formats)));
+            return computersDto;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Converts a List of ComputerRows to a List of ComputerDto.
+     * @param rows the List of ComputerRows to convert
+     * @return a List of ComputerDto
+     */
+    public List<ComputerDto> fromComputerRowList(List<ComputerRow> rows) {
+        if (rows != null) {
+            LocaleFormats formats = LocaleFormats.current();
+            List<ComputerDto> computersDto = new ArrayList<>(rows.size());
+            for (ComputerRow row : rows) {
+                ComputerDto computerDto = new ComputerDto();
+                computerDto.setId(row.getId());
+                computerDto.setName(row.getName());
+                computerDto.setIntroduced(formats.format(row.getIntroduced()));
+                computerDto.setDiscontinued(formats.format(row.getDiscontinued()));
+                computerDto.setCompanyId(row.getCompanyId());
+                computerDto.setCompanyName(row.getCompanyName());
+                computersDto.add(computerDto);
+            }
             return computersDto;
         } else {
             return null;
@@ -136,7 +176,7 @@ public class DtoMapper {
      */
     public static List<CompanyDto> fromCompanyList(List<Company> listCompanies) {
         if (listCompanies != null) {
-            List<CompanyDto> companiesDto = new ArrayList<>();
+            List<CompanyDto> companiesDto = new ArrayList<>(listCompanies.size());
             listCompanies.forEach(company -> companiesDto.add(fromCompany(company)));
             return companiesDto;
         } else {
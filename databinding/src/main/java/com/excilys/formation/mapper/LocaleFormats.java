@@ -0,0 +1,109 @@
+package com.excilys.formation.mapper;
+
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the date formats of each locale, resolved from the messages bundle once per locale.
+ * The DateTimeFormatters being immutable and thread-safe, they are shared by all the requests.
+ */
+public final class LocaleFormats {
+    private static final String BUNDLE = "messages/messages";
+    private static final String DATE_FORMAT_KEY = "util.date.format";
+    /**
+     * Maximum number of registered locales, the locales above it are resolved on each call.
+     */
+    private static final int MAX_LOCALES = 64;
+    private static final ConcurrentMap<Locale, LocaleFormats> REGISTRY = new ConcurrentHashMap<>();
+    private final ResourceBundle messages;
+    private final String datePattern;
+    private final DateTimeFormatter dateFormatter;
+
+    /**
+     * LocaleFormats constructor.
+     * @param locale the Locale whose formats are resolved
+     */
+    private LocaleFormats(Locale locale) {
+        messages = ResourceBundle.getBundle(BUNDLE, locale);
+        datePattern = messages.getString(DATE_FORMAT_KEY);
+        dateFormatter = DateTimeFormatter.ofPattern(datePattern);
+    }
+
+    /**
+     * Get the formats of a locale.
+     * @param locale the Locale
+     * @return the LocaleFormats of the locale
+     */
+    public static LocaleFormats of(Locale locale) {
+        if (locale == null) {
+            throw new IllegalArgumentException("A locale is needed");
+        }
+        LocaleFormats formats = REGISTRY.get(locale);
+        if (formats != null) {
+            return formats;
+        }
+        formats = new LocaleFormats(locale);
+        if (REGISTRY.size() < MAX_LOCALES) {
+            LocaleFormats registered = REGISTRY.putIfAbsent(locale, formats);
+            return registered != null ? registered : formats;
+        }
+        return formats;
+    }
+
+    /**
+     * Get the formats of the locale of the current request.
+     * @return the LocaleFormats of the current locale
+     */
+    public static LocaleFormats current() {
+        return of(LocaleContextHolder.getLocale());
+    }
+
+    /**
+     * Getter for the datePattern field.
+     * @return String representing the pattern of the dates.
+     */
+    public String getDatePattern() {
+        return datePattern;
+    }
+
+    /**
+     * Getter for the dateFormatter field.
+     * @return the DateTimeFormatter of the dates.
+     */
+    public DateTimeFormatter getDateFormatter() {
+        return dateFormatter;
+    }
+
+    /**
+     * Get a message of the locale.
+     * @param key the key of the message
+     * @return the message
+     */
+    public String getMessage(String key) {
+        return messages.getString(key);
+    }
+
+    /**
+     * Formats a date.
+     * @param date the LocalDate to format, may be null
+     * @return the formatted date, or null
+     */
+    public String format(LocalDate date) {
+        return date == null ? null : date.format(dateFormatter);
+    }
+
+    /**
+     * Parses a date.
+     * @param date the date to parse
+     * @return a LocalDate
+     */
+    public LocalDate parse(String date) {
+        return LocalDate.parse(date, dateFormatter);
+    }
+}
@@ -1,10 +1,8 @@
 package com.excilys.formation.validation;
 
 import com.excilys.formation.dto.ComputerDto;
+import com.excilys.formation.mapper.LocaleFormats;
 import org.apache.commons.validator.GenericValidator;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.MessageSource;
-import org.springframework.context.i18n.LocaleContextHolder;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
@@ -14,10 +12,9 @@ import java.time.format.DateTimeFormatter;
 /**
  * Class validating the DateAnterior annotation.
  * DateAnterior annotation can only be put on a ComputerDto.
+ * The format and the messages come from the LocaleFormats of the current locale.
  */
 public class DateAnteriorValidator implements ConstraintValidator<DateAnterior, ComputerDto> {
-    @Autowired
-    private MessageSource messageSource;
 
     @Override
     public void initialize(DateAnterior constraintAnnotation) {
@@ -25,14 +22,15 @@ public class DateAnteriorValidator implements ConstraintValidator<DateAnterior,
 
     @Override
     public boolean isValid(ComputerDto computerDto, ConstraintValidatorContext context) {
-        String format = messageSource.getMessage("util.date.format", null, LocaleContextHolder.getLocale());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+        LocaleFormats formats = LocaleFormats.current();
+        String format = formats.getDatePattern();
+        DateTimeFormatter formatter = formats.getDateFormatter();
         String introducedDate = computerDto.getIntroduced();
         String discontinuedDate = computerDto.getDiscontinued();
 
-        String errorDateMessage = messageSource.getMessage("form.error.date", null, LocaleContextHolder.getLocale());
-        String errorDateBeforeMessage = messageSource.getMessage("form.error.dateBefore", null, LocaleContextHolder.getLocale());
-        String errorDateAfter1970Message = messageSource.getMessage("form.error.dateAfter1970", null, LocaleContextHolder.getLocale());
+        String errorDateMessage = formats.getMessage("form.error.date");
+        String errorDateBeforeMessage = formats.getMessage("form.error.dateBefore");
+        String errorDateAfter1970Message = formats.getMessage("form.error.dateAfter1970");
 
         boolean isValid = true;
         context.disableDefaultConstraintViolation();
@@ -0,0 +1,30 @@
+package com.excilys.formation.dto;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ImportReportTest {
+
+    @Test
+    public void reject_ShouldCountAllTheRowsButKeepTheFirstErrors() {
+        ImportReport report = new ImportReport();
+        for (int i = 1; i <= ImportReport.MAX_ERRORS + 10; i++) {
+            report.reject(i, 1, "error " + i);
+        }
+        report.reject(500, 50, "batch error");
+        assertEquals(ImportReport.MAX_ERRORS + 60, report.getRejected());
+        assertEquals(ImportReport.MAX_ERRORS, report.getErrors().size());
+        assertEquals(1, report.getErrors().get(0).getLine());
+    }
+
+    @Test
+    public void getRowsPerSecond_ShouldDivideTheImportedRowsByTheElapsedTime() {
+        ImportReport report = new ImportReport();
+        report.setImported(5000);
+        report.setElapsedMillis(2000);
+        assertEquals(2500, report.getRowsPerSecond());
+        report.setElapsedMillis(0);
+        assertEquals(5000, report.getRowsPerSecond());
+    }
+}
@@ -4,12 +4,15 @@ import com.excilys.formation.dto.CompanyDto;
 import com.excilys.formation.dto.ComputerDto;
 import com.excilys.formation.model.Company;
 import com.excilys.formation.model.Computer;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import static org.junit.Assert.*;
 
@@ -44,6 +47,27 @@ public class DtoMapperTest {
         companies.add(companyTwo);
     }
 
+    @After
+    public void tearDown() {
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    public void localeFormats_ShouldBeResolvedOncePerLocale() {
+        assertSame(LocaleFormats.of(Locale.FRENCH), LocaleFormats.of(Locale.FRENCH));
+        assertEquals("dd-MM-yyyy", LocaleFormats.of(Locale.FRENCH).getDatePattern());
+        assertEquals("MM-dd-yyyy", LocaleFormats.of(Locale.ENGLISH).getDatePattern());
+    }
+
+    @Test
+    public void fromComputerList_ShouldFormatTheDatesOfTheCurrentLocale() {
+        LocaleContextHolder.setLocale(Locale.FRENCH);
+        List<ComputerDto> computersDto = new DtoMapper().fromComputerList(computers);
+        assertEquals("02-02-1990", computersDto.get(0).getIntroduced());
+        assertEquals("02-04-1991", computersDto.get(1).getDiscontinued());
+        assertEquals(computer.getIntroduced(), new DtoMapper().toComputerList(computersDto).get(0).getIntroduced());
+    }
+
     @Test
     public void testToUser() {
         //fail("Not yet implemented");
@@ -4,6 +4,7 @@ drop schema if exists `computer-database-db2`;
 
   drop table if exists computer;
   drop table if exists company;
+  drop table if exists id_generator;
 
   create table company (
     id                        bigint not null auto_increment,
@@ -11,6 +12,12 @@ drop schema if exists `computer-database-db2`;
     constraint pk_company primary key (id))
   ;
 
+  create table id_generator (
+    entity                    varchar(255) not null,
+    next_id                   bigint,
+    constraint pk_id_generator primary key (entity))
+  ;
+
   create table computer (
     id                        bigint not null auto_increment,
     name                      varchar(255),
@@ -1,20 +1,32 @@
 package com.excilys.formation.config;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.excilys.formation.datasource.ReadWriteRoutingDataSource;
+import com.excilys.formation.datasource.SlowQueryDataSource;
 import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.hibernate5.HibernateTransactionManager;
 import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Created by kfuster on 31/12/2016.
@@ -42,8 +54,101 @@ public class PersistenceSpringConfig {
     @Value("${dataSource.password}")
     private String password;
 
-    @Value("${dataSource.idleTimeout}")
-    private Long idleTimeout;
+    @Value("${dataSource.poolName:cdb}")
+    private String poolName;
+
+    @Value("${dataSource.minimumIdle:5}")
+    private int minimumIdle;
+
+    @Value("${dataSource.maximumPoolSize:20}")
+    private int maximumPoolSize;
+
+    @Value("${dataSource.connectionTimeout:30000}")
+    private long connectionTimeout;
+
+    @Value("${dataSource.idleTimeout:600000}")
+    private long idleTimeout;
+
+    @Value("${dataSource.maxLifetime:1800000}")
+    private long maxLifetime;
+
+    @Value("${dataSource.leakDetectionThreshold:0}")
+    private long leakDetectionThreshold;
+
+    @Value("${dataSource.cachePrepStmts:}")
+    private String cachePrepStmts;
+
+    @Value("${dataSource.prepStmtCacheSize:}")
+    private String prepStmtCacheSize;
+
+    @Value("${dataSource.prepStmtCacheSqlLimit:}")
+    private String prepStmtCacheSqlLimit;
+
+    @Value("${dataSource.useServerPrepStmts:}")
+    private String useServerPrepStmts;
+
+    @Value("${dataSource.rewriteBatchedStatements:}")
+    private String rewriteBatchedStatements;
+
+    @Value("${dataSource.replicas:}")
+    private String replicaUrls;
+
+    @Value("${dataSource.replica.maxLagSeconds:5}")
+    private long replicaMaxLagSeconds;
+
+    @Value("${dataSource.replica.checkIntervalSeconds:5}")
+    private long replicaCheckIntervalSeconds;
+
+    @Value("${dataSource.replica.lagQuery:}")
+    private String replicaLagQuery;
+
+    @Value("${dataSource.replica.readYourWritesSeconds:10}")
+    private long replicaReadYourWritesSeconds;
+
+    /**
+     * Registry of the metrics of the pool, defined by the service module when it is there.
+     */
+    @Autowired(required = false)
+    private MetricRegistry metricRegistry;
+
+    @Value("${cache.entity.enabled:false}")
+    private boolean entityCacheEnabled;
+
+    @Value("${cache.entity.statistics:false}")
+    private boolean entityCacheStatistics;
+
+    @Value("${hbm.jdbc.batchSize:50}")
+    private int jdbcBatchSize;
+
+    @Value("${hbm.jdbc.fetchSize:100}")
+    private int jdbcFetchSize;
+
+    @Value("${hbm.orderInserts:true}")
+    private boolean orderInserts;
+
+    @Value("${hbm.orderUpdates:true}")
+    private boolean orderUpdates;
+
+    @Value("${hbm.defaultBatchFetchSize:16}")
+    private int defaultBatchFetchSize;
+
+    @Value("${hbm.queryPlanCache.maxSize:2048}")
+    private int queryPlanCacheMaxSize;
+
+    @Value("${hbm.queryPlanCache.parameterMetadataMaxSize:128}")
+    private int queryPlanCacheParameterMetadataMaxSize;
+
+    @Value("${hbm.generateStatistics:false}")
+    private boolean generateStatistics;
+
+    @Value("${hbm.logSessionMetrics:false}")
+    private boolean logSessionMetrics;
+
+    @Value("${hbm.slowQueryThresholdMillis:0}")
+    private long slowQueryThresholdMillis;
+
+    @Value("${flyway.enabled:true}")
+    private boolean flywayEnabled;
 
     @Bean
     public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
@@ -64,30 +169,169 @@ public class PersistenceSpringConfig {
         return new PersistenceExceptionTranslationPostProcessor();
     }
 
+    /**
+     * Migrates the schema with the scripts of db/migration before the sessions are created, unless
+     * "flyway.enabled" is false. A database created before the migrations, by the scripts of config/db
+     * or by Hibernate, is taken as it is and only gets the migrations following the creation of the tables.
+     * @return the Flyway
+     */
+    @Bean
+    public Flyway flyway() {
+        Flyway flyway = new Flyway();
+        flyway.setDataSource(dataSource());
+        flyway.setLocations("classpath:db/migration");
+        flyway.setBaselineOnMigrate(true);
+        // V1 creates the tables only if they are missing, so it runs on the existing databases too
+        flyway.setBaselineVersionAsString("0");
+        if (flywayEnabled) {
+            flyway.migrate();
+        }
+        return flyway;
+    }
+
     @Bean
+    @DependsOn("flyway")
     public LocalSessionFactoryBean sessionFactory() {
         LocalSessionFactoryBean sessionFactory = new LocalSessionFactoryBean();
-        sessionFactory.setDataSource(dataSource());
+        DataSource dataSource = getReplicaUrls().isEmpty() ? dataSource() : routingDataSource();
+        if (slowQueryThresholdMillis > 0) {
+            dataSource = slowQueryDataSource(dataSource);
+        }
+        // With replicas, the connection is taken at the first statement, once the transaction is known to be read-only
+        sessionFactory.setDataSource(getReplicaUrls().isEmpty() ? dataSource
+                : new LazyConnectionDataSourceProxy(dataSource));
         sessionFactory
                 .setPackagesToScan("com.excilys.formation.model");
         sessionFactory.setHibernateProperties(hibernateProperties());
         return sessionFactory;
     }
 
+    /**
+     * Builds the pool of connections, whose settings are the properties "dataSource.*".
+     * The durations are in milliseconds, and a leakDetectionThreshold of 0 disables the detection of leaks.
+     * The statement caching and batching properties are given to the driver unless they are empty,
+     * as not all drivers know them.
+     * When there is a MetricRegistry, the pool registers in it the metrics "poolName.pool.*" : the wait for a
+     * connection (Wait), the active, idle, total and pending connections, and the usage time of the connections.
+     * @return the HikariDataSource of the primary database
+     */
     @Bean
+    @Primary
     public HikariDataSource dataSource() {
+        return createPool(poolName, jdbcUrl);
+    }
+
+    /**
+     * Builds the DataSource sending the read-only transactions to the replicas listed by the property
+     * "dataSource.replicas", separated by commas, and the rest to the primary.
+     * The replicas have the settings of the primary, and are named poolName-replica1, poolName-replica2...
+     * A replica isn't used while it is down or, if "dataSource.replica.lagQuery" is set, while it lags more than
+     * "dataSource.replica.maxLagSeconds" behind the primary. It is checked every
+     * "dataSource.replica.checkIntervalSeconds".
+     * For "dataSource.replica.readYourWritesSeconds" after a transaction which may have written, the read-only
+     * ones use the primary too, so that the caches evicted by the commit aren't filled again from a replica
+     * which doesn't have the write yet. It should be at least maxLagSeconds + checkIntervalSeconds.
+     * @return the ReadWriteRoutingDataSource, which only uses the primary if there are no replicas
+     */
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource() {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<String> urls = getReplicaUrls();
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.add(createPool(poolName + "-replica" + (i + 1), urls.get(i)));
+        }
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(dataSource(), replicas);
+        routingDataSource.setLagQuery(replicaLagQuery);
+        routingDataSource.setMaxLagSeconds(replicaMaxLagSeconds);
+        routingDataSource.setReadYourWritesMillis(TimeUnit.SECONDS.toMillis(replicaReadYourWritesSeconds));
+        routingDataSource.start(replicaCheckIntervalSeconds);
+        if (metricRegistry != null && !replicas.isEmpty()) {
+            metricRegistry.register(MetricRegistry.name(poolName, "replicas", "available"),
+                    (Gauge<Integer>) routingDataSource::getAvailableReplicas);
+            metricRegistry.register(MetricRegistry.name(poolName, "replicas", "failovers"),
+                    (Gauge<Long>) routingDataSource::getFailovers);
+        }
+        return routingDataSource;
+    }
+
+    /**
+     * Wraps the DataSource of the sessions so that the statements slower than "hbm.slowQueryThresholdMillis"
+     * are logged. Their number is exposed as the gauge "poolName.slowQueries" when there is a MetricRegistry.
+     * @param dataSource the DataSource to wrap
+     * @return the SlowQueryDataSource
+     */
+    private DataSource slowQueryDataSource(DataSource dataSource) {
+        SlowQueryDataSource slowQueryDataSource = new SlowQueryDataSource(dataSource, slowQueryThresholdMillis);
+        if (metricRegistry != null) {
+            metricRegistry.register(MetricRegistry.name(poolName, "slowQueries"),
+                    (Gauge<Long>) slowQueryDataSource::getSlowQueries);
+        }
+        return slowQueryDataSource;
+    }
+
+    /**
+     * Get the JDBC urls of the replicas.
+     * @return a List of urls, empty if there are no replicas
+     */
+    private List<String> getReplicaUrls() {
+        List<String> urls = new ArrayList<>();
+        for (String url : replicaUrls.split(",")) {
+            if (!url.trim().isEmpty()) {
+                urls.add(url.trim());
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Builds a pool of connections with the settings of the properties.
+     * @param name the name of the pool
+     * @param url the JDBC url of the database
+     * @return the HikariDataSource
+     */
+    private HikariDataSource createPool(String name, String url) {
         HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
         dataSource.setDataSourceClassName(dataSourceClassName);
+        dataSource.setMinimumIdle(minimumIdle);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setConnectionTimeout(connectionTimeout);
         dataSource.setIdleTimeout(idleTimeout);
-        dataSource.setMaximumPoolSize(200);
+        dataSource.setMaxLifetime(maxLifetime);
+        dataSource.setLeakDetectionThreshold(leakDetectionThreshold);
         dataSource.setUsername(username);
         dataSource.setPassword(password);
-        dataSource.addDataSourceProperty("url", jdbcUrl);
+        // The MysqlDataSource of Connector/J 6 has no setters for the driver properties, they go in the url
+        StringBuilder driverUrl = new StringBuilder(url);
+        addDriverProperty(driverUrl, "cachePrepStmts", cachePrepStmts);
+        addDriverProperty(driverUrl, "prepStmtCacheSize", prepStmtCacheSize);
+        addDriverProperty(driverUrl, "prepStmtCacheSqlLimit", prepStmtCacheSqlLimit);
+        addDriverProperty(driverUrl, "useServerPrepStmts", useServerPrepStmts);
+        addDriverProperty(driverUrl, "rewriteBatchedStatements", rewriteBatchedStatements);
+        dataSource.addDataSourceProperty("url", driverUrl.toString());
+        if (metricRegistry != null) {
+            dataSource.setMetricRegistry(metricRegistry);
+        }
         return dataSource;
     }
 
+    /**
+     * Gives a property to the driver as a parameter of the JDBC url, unless it is empty.
+     * @param url the StringBuilder of the JDBC url
+     * @param name the name of the property
+     * @param value the value of the property, may be empty
+     */
+    private static void addDriverProperty(StringBuilder url, String name, String value) {
+        if (value != null && !value.trim().isEmpty()) {
+            url.append(url.indexOf("?") < 0 ? '?' : '&').append(name).append('=').append(value.trim());
+        }
+    }
+
     /**
      * Method that return hibernateProperties.
+     * The inserts and updates are grouped in JDBC batches of "hbm.jdbc.batchSize", ordered by entity so that
+     * consecutive statements are the same, and the lazy associations and collections are loaded by groups of
+     * "hbm.defaultBatchFetchSize". The ids taken by blocks from a table generator start at the value of its row.
      * @return Properties containing the new properties.
      */
     private Properties hibernateProperties() {
@@ -95,6 +339,24 @@ public class PersistenceSpringConfig {
             {
                 setProperty("hibernate.hbm2ddl.auto", hbm2ddl);
                 setProperty("hibernate.globally_quoted_identifiers", "true");
+                // Second-level cache of the entities annotated with @Cacheable, looked up by id
+                setProperty("hibernate.cache.use_second_level_cache", String.valueOf(entityCacheEnabled));
+                setProperty("hibernate.cache.region.factory_class",
+                        "org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory");
+                setProperty("net.sf.ehcache.configurationResourceName", "/ehcache.xml");
+                setProperty("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+                setProperty("hibernate.cache.default_cache_concurrency_strategy", "read-write");
+                setProperty("hibernate.generate_statistics", String.valueOf(generateStatistics || entityCacheStatistics));
+                setProperty("hibernate.session.events.log", String.valueOf(logSessionMetrics));
+                setProperty("hibernate.jdbc.batch_size", String.valueOf(jdbcBatchSize));
+                setProperty("hibernate.jdbc.fetch_size", String.valueOf(jdbcFetchSize));
+                setProperty("hibernate.order_inserts", String.valueOf(orderInserts));
+                setProperty("hibernate.order_updates", String.valueOf(orderUpdates));
+                setProperty("hibernate.default_batch_fetch_size", String.valueOf(defaultBatchFetchSize));
+                setProperty("hibernate.query.plan_cache_max_size", String.valueOf(queryPlanCacheMaxSize));
+                setProperty("hibernate.query.plan_parameter_metadata_max_size",
+                        String.valueOf(queryPlanCacheParameterMetadataMaxSize));
+                setProperty("hibernate.id.optimizer.pooled.prefer_lo", "true");
             }
         };
     }
@@ -0,0 +1,312 @@
+package com.excilys.formation.datasource;
+
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSource sending the read-only transactions to the replicas and everything else to the primary.
+ * The replicas are used in turn, skipping the ones which are down or lag too much behind the primary,
+ * and the primary is used when none of them is available.
+ * The read-only flag of the transaction has to be known when the connection is taken,
+ * so this DataSource is meant to be wrapped in a LazyConnectionDataSourceProxy.
+ * For readYourWritesMillis after a transaction of this application ends on the primary, the read-only ones
+ * are sent to the primary too : the caches evicted by the commit are filled again with what was just written,
+ * instead of with the data of a replica which doesn't have it yet.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements DisposableBean {
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    /**
+     * Column of the lag in seconds in the result of "SHOW SLAVE STATUS" on MySQL.
+     */
+    private static final String LAG_COLUMN = "Seconds_Behind_Master";
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong failovers = new AtomicLong();
+    private String lagQuery;
+    private long maxLagSeconds;
+    private volatile long readYourWritesNanos;
+    /**
+     * Value of System.nanoTime() until which the read-only transactions use the primary.
+     */
+    private volatile long primaryReadsUntil = System.nanoTime();
+    private ScheduledExecutorService monitor;
+
+    /**
+     * ReadWriteRoutingDataSource constructor.
+     * @param primary the DataSource of the primary database
+     * @param replicas the DataSources of the replicas, may be empty
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, List<? extends DataSource> replicas) {
+        if (primary == null || replicas == null) {
+            throw new IllegalArgumentException("A primary and a list of replicas are needed");
+        }
+        this.primary = primary;
+        List<Replica> replicaList = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            replicaList.add(new Replica(i + 1, replicas.get(i)));
+        }
+        this.replicas = Collections.unmodifiableList(replicaList);
+    }
+
+    /**
+     * Setter for the lagQuery field.
+     * @param lagQuery the query reading the lag of a replica in seconds, from its column Seconds_Behind_Master
+     * or else from its first column, like "SHOW SLAVE STATUS" on MySQL. If empty, the replicas are only checked
+     * to be up.
+     */
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    /**
+     * Setter for the maxLagSeconds field.
+     * @param maxLagSeconds the lag above which a replica isn't used
+     */
+    public void setMaxLagSeconds(long maxLagSeconds) {
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    /**
+     * Setter for the readYourWritesMillis field.
+     * @param readYourWritesMillis the time during which the read-only transactions use the primary after a
+     * transaction which may have written, at least the lag the replicas can reach between two checks.
+     * 0 sends them to the replicas right away.
+     */
+    public void setReadYourWritesMillis(long readYourWritesMillis) {
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMillis);
+    }
+
+    /**
+     * Starts checking the replicas periodically.
+     * Without it, the replicas are never checked, and one which can't give a connection is tried again each time.
+     * @param checkIntervalSeconds the interval between two checks
+     */
+    public synchronized void start(long checkIntervalSeconds) {
+        if (checkIntervalSeconds <= 0 || replicas.isEmpty() || monitor != null) {
+            return;
+        }
+        monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleWithFixedDelay(this::checkReplicas, 0, checkIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            onWrite();
+        } else if (!replicas.isEmpty() && System.nanoTime() - primaryReadsUntil >= 0) {
+            int first = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((first + i) % replicas.size());
+                if (replica.available) {
+                    try {
+                        return replica.getConnection(username, password);
+                    } catch (SQLException e) {
+                        LOGGER.warn("ReadWriteRoutingDataSource : replica " + replica.number
+                                + " can't give a connection, reading from the next one : " + e.getMessage());
+                        // Taken out until the next check says it is back, if there is one
+                        replica.available = monitor == null;
+                    }
+                }
+            }
+            failovers.incrementAndGet();
+        }
+        return username == null ? primary.getConnection() : primary.getConnection(username, password);
+    }
+
+    /**
+     * Sends the read-only transactions to the primary for readYourWritesMillis from now and, in a transaction,
+     * from its end, once what it wrote is committed and its caches evicted.
+     */
+    private void onWrite() {
+        if (readYourWritesNanos <= 0 || replicas.isEmpty()) {
+            return;
+        }
+        readFromPrimary();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void beforeCompletion() {
+                    readFromPrimary();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    readFromPrimary();
+                }
+            });
+        }
+    }
+
+    /**
+     * Sends the read-only transactions to the primary for readYourWritesMillis from now.
+     */
+    private void readFromPrimary() {
+        long until = System.nanoTime() + readYourWritesNanos;
+        if (until - primaryReadsUntil > 0) {
+            primaryReadsUntil = until;
+        }
+    }
+
+    /**
+     * Checks that each replica is up and doesn't lag more than maxLagSeconds, to use only those for reading.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            String problem = check(replica);
+            boolean available = problem == null;
+            if (available != replica.available) {
+                if (available) {
+                    LOGGER.info("ReadWriteRoutingDataSource : replica " + replica.number + " is back");
+                } else {
+                    LOGGER.warn("ReadWriteRoutingDataSource : replica " + replica.number + " isn't used : " + problem);
+                }
+            }
+            replica.available = available;
+        }
+    }
+
+    /**
+     * Checks a replica.
+     * @param replica the Replica
+     * @return the reason why the replica can't be used, or null if it can
+     */
+    private String check(Replica replica) {
+        try (Connection connection = replica.getConnection(null, null)) {
+            if (lagQuery == null || lagQuery.trim().isEmpty()) {
+                return connection.isValid(VALIDATION_TIMEOUT_SECONDS) ? null : "invalid connection";
+            }
+            try (Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    return "no replication status";
+                }
+                long lag = resultSet.getLong(getLagColumn(resultSet.getMetaData()));
+                if (resultSet.wasNull()) {
+                    return "replication stopped";
+                }
+                return lag > maxLagSeconds ? "lag of " + lag + "s" : null;
+            }
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Get the index of the column of the lag in the result of the lagQuery.
+     * @param metaData the ResultSetMetaData of the result
+     * @return the index of the column Seconds_Behind_Master, or 1
+     * @throws SQLException if the columns can't be read
+     */
+    private static int getLagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (LAG_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Get the number of replicas used for reading.
+     * @return the number of available replicas
+     */
+    public int getAvailableReplicas() {
+        int available = 0;
+        for (Replica replica : replicas) {
+            if (replica.available) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Get the number of read-only connections taken from the primary because no replica was available.
+     * @return the number of failovers
+     */
+    public long getFailovers() {
+        return failovers.get();
+    }
+
+    /**
+     * Stops checking the replicas and closes their pools.
+     */
+    @Override
+    public synchronized void destroy() {
+        if (monitor != null) {
+            monitor.shutdownNow();
+            monitor = null;
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                try {
+                    ((Closeable) replica.dataSource).close();
+                } catch (IOException e) {
+                    LOGGER.warn("ReadWriteRoutingDataSource : replica " + replica.number + " can't be closed", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * A replica and whether it is used for reading.
+     */
+    private static final class Replica {
+        private final int number;
+        private final DataSource dataSource;
+        private volatile boolean available = true;
+
+        /**
+         * Replica constructor.
+         * @param number the number of the replica, counted from 1
+         * @param dataSource the DataSource of the replica
+         */
+        private Replica(int number, DataSource dataSource) {
+            this.number = number;
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * Get a connection to the replica.
+         * @param username the user, or null for the one of the DataSource
+         * @param password the password
+         * @return a Connection
+         * @throws SQLException if the replica can't give a connection
+         */
+        private Connection getConnection(String username, String password) throws SQLException {
+            return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+        }
+    }
+}
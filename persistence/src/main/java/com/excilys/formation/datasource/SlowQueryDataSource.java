@@ -0,0 +1,149 @@
+package com.excilys.formation.datasource;
+
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSource logging the statements whose execution takes longer than a threshold, with their SQL.
+ * Hibernate doesn't have such a log before its version 5.4, so the statements prepared on the connections
+ * of the target DataSource are timed here, from their execute call to its return. The reading of the rows
+ * which aren't fetched by the execution itself isn't counted.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(SlowQueryDataSource.class);
+    private final long thresholdNanos;
+    private final AtomicLong slowQueries = new AtomicLong();
+
+    /**
+     * SlowQueryDataSource constructor.
+     * @param targetDataSource the DataSource giving the connections
+     * @param thresholdMillis the duration above which a statement is logged, in milliseconds
+     */
+    public SlowQueryDataSource(DataSource targetDataSource, long thresholdMillis) {
+        super(targetDataSource);
+        if (thresholdMillis <= 0) {
+            throw new IllegalArgumentException("A positive threshold is needed");
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    /**
+     * Get the number of statements logged as slow.
+     * @return the number of slow statements since the start
+     */
+    public long getSlowQueries() {
+        return slowQueries.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    /**
+     * Wraps a connection so that its statements are timed.
+     * @param connection the Connection of the target DataSource
+     * @return a proxy of the Connection
+     */
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement && "prepareStatement".equals(method.getName())) {
+                        return wrap((PreparedStatement) result, PreparedStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof Statement && "createStatement".equals(method.getName())) {
+                        return wrap((Statement) result, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Wraps a statement so that its executions are timed.
+     * @param statement the Statement to wrap
+     * @param type the interface of the proxy, Statement or one of its sub-interfaces
+     * @param sql the SQL of a prepared statement, null for a plain Statement which gets it at its execution
+     * @param <T> the type of the statement
+     * @return a proxy of the statement
+     */
+    private <T extends Statement> T wrap(T statement, Class<T> type, String sql) {
+        InvocationHandler handler = new InvocationHandler() {
+            private int batchSize;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if ("addBatch".equals(name)) {
+                    batchSize++;
+                } else if ("clearBatch".equals(name)) {
+                    batchSize = 0;
+                }
+                if (!name.startsWith("execute")) {
+                    return SlowQueryDataSource.invoke(statement, method, args);
+                }
+                long start = System.nanoTime();
+                try {
+                    return SlowQueryDataSource.invoke(statement, method, args);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    if (elapsed > thresholdNanos) {
+                        String executed = sql != null || args == null || !(args[0] instanceof String) ? sql
+                                : (String) args[0];
+                        logSlowQuery(executed, "executeBatch".equals(name) ? batchSize : 0, elapsed);
+                    }
+                    if ("executeBatch".equals(name)) {
+                        batchSize = 0;
+                    }
+                }
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    /**
+     * Logs a slow statement.
+     * @param sql the SQL of the statement, null for a batch of plain statements
+     * @param batchSize the number of executions of a batch, 0 if it isn't one
+     * @param elapsedNanos the duration of the execution
+     */
+    private void logSlowQuery(String sql, int batchSize, long elapsedNanos) {
+        slowQueries.incrementAndGet();
+        LOGGER.warn("SlowQueryDataSource : " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms"
+                + (batchSize > 0 ? " for a batch of " + batchSize : "") + (sql == null ? "" : " : " + sql));
+    }
+
+    /**
+     * Calls a method on its target, throwing the exceptions of the method instead of their wrapper.
+     * @param target the target of the call
+     * @param method the Method to call
+     * @param args the arguments of the call
+     * @return the result of the call
+     * @throws Throwable the exception thrown by the method
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
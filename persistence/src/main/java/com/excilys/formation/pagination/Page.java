@@ -14,6 +14,7 @@ public class Page<T> implements Serializable {
     private int totalElements;
     private int totalPages;
     private List<T> elements;
+    private String nextCursor;
     /**
      * Default constructor.
      */
@@ -122,4 +123,20 @@ public class Page<T> implements Serializable {
     public void setPage(int page) {
         this.page = page;
     }
+
+    /**
+     * Getter for the nextCursor field.
+     * @return String representing the opaque token to fetch the following page, or null if there is none.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Setter for the nextCursor field.
+     * @param nextCursor String representing the opaque token to fetch the following page.
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.excilys.formation.persistence;
 
 import com.excilys.formation.model.Computer;
+import com.excilys.formation.model.util.ComputerRow;
+import com.excilys.formation.model.util.PageFilter;
+import com.excilys.formation.pagination.Page;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface representing the DAO of a Computer.
@@ -23,6 +27,51 @@ public interface ComputerDao extends BaseDao<Computer> {
      */
     Computer getById(long id);
 
+    /**
+     * Get computers by their ids, with a few queries instead of one by computer.
+     * @param ids the ids of the computers to get
+     * @return the Computers in the order of the ids, null for the unknown ones
+     */
+    List<Computer> getByIds(List<Long> ids);
+
+    /**
+     * Get a page of computers as rows, selecting only the listed columns instead of loading the entities.
+     * @param pageFilter the PageFilter containing the useful informations
+     * @return a Page of ComputerRows
+     */
+    Page<ComputerRow> getRowPage(PageFilter pageFilter);
+
+    /**
+     * Reads all the computers as rows ordered by id, with a single forward-only query,
+     * and gives them one by one to the consumer as they are fetched.
+     * @param consumer the Consumer of the rows
+     * @return the number of rows read
+     */
+    long forEachRow(Consumer<ComputerRow> consumer);
+
+    /**
+     * Inserts computers in JDBC batches, without putting them in the second-level cache.
+     * The ids taken from the generator are set on the computers.
+     * @param computers the List of Computers to insert, whose companies are referenced by id
+     */
+    void createAll(List<Computer> computers);
+
+    /**
+     * Get the ids of the computers of a company, in ascending order, after a given id.
+     * @param companyId the id of the company
+     * @param afterId the id after which the ids are read, 0 to read from the first one
+     * @param limit the maximum number of ids
+     * @return a List of at most limit ids
+     */
+    List<Long> getIdsByCompany(long companyId, long afterId, int limit);
+
+    /**
+     * Counts the computers of a company.
+     * @param companyId the id of the company
+     * @return the number of computers of the company
+     */
+    long countByCompany(long companyId);
+
     /**
      * Deletes all computers from a company.
      * @param id of the company for which we want to delete computer
@@ -30,8 +79,18 @@ public interface ComputerDao extends BaseDao<Computer> {
     void deleteByCompany(long id);
 
     /**
-     * Deletes a list of Computers.
+     * Deletes a list of Computers, with one statement per chunk of ids so that no statement grows with the list.
      * @param idList List<Long> representing the ids to delete.
      */
     void deleteList(List<Long> idList);
+
+    /**
+     * Get the ids of the computers matching the search of a PageFilter, in ascending order, after a given id.
+     * The sort and the pagination of the filter are ignored, the ids being read chunk by chunk from afterId.
+     * @param pageFilter the PageFilter containing the search
+     * @param afterId the id after which the ids are read, 0 to read from the first one
+     * @param limit the maximum number of ids
+     * @return a List of at most limit ids
+     */
+    List<Long> getIds(PageFilter pageFilter, long afterId, int limit);
 }
\ No newline at end of file
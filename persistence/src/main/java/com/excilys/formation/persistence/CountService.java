@@ -0,0 +1,36 @@
+package com.excilys.formation.persistence;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Interface of the service keeping the total number of elements of the pages,
+ * so that a page doesn't need a second count query each time it is fetched.
+ */
+public interface CountService {
+
+    /**
+     * Get the number of elements of an entity matching the given conditions.
+     * The count is computed with exactCount only when it isn't known yet or is outdated.
+     * @param entity the class of the counted entity
+     * @param conditions Map<String,String> representing the conditions of the page, may be null
+     * @param exactCount the function computing the exact count from the database
+     * @return the number of elements
+     */
+    int getCount(Class<?> entity, Map<String, String> conditions, LongSupplier exactCount);
+
+    /**
+     * Updates the counts of an entity after elements have been created or deleted.
+     * Inside a transaction, the update is applied once it is committed.
+     * @param entity the class of the entity
+     * @param delta the number of elements added (positive) or removed (negative)
+     */
+    void update(Class<?> entity, long delta);
+
+    /**
+     * Removes all the counts of an entity, after elements have been modified.
+     * Inside a transaction, the counts are removed once it is committed.
+     * @param entity the class of the entity
+     */
+    void invalidate(Class<?> entity);
+}
@@ -0,0 +1,29 @@
+package com.excilys.formation.persistence;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Interface of the Hibernate second-level cache of the entities, keyed by id.
+ */
+public interface EntityCache {
+    /**
+     * Query space of the native deletes evicting their rows by key, which no entity uses.
+     * A native query synchronized on it doesn't clear the whole regions as a HQL bulk delete does.
+     */
+    String KEYED_EVICTION_SPACE = "keyed-eviction";
+
+    /**
+     * Evicts some entities from the cache.
+     * Inside a transaction, they are evicted again once it is committed.
+     * @param entity the class of the entities
+     * @param ids the ids of the entities to evict
+     */
+    void evict(Class<?> entity, Collection<Long> ids);
+
+    /**
+     * Get the statistics of the regions of the cache.
+     * @return a Map of the statistics by region name, empty if the statistics are disabled
+     */
+    Map<String, Map<String, Number>> getStatistics();
+}
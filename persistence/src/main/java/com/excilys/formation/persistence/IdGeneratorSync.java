@@ -0,0 +1,15 @@
+package com.excilys.formation.persistence;
+
+/**
+ * Interface of the service keeping the rows of the id generator table ahead of the ids of their tables,
+ * so that the generated ids don't collide with the rows inserted without the generator,
+ * like the ones of the SQL scripts or of a database created before the generator.
+ */
+public interface IdGeneratorSync {
+
+    /**
+     * Moves the row of each generator after the greatest id of its table, creating it if it is missing.
+     * A row which is already after it is left as it is, since its ids may be in use by another application.
+     */
+    void align();
+}
@@ -0,0 +1,16 @@
+package com.excilys.formation.persistence;
+
+import java.util.List;
+
+/**
+ * Interface of the service checking that the sorts of the computer pages are supported by an index,
+ * without which the database sorts the whole table for each page.
+ */
+public interface IndexAdvisor {
+
+    /**
+     * Get the sorts of the computer pages whose column doesn't start any index of its table.
+     * @return a List of "table.column" keys, empty if they are all indexed
+     */
+    List<String> getUnindexedSortKeys();
+}
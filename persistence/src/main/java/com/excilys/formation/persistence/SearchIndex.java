@@ -0,0 +1,80 @@
+package com.excilys.formation.persistence;
+
+import com.excilys.formation.model.Computer;
+
+import java.util.List;
+
+/**
+ * Interface of the in-memory index resolving the computers whose name or company name starts with a prefix.
+ */
+public interface SearchIndex {
+
+    /**
+     * Checks if the index has been built and can be used.
+     * @return true if the index is ready
+     */
+    boolean isReady();
+
+    /**
+     * Get a slice of the ids of the computers whose name starts with computerPrefix or
+     * whose company name starts with companyPrefix, ignoring the case.
+     * Empty or too short prefixes match too many computers and are left to the database.
+     * @param computerPrefix the prefix of the computer name
+     * @param companyPrefix the prefix of the company name
+     * @param afterId the ids up to afterId are skipped
+     * @param offset the number of ids skipped after afterId
+     * @param limit the maximum number of ids of the slice
+     * @return the Slice, or null if the index can't answer
+     */
+    Slice search(String computerPrefix, String companyPrefix, long afterId, int offset, int limit);
+
+    /**
+     * Adds or replaces a computer in the index.
+     * @param computer the Computer to index
+     */
+    void put(Computer computer);
+
+    /**
+     * Removes computers from the index.
+     * @param idList List<Long> representing the ids of the computers
+     */
+    void removeAll(List<Long> idList);
+
+    /**
+     * Removes the computers of a company from the index.
+     * @param companyId the id of the company
+     */
+    void removeByCompany(long companyId);
+
+    /**
+     * Removes a company and its computers from the index.
+     * @param companyId the id of the company
+     */
+    void removeCompany(long companyId);
+
+    /**
+     * Loads the index again from the database.
+     */
+    void rebuild();
+
+    /**
+     * Ids of the computers matching a search, sorted in ascending order, and the number of matching computers.
+     */
+    final class Slice {
+        private final List<Long> ids;
+        private final long total;
+
+        public Slice(List<Long> ids, long total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+}
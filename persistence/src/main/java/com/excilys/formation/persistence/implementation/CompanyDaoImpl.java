@@ -5,8 +5,11 @@ import com.excilys.formation.model.QCompany;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
 import com.excilys.formation.persistence.CompanyDao;
+import com.excilys.formation.persistence.CountService;
+import com.excilys.formation.persistence.SearchIndex;
 import com.querydsl.jpa.hibernate.HibernateQuery;
 import com.querydsl.jpa.hibernate.HibernateQueryFactory;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -23,6 +26,8 @@ import java.util.function.Supplier;
 public class CompanyDaoImpl implements CompanyDao {
     private static QCompany qCompany = QCompany.company;
     private SessionFactory sessionFactory;
+    private CountService countService;
+    private SearchIndex searchIndex;
 
     private Supplier<HibernateQueryFactory> queryFactory =
             () -> new HibernateQueryFactory(sessionFactory.getCurrentSession());
@@ -32,14 +37,32 @@ public class CompanyDaoImpl implements CompanyDao {
         this.sessionFactory = sessionFactory;
     }
 
+    @Autowired
+    public void setCountService(CountService countService) {
+        this.countService = countService;
+    }
+
+    @Autowired
+    public void setSearchIndex(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
     @Override
     public Company getById(long id) {
-        return (Company) queryFactory.get().from(qCompany).where(qCompany.id.eq(id)).fetchOne();
+        // Looked up by id to use the second-level cache
+        return sessionFactory.getCurrentSession().get(Company.class, id);
     }
 
     @Override
     public void delete(long id) {
-        queryFactory.get().delete(qCompany).where(qCompany.id.eq(id)).execute();
+        // The entity is deleted instead of bulk deleted, so that only its entry of the second-level cache is evicted
+        Session session = sessionFactory.getCurrentSession();
+        Company stored = session.get(Company.class, id);
+        if (stored != null) {
+            session.delete(stored);
+            countService.update(Company.class, -1);
+        }
+        searchIndex.removeCompany(id);
     }
 
     @Override
@@ -50,7 +73,7 @@ public class CompanyDaoImpl implements CompanyDao {
         List<Company> allCompanies;
         Page<Company> pPage;
         HibernateQuery<Company> query = queryFactory.get().selectFrom(qCompany);
-        int total = (int) query.fetchCount();
+        int total = countService.getCount(Company.class, null, query::fetchCount);
         query = query.limit(pageFilter.getElementsByPage())
                 .offset((pageFilter.getPageNum() - 1) * pageFilter.getElementsByPage());
         allCompanies = query.fetch();
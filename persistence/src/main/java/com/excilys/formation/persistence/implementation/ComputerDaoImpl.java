@@ -1,21 +1,49 @@
 package com.excilys.formation.persistence.implementation;
 
+import ch.qos.logback.classic.Logger;
 import com.excilys.formation.model.Company;
 import com.excilys.formation.model.Computer;
 import com.excilys.formation.model.QCompany;
 import com.excilys.formation.model.QComputer;
+import com.excilys.formation.model.util.ComputerRow;
+import com.excilys.formation.model.util.PageCursor;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
 import com.excilys.formation.persistence.ComputerDao;
+import com.excilys.formation.persistence.CountService;
+import com.excilys.formation.persistence.EntityCache;
+import com.excilys.formation.persistence.SearchIndex;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparableExpression;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.hibernate.HibernateQuery;
 import com.querydsl.jpa.hibernate.HibernateQueryFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.SQLQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -24,8 +52,48 @@ import java.util.function.Supplier;
  */
 @Repository
 public class ComputerDaoImpl implements ComputerDao {
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(ComputerDaoImpl.class);
+    private static final String SORT_COMPUTER_NAME = "computer.name";
+    private static final String SORT_INTRODUCED = "computer.introduced";
+    private static final String SORT_DISCONTINUED = "computer.discontinued";
+    private static final String SORT_COMPANY_NAME = "company.name";
+    /**
+     * Keys "table.column" of the sorts of the pages applied by addConditions.
+     */
+    static final List<String> SORT_KEYS = Collections.unmodifiableList(Arrays.asList(SORT_COMPUTER_NAME,
+            SORT_INTRODUCED, SORT_DISCONTINUED, SORT_COMPANY_NAME));
+    /**
+     * Maximum number of ids resolved by the search index used in a sorted query, above it the LIKE is kept.
+     */
+    private static final int MAX_SORTED_IDS = 1000;
+    /**
+     * Maximum number of ids of a single delete statement.
+     */
+    private static final int MAX_DELETED_IDS = 1000;
+    /**
+     * Maximum number of ids of a single query loading computers by id.
+     */
+    private static final int MAX_LOADED_IDS = 1000;
+    /**
+     * Number of rows fetched at once by the forward-only queries.
+     */
+    private static final int FETCH_SIZE = 1000;
+    /**
+     * Fetch size with which MySQL streams the rows of a forward-only read-only query one by one, instead of
+     * reading the whole result at once.
+     */
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
     private static QComputer qComputer = QComputer.computer;
+    /**
+     * Projection of the listed columns into a ComputerRow, the company being the one of the left join.
+     */
+    private static final Expression<ComputerRow> ROW_PROJECTION = Projections.constructor(ComputerRow.class,
+            qComputer.id, qComputer.name, qComputer.introduced, qComputer.discontinued,
+            QCompany.company.id, QCompany.company.name);
     private SessionFactory sessionFactory;
+    private CountService countService;
+    private SearchIndex searchIndex;
+    private EntityCache entityCache;
     private Supplier<HibernateQueryFactory> queryFactory = () -> new HibernateQueryFactory(
             sessionFactory.getCurrentSession());
 
@@ -34,47 +102,202 @@ public class ComputerDaoImpl implements ComputerDao {
         this.sessionFactory = sessionFactory;
     }
 
+    @Autowired
+    public void setCountService(CountService countService) {
+        this.countService = countService;
+    }
+
+    @Autowired
+    public void setSearchIndex(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @Autowired
+    public void setEntityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
     @Override
     public Computer create(Computer computer) {
         if (computer == null) {
             throw new IllegalArgumentException("A computer is needed");
         }
         sessionFactory.getCurrentSession().save(computer);
+        countService.update(Computer.class, 1);
+        searchIndex.put(computer);
         return computer;
     }
 
+    @Override
+    public void createAll(List<Computer> computers) {
+        if (computers == null) {
+            throw new IllegalArgumentException("A list of computers is needed");
+        }
+        if (computers.isEmpty()) {
+            return;
+        }
+        Session session = sessionFactory.getCurrentSession();
+        // The ids are taken from their table generator, so the session groups the inserts in JDBC batches
+        // of hibernate.jdbc.batch_size when it is flushed. The computers aren't put in the second-level cache,
+        // and the session is emptied after them.
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            session.flush();
+            for (Computer computer : computers) {
+                session.save(computer);
+            }
+            session.flush();
+            session.clear();
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        countService.update(Computer.class, computers.size());
+        for (Computer computer : computers) {
+            searchIndex.put(computer);
+        }
+    }
+
     @Override
     public void update(Computer computer) {
         if (computer == null) {
             throw new IllegalArgumentException("A computer is needed");
         }
-        queryFactory.get().update(qComputer)
-                .where(qComputer.id.eq(computer.getId()))
-                .set(qComputer.name, computer.getName())
-                .set(qComputer.introduced, computer.getIntroduced())
-                .set(qComputer.discontinued, computer.getDiscontinued())
-                .set(qComputer.company, computer.getCompany())
-                .execute();
+        if (computer.getId() == null) {
+            return;
+        }
+        // The entity is modified instead of bulk updated, so that only its entry of the second-level cache changes
+        Session session = sessionFactory.getCurrentSession();
+        Computer stored = session.get(Computer.class, computer.getId());
+        if (stored == null) {
+            return;
+        }
+        Long companyId = computer.getCompany() == null ? null : computer.getCompany().getId();
+        // The filtered counts depend on the names of the computer and of its company
+        if (!Objects.equals(stored.getName(), computer.getName())
+                || !Objects.equals(stored.getCompany() == null ? null : stored.getCompany().getId(), companyId)) {
+            countService.invalidate(Computer.class);
+        }
+        stored.setName(computer.getName());
+        stored.setIntroduced(computer.getIntroduced());
+        stored.setDiscontinued(computer.getDiscontinued());
+        stored.setCompany(companyId == null ? null : session.get(Company.class, companyId));
+        searchIndex.put(computer);
     }
 
     @Override
     public void delete(long id) {
-        queryFactory.get().delete(qComputer).where(qComputer.id.eq(id)).execute();
+        Session session = sessionFactory.getCurrentSession();
+        Computer stored = session.get(Computer.class, id);
+        if (stored != null) {
+            session.delete(stored);
+            countService.update(Computer.class, -1);
+        }
+        searchIndex.removeAll(Collections.singletonList(id));
     }
 
     @Override
     public void deleteList(List<Long> idList) {
-        queryFactory.get().delete(qComputer).where(qComputer.id.in(idList)).execute();
+        if (idList == null || idList.isEmpty()) {
+            return;
+        }
+        long deleted = 0;
+        for (int from = 0; from < idList.size(); from += MAX_DELETED_IDS) {
+            deleted += createKeyedDelete("DELETE FROM computer WHERE id IN (:ids)")
+                    .setParameterList("ids", idList.subList(from, Math.min(from + MAX_DELETED_IDS, idList.size())))
+                    .executeUpdate();
+        }
+        entityCache.evict(Computer.class, idList);
+        countService.update(Computer.class, -deleted);
+        searchIndex.removeAll(idList);
+    }
+
+    @Override
+    public List<Long> getIds(PageFilter pageFilter, long afterId, int limit) {
+        if (pageFilter == null) {
+            throw new IllegalArgumentException("A PageFilter is needed");
+        }
+        Map<String, String> search = new HashMap<>();
+        if (pageFilter.getConditions() != null) {
+            pageFilter.getConditions().forEach((key, value) -> {
+                if ("computerName".equals(key) || "companyName".equals(key)) {
+                    search.put(key, value);
+                }
+            });
+        }
+        SearchIndex.Slice slice = search(search, afterId, 0, limit);
+        if (slice != null) {
+            return slice.getIds();
+        }
+        HibernateQuery<Long> query = queryFactory.get().select(qComputer.id).from(qComputer)
+                .leftJoin(qComputer.company, QCompany.company);
+        return addConditions(query, search).where(qComputer.id.gt(afterId)).orderBy(qComputer.id.asc())
+                .limit(limit).fetch();
+    }
+
+    @Override
+    public List<Long> getIdsByCompany(long companyId, long afterId, int limit) {
+        return queryFactory.get().select(qComputer.id).from(qComputer)
+                .where(qComputer.company.id.eq(companyId).and(qComputer.id.gt(afterId)))
+                .orderBy(qComputer.id.asc()).limit(limit).fetch();
+    }
+
+    @Override
+    public long countByCompany(long companyId) {
+        return queryFactory.get().from(qComputer).where(qComputer.company.id.eq(companyId)).fetchCount();
     }
 
     @Override
     public void deleteByCompany(long id) {
-        queryFactory.get().delete(qComputer).where(qComputer.company.id.eq(id)).execute();
+        List<Long> idList = queryFactory.get().select(qComputer.id).from(qComputer)
+                .where(qComputer.company.id.eq(id)).fetch();
+        if (!idList.isEmpty()) {
+            long deleted = createKeyedDelete("DELETE FROM computer WHERE company_id = :companyId")
+                    .setParameter("companyId", id).executeUpdate();
+            entityCache.evict(Computer.class, idList);
+            countService.update(Computer.class, -deleted);
+        }
+        searchIndex.removeByCompany(id);
+    }
+
+    /**
+     * Creates a native delete of computers, whose deleted ones are then evicted by id from the second-level cache.
+     * A HQL bulk delete would clear the whole region of the computers.
+     * @param sql the native delete query
+     * @return a SQLQuery
+     */
+    private SQLQuery createKeyedDelete(String sql) {
+        SQLQuery query = sessionFactory.getCurrentSession().createSQLQuery(sql);
+        query.addSynchronizedQuerySpace(EntityCache.KEYED_EVICTION_SPACE);
+        return query;
     }
 
     @Override
     public Computer getById(long id) {
-        return (Computer) queryFactory.get().from(qComputer).where(qComputer.id.eq(id)).fetchOne();
+        // Looked up by id to use the second-level cache
+        return sessionFactory.getCurrentSession().get(Computer.class, id);
+    }
+
+    @Override
+    public List<Computer> getByIds(List<Long> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException("A list of ids is needed");
+        }
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // The computers already in the session are reused, the others are read by IN queries of MAX_LOADED_IDS ids
+        Map<Long, Computer> computers = new HashMap<>();
+        for (Computer computer : sessionFactory.getCurrentSession().byMultipleIds(Computer.class)
+                .withBatchSize(MAX_LOADED_IDS).enableSessionCheck(true).multiLoad(ids)) {
+            if (computer != null) {
+                computers.put(computer.getId(), computer);
+            }
+        }
+        // The unknown ids are left out of the loaded list, they are put back as nulls
+        List<Computer> ordered = new ArrayList<>(ids.size());
+        ids.forEach(id -> ordered.add(computers.get(id)));
+        return ordered;
     }
 
     @Override
@@ -87,44 +310,269 @@ public class ComputerDaoImpl implements ComputerDao {
 
     @Override
     public Page<Computer> getPage(PageFilter pageFilter) {
+        return getPage(pageFilter, qComputer, ComputerDaoImpl::getSortValue, Computer::getId);
+    }
+
+    @Override
+    public Page<ComputerRow> getRowPage(PageFilter pageFilter) {
+        return getPage(pageFilter, ROW_PROJECTION, ComputerDaoImpl::getSortValue, ComputerRow::getId);
+    }
+
+    @Override
+    public long forEachRow(Consumer<ComputerRow> consumer) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("A consumer is needed");
+        }
+        long count = 0;
+        // A stateless session keeps no reference to the rows, so that the memory used doesn't grow with them
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            ScrollableResults rows = session.createQuery("select c.id, c.name, c.introduced, c.discontinued, "
+                    + "co.id, co.name from Computer c left join c.company co order by c.id")
+                    .setFetchSize(getStreamingFetchSize()).setReadOnly(true).scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (rows.next()) {
+                    consumer.accept(new ComputerRow((Long) rows.get(0), (String) rows.get(1),
+                            (LocalDate) rows.get(2), (LocalDate) rows.get(3), (Long) rows.get(4),
+                            (String) rows.get(5)));
+                    count++;
+                }
+            } finally {
+                rows.close();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the fetch size of a query streaming all the computers : MySQL only streams a result with its own
+     * fetch size, the other databases honor the usual one.
+     * @return the fetch size
+     */
+    private int getStreamingFetchSize() {
+        return ((SessionFactoryImplementor) sessionFactory).getDialect() instanceof MySQLDialect
+                ? MYSQL_STREAMING_FETCH_SIZE : FETCH_SIZE;
+    }
+
+    /**
+     * Get a page of computers selected with the given projection.
+     * @param pageFilter the PageFilter containing the useful informations
+     * @param projection the selected expression, the computer entity or a projection of its columns
+     * @param sortValue the function getting the sorted value of an element, used by the next cursor
+     * @param idOf the function getting the id of an element
+     * @param <T> the type of the elements of the page
+     * @return a Page of the selected elements
+     */
+    private <T> Page<T> getPage(PageFilter pageFilter, Expression<T> projection,
+            BiFunction<String, T, String> sortValue, Function<T, Long> idOf) {
         if (pageFilter == null) {
             throw new IllegalArgumentException("A PageFilter is needed");
         }
-        List<Computer> computers;
-        Page<Computer> pPage = new Page<>(pageFilter.getElementsByPage());
-        HibernateQuery<Computer> query = queryFactory.get().selectFrom(qComputer)
+        List<T> computers;
+        Page<T> pPage = new Page<>(pageFilter.getElementsByPage());
+        HibernateQuery<T> query = queryFactory.get().select(projection).from(qComputer)
                 .leftJoin(qComputer.company, QCompany.company);
         Map<String, String> conditions = pageFilter.getConditions();
-        if (conditions != null && !conditions.isEmpty()) {
-            query = addConditions(query, conditions);
+        String sortKey = getSortKey(conditions);
+        int from = (pageFilter.getPageNum() - 1) * pageFilter.getElementsByPage();
+        SearchIndex.Slice slice = null;
+        if ("".equals(sortKey)) {
+            // Sorted by id like the slices of the index, only the ids of the page are taken from it
+            slice = search(conditions, 0, from, pageFilter.getElementsByPage());
+        } else {
+            // The sort is left to the query, so all the ids are needed, as long as they are few
+            slice = search(conditions, 0, 0, MAX_SORTED_IDS + 1);
+            if (slice != null && slice.getTotal() > MAX_SORTED_IDS) {
+                slice = null;
+            }
+        }
+        int total;
+        if (slice != null) {
+            // The search has been resolved by the index, only the sort is left to the query
+            Map<String, String> sortConditions = new HashMap<>(conditions);
+            sortConditions.remove("computerName");
+            sortConditions.remove("companyName");
+            query = addConditions(query, sortConditions).where(qComputer.id.in(slice.getIds()));
+            total = (int) slice.getTotal();
+        } else {
+            if (conditions != null && !conditions.isEmpty()) {
+                query = addConditions(query, conditions);
+            }
+            HibernateQuery<T> countQuery = query;
+            total = countService.getCount(Computer.class, conditions, () -> getCount(countQuery));
+        }
+        // The id is used as a tie-breaker so that the order is stable between pages
+        query = query.orderBy(qComputer.id.asc());
+        boolean descending = conditions != null && "DESC".equals(conditions.get("order"));
+        PageCursor cursor = pageFilter.getCursor();
+        if (slice != null && "".equals(sortKey)) {
+            // The ids of the page are already cut, it is fetched by primary key
+            query = query.limit(pageFilter.getElementsByPage());
+        } else if (cursor != null && sortKey != null && cursor.matches(sortKey, descending)) {
+            query = query.where(seek(sortKey, cursor)).limit(pageFilter.getElementsByPage());
+        } else {
+            query = query.limit(pageFilter.getElementsByPage()).offset(from);
         }
-        int total = getCount(query);
-        query = query.limit(pageFilter.getElementsByPage())
-                .offset((pageFilter.getPageNum() - 1) * pageFilter.getElementsByPage());
         computers = query.fetch();
         pPage.setPage(pageFilter.getPageNum());
         pPage.setElements(computers);
         pPage.setTotalElements(total);
+        if (sortKey != null && !computers.isEmpty() && computers.size() == pageFilter.getElementsByPage()) {
+            T last = computers.get(computers.size() - 1);
+            pPage.setNextCursor(new PageCursor(sortKey, descending, sortValue.apply(sortKey, last), idOf.apply(last))
+                    .encode());
+        }
         pageFilter.setNbPage(pPage.getTotalPages());
         return pPage;
     }
 
+    /**
+     * Get a slice of the ids of the computers matching the search of the conditions from the search index.
+     * @param conditions Map<String,String> representing the conditions of the page
+     * @param afterId the ids up to afterId are skipped
+     * @param offset the number of ids skipped after afterId
+     * @param limit the maximum number of ids of the slice
+     * @return the Slice, or null if the search has to be done by the database
+     */
+    private SearchIndex.Slice search(Map<String, String> conditions, long afterId, int offset, int limit) {
+        if (conditions == null || !conditions.containsKey("computerName") || !conditions.containsKey("companyName")
+                || !searchIndex.isReady()) {
+            return null;
+        }
+        return searchIndex.search(conditions.get("computerName"), conditions.get("companyName"), afterId, offset,
+                limit);
+    }
+
+    /**
+     * Get the key of the sort applied by the conditions, in the form "table.column".
+     * @param conditions Map<String,String> representing the conditions of the page
+     * @return the sort key, an empty String when only sorted by id or null if the sort can't be used with a cursor
+     */
+    private static String getSortKey(Map<String, String> conditions) {
+        if (conditions == null || !conditions.containsKey("column")) {
+            return "";
+        }
+        String sortKey = conditions.get("table") + "." + conditions.get("column");
+        switch (sortKey) {
+        case SORT_COMPUTER_NAME:
+        case SORT_INTRODUCED:
+        case SORT_DISCONTINUED:
+        case SORT_COMPANY_NAME:
+            return sortKey;
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Get the value of the sorted column for a computer, as stored in a PageCursor.
+     * @param sortKey the sort key of the page
+     * @param computer the Computer from which to get the value
+     * @return the value as a String, or null
+     */
+    private static String getSortValue(String sortKey, Computer computer) {
+        return getSortValue(sortKey, computer.getName(), computer.getIntroduced(), computer.getDiscontinued(),
+                computer.getCompany() == null ? null : computer.getCompany().getName());
+    }
+
+    /**
+     * Get the value of the sorted column for a computer row, as stored in a PageCursor.
+     * @param sortKey the sort key of the page
+     * @param row the ComputerRow from which to get the value
+     * @return the value as a String, or null
+     */
+    private static String getSortValue(String sortKey, ComputerRow row) {
+        return getSortValue(sortKey, row.getName(), row.getIntroduced(), row.getDiscontinued(), row.getCompanyName());
+    }
+
+    /**
+     * Get the value of the sorted column among the values of a computer.
+     * @param sortKey the sort key of the page
+     * @param name the name of the computer
+     * @param introduced the introduction date of the computer, may be null
+     * @param discontinued the discontinuation date of the computer, may be null
+     * @param companyName the name of the company of the computer, may be null
+     * @return the value as a String, or null
+     */
+    private static String getSortValue(String sortKey, String name, LocalDate introduced, LocalDate discontinued,
+            String companyName) {
+        switch (sortKey) {
+        case SORT_COMPUTER_NAME:
+            return name;
+        case SORT_INTRODUCED:
+            return introduced == null ? null : introduced.toString();
+        case SORT_DISCONTINUED:
+            return discontinued == null ? null : discontinued.toString();
+        case SORT_COMPANY_NAME:
+            return companyName;
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Build the WHERE clause selecting the elements placed after the cursor.
+     * @param sortKey the sort key of the page
+     * @param cursor the PageCursor of the last element of the previous page
+     * @return a BooleanExpression
+     */
+    private static BooleanExpression seek(String sortKey, PageCursor cursor) {
+        String value = cursor.getLastValue();
+        switch (sortKey) {
+        case SORT_COMPUTER_NAME:
+            return seek(qComputer.name, value, cursor);
+        case SORT_INTRODUCED:
+            return seek(qComputer.introduced, value == null ? null : LocalDate.parse(value), cursor);
+        case SORT_DISCONTINUED:
+            return seek(qComputer.discontinued, value == null ? null : LocalDate.parse(value), cursor);
+        case SORT_COMPANY_NAME:
+            return seek(QCompany.company.name, value, cursor);
+        default:
+            return qComputer.id.gt(cursor.getLastId());
+        }
+    }
+
+    /**
+     * Build the WHERE clause selecting the rows placed after (key, id) for the order "key, id ASC".
+     * NULL keys are expected first in ascending order and last in descending order, as MySQL sorts them.
+     * @param key the sorted expression
+     * @param last the key value of the last element of the previous page, may be null
+     * @param cursor the PageCursor of the last element of the previous page
+     * @param <T> the type of the sorted expression
+     * @return a BooleanExpression
+     */
+    private static <T extends Comparable> BooleanExpression seek(ComparableExpression<T> key, T last,
+            PageCursor cursor) {
+        BooleanExpression afterId = qComputer.id.gt(cursor.getLastId());
+        if (last == null) {
+            if (cursor.isDescending()) {
+                return key.isNull().and(afterId);
+            }
+            return key.isNotNull().or(key.isNull().and(afterId));
+        }
+        BooleanExpression sameKey = key.eq(last).and(afterId);
+        if (cursor.isDescending()) {
+            return key.lt(last).or(sameKey).or(key.isNull());
+        }
+        return key.gt(last).or(sameKey);
+    }
+
     /**
      * Method allowing to get the count of a specific query.
-     * @param query HibernateQuery<Computer> representing the query where we want to count the result entries.
+     * @param query HibernateQuery representing the query where we want to count the result entries.
      * @return int representing the number of result entries of the given query.
      */
-    public int getCount(HibernateQuery<Computer> query) {
+    public int getCount(HibernateQuery<?> query) {
         return (int) query.fetchCount();
     }
 
     /**
      * Method adding different conditions to a given query.
-     * @param query HibernateQuery<Computer> representing the query where we'll append our conditions.
+     * @param query HibernateQuery<T> representing the query where we'll append our conditions.
      * @param conditions Map<String,String> reprensenting the conditions that we'll append to our query.
-     * @return HibernateQuery<Computer> a query where the given conditions have been added?
+     * @param <T> the type of the selected elements
+     * @return HibernateQuery<T> a query where the given conditions have been added?
      */
-    public HibernateQuery<Computer> addConditions(HibernateQuery<Computer> query, Map<String, String> conditions) {
+    public <T> HibernateQuery<T> addConditions(HibernateQuery<T> query, Map<String, String> conditions) {
         if (conditions != null && !conditions.isEmpty()) {
             PathBuilder<Computer> computerPath = new PathBuilder<>(Computer.class, "computer");
             PathBuilder<Company> companyPath = new PathBuilder<>(Company.class, "company");
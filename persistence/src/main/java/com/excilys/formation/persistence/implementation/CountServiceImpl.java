@@ -0,0 +1,280 @@
+package com.excilys.formation.persistence.implementation;
+
+import ch.qos.logback.classic.Logger;
+import com.excilys.formation.persistence.CountService;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Service caching the counts of the pages by entity and filter.
+ * The count of an unfiltered listing is updated incrementally with the creations and deletions,
+ * while the filtered counts of an entity are dropped and computed again on their next use.
+ * In approximate mode, an outdated unfiltered count is returned as is and refreshed in the background.
+ * @author kfuster
+ */
+@Component
+public class CountServiceImpl implements CountService {
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(CountServiceImpl.class);
+    /**
+     * Keys of the conditions only changing the order of a page, ignored in the count keys.
+     */
+    private static final Set<String> SORT_CONDITIONS = new HashSet<>(Arrays.asList("table", "column", "order"));
+    private final ConcurrentMap<String, CountEntry> counts = new ConcurrentHashMap<>();
+    /**
+     * Number of writes applied by entity, used to avoid caching a count computed during a write.
+     */
+    private final ConcurrentMap<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "count-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private SessionFactory sessionFactory;
+    @Value("${count.approximate:false}")
+    private boolean approximate;
+    @Value("${count.ttlSeconds:300}")
+    private long ttlSeconds;
+    @Value("${count.maxFilteredEntries:1000}")
+    private int maxFilteredEntries;
+
+    @Autowired
+    public void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public void setMaxFilteredEntries(int maxFilteredEntries) {
+        this.maxFilteredEntries = maxFilteredEntries;
+    }
+
+    @Override
+    public int getCount(Class<?> entity, Map<String, String> conditions, LongSupplier exactCount) {
+        if (entity == null || exactCount == null) {
+            throw new IllegalArgumentException("An entity and a count function are needed");
+        }
+        // The current transaction sees its own writes, which aren't applied to the counts yet
+        if (hasPendingWrites(entity)) {
+            return (int) exactCount.getAsLong();
+        }
+        String key = toKey(entity, conditions);
+        boolean filtered = key.indexOf('?') > 0;
+        CountEntry entry = counts.get(key);
+        if (entry != null && !entry.isExpired(ttlSeconds)) {
+            return (int) entry.value.get();
+        }
+        if (entry != null && approximate && !filtered) {
+            refreshLater(entity, entry);
+            return (int) entry.value.get();
+        }
+        if (filtered && counts.size() >= maxFilteredEntries) {
+            removeFiltered(null);
+        }
+        AtomicLong generation = generations.computeIfAbsent(entity, e -> new AtomicLong());
+        long before = generation.get();
+        long count = exactCount.getAsLong();
+        if (generation.get() == before) {
+            counts.put(key, new CountEntry(count));
+        }
+        return (int) count;
+    }
+
+    @Override
+    public void update(Class<?> entity, long delta) {
+        if (entity == null) {
+            throw new IllegalArgumentException("An entity is needed");
+        }
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            getPendingWrites().deltas.merge(entity, delta, Long::sum);
+        } else {
+            apply(entity, delta);
+        }
+    }
+
+    @Override
+    public void invalidate(Class<?> entity) {
+        if (entity == null) {
+            throw new IllegalArgumentException("An entity is needed");
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            getPendingWrites().invalidated.add(entity);
+        } else {
+            removeAll(entity);
+        }
+    }
+
+    /**
+     * Stops the background refresh of the counts.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Applies a delta to the unfiltered count of an entity and drops its filtered counts.
+     * @param entity the class of the entity
+     * @param delta the number of elements added or removed
+     */
+    private void apply(Class<?> entity, long delta) {
+        generations.computeIfAbsent(entity, e -> new AtomicLong()).incrementAndGet();
+        CountEntry entry = counts.get(entity.getName());
+        if (entry != null) {
+            entry.value.addAndGet(delta);
+        }
+        removeFiltered(entity);
+    }
+
+    /**
+     * Removes all the counts of an entity.
+     * @param entity the class of the entity
+     */
+    private void removeAll(Class<?> entity) {
+        generations.computeIfAbsent(entity, e -> new AtomicLong()).incrementAndGet();
+        counts.remove(entity.getName());
+        removeFiltered(entity);
+    }
+
+    /**
+     * Removes the filtered counts of an entity.
+     * @param entity the class of the entity, or null for all the entities
+     */
+    private void removeFiltered(Class<?> entity) {
+        counts.keySet().removeIf(key -> key.indexOf('?') > 0 && (entity == null || key.startsWith(entity.getName() + "?")));
+    }
+
+    /**
+     * Get the writes kept until the end of the current transaction, which are applied if it is committed.
+     * @return the PendingWrites of the current transaction
+     */
+    private PendingWrites getPendingWrites() {
+        PendingWrites pending = (PendingWrites) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            PendingWrites newPending = new PendingWrites();
+            TransactionSynchronizationManager.bindResource(this, newPending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    newPending.deltas.forEach(CountServiceImpl.this::apply);
+                    newPending.invalidated.forEach(CountServiceImpl.this::removeAll);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CountServiceImpl.this);
+                }
+            });
+            pending = newPending;
+        }
+        return pending;
+    }
+
+    /**
+     * Checks if the current transaction has created, deleted or modified elements of an entity.
+     * @param entity the class of the entity
+     * @return true if there are writes not applied to the counts yet
+     */
+    private boolean hasPendingWrites(Class<?> entity) {
+        PendingWrites pending = (PendingWrites) TransactionSynchronizationManager.getResource(this);
+        return pending != null && (pending.deltas.containsKey(entity) || pending.invalidated.contains(entity));
+    }
+
+    /**
+     * Asks the background thread to count the elements of an entity again.
+     * @param entity the class of the entity
+     * @param entry the CountEntry to update
+     */
+    private void refreshLater(Class<?> entity, CountEntry entry) {
+        if (sessionFactory == null || !entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                Number count = (Number) session.createQuery("select count(e) from " + entity.getName() + " e")
+                        .uniqueResult();
+                entry.value.set(count.longValue());
+                entry.timestamp = System.nanoTime();
+            } catch (RuntimeException e) {
+                LOGGER.error("CountServiceImpl : refreshLater() failed to count " + entity.getSimpleName(), e);
+            } finally {
+                entry.refreshing.set(false);
+            }
+        });
+    }
+
+    /**
+     * Builds the key of a count, made of the entity and its filters sorted by name.
+     * @param entity the class of the entity
+     * @param conditions Map<String,String> representing the conditions of the page, may be null
+     * @return the key as a String
+     */
+    static String toKey(Class<?> entity, Map<String, String> conditions) {
+        StringBuilder key = new StringBuilder(entity.getName());
+        if (conditions != null) {
+            char separator = '?';
+            for (Map.Entry<String, String> condition : new TreeMap<>(conditions).entrySet()) {
+                if (!SORT_CONDITIONS.contains(condition.getKey())) {
+                    key.append(separator).append(condition.getKey()).append('=')
+                            .append(condition.getValue() == null ? "" : condition.getValue().trim());
+                    separator = '&';
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * The deltas and the invalidations of the counts made by a transaction.
+     */
+    private static final class PendingWrites {
+        private final Map<Class<?>, Long> deltas = new ConcurrentHashMap<>();
+        private final Set<Class<?>> invalidated = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * A cached count with the time it was computed.
+     */
+    private static final class CountEntry {
+        private final AtomicLong value;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long timestamp = System.nanoTime();
+
+        CountEntry(long value) {
+            this.value = new AtomicLong(value);
+        }
+
+        boolean isExpired(long ttlSeconds) {
+            return System.nanoTime() - timestamp > TimeUnit.SECONDS.toNanos(ttlSeconds);
+        }
+    }
+}
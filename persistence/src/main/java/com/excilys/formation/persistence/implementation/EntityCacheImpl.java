@@ -0,0 +1,86 @@
+package com.excilys.formation.persistence.implementation;
+
+import com.excilys.formation.persistence.EntityCache;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of EntityCache over the regions of the SessionFactory.
+ */
+@Component
+public class EntityCacheImpl implements EntityCache {
+    /**
+     * Number of entries evicted by key, by region name.
+     */
+    private final ConcurrentMap<String, AtomicLong> evictedEntries = new ConcurrentHashMap<>();
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    public void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void evict(Class<?> entity, Collection<Long> ids) {
+        if (entity == null || ids == null) {
+            throw new IllegalArgumentException("An entity and its ids are needed");
+        }
+        if (ids.isEmpty() || !sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()) {
+            return;
+        }
+        Cache cache = sessionFactory.getCache();
+        List<Long> evicted = new ArrayList<>(ids);
+        Runnable evict = () -> evicted.forEach(id -> cache.evictEntity(entity, id));
+        evict.run();
+        evictedEntries.computeIfAbsent(entity.getName(), name -> new AtomicLong()).addAndGet(evicted.size());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A concurrent transaction may have cached the rows again before the deletion was committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    @Override
+    public Map<String, Map<String, Number>> getStatistics() {
+        Map<String, Map<String, Number>> statistics = new TreeMap<>();
+        Statistics sessionStatistics = sessionFactory.getStatistics();
+        if (!sessionStatistics.isStatisticsEnabled()) {
+            return statistics;
+        }
+        for (String region : sessionStatistics.getSecondLevelCacheRegionNames()) {
+            SecondLevelCacheStatistics regionStatistics = sessionStatistics.getSecondLevelCacheStatistics(region);
+            long hits = regionStatistics.getHitCount();
+            long misses = regionStatistics.getMissCount();
+            Map<String, Number> values = new LinkedHashMap<>();
+            values.put("size", regionStatistics.getElementCountInMemory());
+            values.put("hitCount", hits);
+            values.put("missCount", misses);
+            values.put("hitRatio", hits + misses == 0 ? 1.0 : (double) hits / (hits + misses));
+            values.put("putCount", regionStatistics.getPutCount());
+            AtomicLong evicted = evictedEntries.get(region);
+            values.put("evictedEntries", evicted == null ? 0 : evicted.get());
+            statistics.put(region, values);
+        }
+        return statistics;
+    }
+}
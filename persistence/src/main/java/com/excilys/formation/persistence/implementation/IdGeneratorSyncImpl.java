@@ -0,0 +1,93 @@
+package com.excilys.formation.persistence.implementation;
+
+import ch.qos.logback.classic.Logger;
+import com.excilys.formation.model.util.IdGenerators;
+import com.excilys.formation.persistence.IdGeneratorSync;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Service aligning the rows of the id generator table with the ids of their tables.
+ * It runs once at startup, before any id is taken from the table.
+ */
+@Component
+public class IdGeneratorSyncImpl implements IdGeneratorSync {
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(IdGeneratorSyncImpl.class);
+    private static final String SELECT = "SELECT " + IdGenerators.VALUE_COLUMN + " FROM " + IdGenerators.TABLE
+            + " WHERE " + IdGenerators.NAME_COLUMN + " = :name";
+    private static final String INSERT = "INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.NAME_COLUMN
+            + ", " + IdGenerators.VALUE_COLUMN + ") VALUES (:name, :value)";
+    private static final String UPDATE = "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN
+            + " = :value WHERE " + IdGenerators.NAME_COLUMN + " = :name AND " + IdGenerators.VALUE_COLUMN
+            + " < :value";
+    /**
+     * Query of the greatest id by generator.
+     */
+    private static final Map<String, String> MAX_IDS = new LinkedHashMap<>();
+    private SessionFactory sessionFactory;
+
+    static {
+        MAX_IDS.put(IdGenerators.COMPUTER, "select max(c.id) from Computer c");
+        MAX_IDS.put(IdGenerators.USER, "select max(u.id) from User u");
+    }
+
+    @Autowired
+    public void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * Aligns the generators at startup.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            align();
+        } catch (RuntimeException e) {
+            LOGGER.error("IdGeneratorSyncImpl : init() failed, the generated ids may collide with existing rows", e);
+        }
+    }
+
+    @Override
+    public void align() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                for (Map.Entry<String, String> maxId : MAX_IDS.entrySet()) {
+                    align(session, maxId.getKey(), (Long) session.createQuery(maxId.getValue()).uniqueResult());
+                }
+                transaction.commit();
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Moves the row of a generator after an id.
+     * @param session the StatelessSession of the alignment
+     * @param name the name of the generator
+     * @param maxId the greatest id of its table, null if it is empty
+     */
+    private static void align(StatelessSession session, String name, Long maxId) {
+        long value = maxId == null ? 1 : maxId + 1;
+        Number current = (Number) session.createSQLQuery(SELECT).setParameter("name", name).uniqueResult();
+        if (current == null) {
+            session.createSQLQuery(INSERT).setParameter("name", name).setParameter("value", value)
+                    .executeUpdate();
+        } else if (current.longValue() < value) {
+            session.createSQLQuery(UPDATE).setParameter("name", name).setParameter("value", value)
+                    .executeUpdate();
+            LOGGER.info("IdGeneratorSyncImpl : moved the generator " + name + " from " + current + " to " + value);
+        }
+    }
+}
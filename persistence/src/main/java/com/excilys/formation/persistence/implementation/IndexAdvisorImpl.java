@@ -0,0 +1,105 @@
+package com.excilys.formation.persistence.implementation;
+
+import ch.qos.logback.classic.Logger;
+import com.excilys.formation.persistence.IndexAdvisor;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service reading the indexes of the database from its metadata, and warning at startup about the sorts
+ * of the computer pages which aren't supported by one.
+ * A sort is supported when its column is the first column of an index. The sort on the name of the company
+ * also needs an index on computer.company_id, through which the computers of each company are read.
+ */
+@Component
+public class IndexAdvisorImpl implements IndexAdvisor {
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(IndexAdvisorImpl.class);
+    private static final String JOIN_KEY = "computer.company_id";
+    private DataSource dataSource;
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Logs the sorts which aren't supported by an index.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            List<String> unindexed = getUnindexedSortKeys();
+            if (unindexed.isEmpty()) {
+                LOGGER.info("IndexAdvisorImpl : the " + ComputerDaoImpl.SORT_KEYS.size()
+                        + " sorts of the computer pages are indexed");
+            }
+            for (String sortKey : unindexed) {
+                LOGGER.warn("IndexAdvisorImpl : no index starts with " + sortKey
+                        + ", each page sorted on it sorts the whole table");
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("IndexAdvisorImpl : init() failed to read the indexes", e);
+        }
+    }
+
+    @Override
+    public List<String> getUnindexedSortKeys() {
+        Map<String, Set<String>> indexedColumns = new HashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            List<String> unindexed = new ArrayList<>();
+            for (String sortKey : ComputerDaoImpl.SORT_KEYS) {
+                if (!isIndexed(metaData, connection.getCatalog(), sortKey, indexedColumns)
+                        || "company.name".equals(sortKey)
+                        && !isIndexed(metaData, connection.getCatalog(), JOIN_KEY, indexedColumns)) {
+                    unindexed.add(sortKey);
+                }
+            }
+            return unindexed;
+        } catch (SQLException e) {
+            throw new IllegalStateException("The indexes can't be read", e);
+        }
+    }
+
+    /**
+     * Tells if a column is the first column of an index of its table.
+     * @param metaData the DatabaseMetaData of the database
+     * @param catalog the catalog of the tables
+     * @param key the column, as "table.column"
+     * @param indexedColumns the first columns of the indexes by table, filled as the tables are read
+     * @return true if an index starts with the column
+     * @throws SQLException if the metadata can't be read
+     */
+    private static boolean isIndexed(DatabaseMetaData metaData, String catalog, String key,
+            Map<String, Set<String>> indexedColumns) throws SQLException {
+        String table = key.substring(0, key.indexOf('.'));
+        Set<String> columns = indexedColumns.get(table);
+        if (columns == null) {
+            columns = new HashSet<>();
+            try (ResultSet indexes = metaData.getIndexInfo(catalog, null, table, false, true)) {
+                while (indexes.next()) {
+                    if (indexes.getShort("ORDINAL_POSITION") == 1 && indexes.getString("COLUMN_NAME") != null) {
+                        columns.add(indexes.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            indexedColumns.put(table, columns);
+        }
+        return columns.contains(key.substring(key.indexOf('.') + 1));
+    }
+}
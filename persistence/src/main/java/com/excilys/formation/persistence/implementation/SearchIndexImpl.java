@@ -0,0 +1,424 @@
+package com.excilys.formation.persistence.implementation;
+
+import ch.qos.logback.classic.Logger;
+import com.excilys.formation.model.Company;
+import com.excilys.formation.model.Computer;
+import com.excilys.formation.persistence.SearchIndex;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * In-memory prefix index of the computer and company names, kept in sorted sets so that
+ * a prefix is resolved with a range lookup instead of a LIKE on a left join.
+ * The index is loaded in the background at startup and kept current by the writes of the DAOs,
+ * applied once their transaction is committed.
+ * @author kfuster
+ */
+@Component
+public class SearchIndexImpl implements SearchIndex {
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(SearchIndexImpl.class);
+    private static final int FETCH_SIZE = 1000;
+    /**
+     * Shortest prefix resolved by the index, the shorter ones match most of the catalog.
+     */
+    private static final int DEFAULT_MIN_PREFIX_LENGTH = 2;
+    private final Object lock = new Object();
+    private volatile IndexData data;
+    /**
+     * Writes received while the index is being rebuilt, replayed on the new data.
+     */
+    private List<Consumer<IndexData>> pendingWrites;
+    private SessionFactory sessionFactory;
+    @Value("${search.index.enabled:false}")
+    private boolean enabled;
+    @Value("${search.index.minPrefixLength:" + DEFAULT_MIN_PREFIX_LENGTH + "}")
+    private int minPrefixLength = DEFAULT_MIN_PREFIX_LENGTH;
+
+    @Autowired
+    public void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    /**
+     * Starts loading the index if it is enabled.
+     */
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            Thread thread = new Thread(this::rebuild, "search-index-build");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return data != null;
+    }
+
+    @Override
+    public Slice search(String computerPrefix, String companyPrefix, long afterId, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("A positive offset and limit are needed");
+        }
+        IndexData current = data;
+        if (current == null || (computerPrefix == null && companyPrefix == null) || !isIndexable(computerPrefix)
+                || !isIndexable(companyPrefix)) {
+            return null;
+        }
+        // The matches are walked in name order, only the smallest ids of the slice are kept
+        SmallestIds slice = new SmallestIds(offset + limit);
+        long total = 0;
+        String computerName = computerPrefix == null ? null : normalize(computerPrefix);
+        if (computerPrefix != null) {
+            for (NameEntry entry : current.computerNames.subSet(NameEntry.lowerBound(computerPrefix),
+                    NameEntry.upperBound(computerPrefix))) {
+                total++;
+                if (entry.id > afterId) {
+                    slice.add(entry.id);
+                }
+            }
+        }
+        if (companyPrefix != null) {
+            for (NameEntry company : current.companyNames.subSet(NameEntry.lowerBound(companyPrefix),
+                    NameEntry.upperBound(companyPrefix))) {
+                Set<Long> computerIds = current.computersByCompany.get(company.id);
+                if (computerIds == null) {
+                    continue;
+                }
+                for (long id : computerIds) {
+                    // The computers already matched by their name are counted once
+                    NameEntry computer = current.computers.get(id);
+                    if (computerName != null && computer != null && computer.name.startsWith(computerName)) {
+                        continue;
+                    }
+                    total++;
+                    if (id > afterId) {
+                        slice.add(id);
+                    }
+                }
+            }
+        }
+        return new Slice(slice.toList(offset), total);
+    }
+
+    @Override
+    public void put(Computer computer) {
+        if (computer == null || computer.getId() == null) {
+            throw new IllegalArgumentException("A computer with an id is needed");
+        }
+        long id = computer.getId();
+        String name = computer.getName();
+        Long companyId = computer.getCompany() == null ? null : computer.getCompany().getId();
+        write(indexData -> indexData.putComputer(id, name, companyId));
+    }
+
+    @Override
+    public void removeAll(List<Long> idList) {
+        if (idList == null) {
+            throw new IllegalArgumentException("A list of ids is needed");
+        }
+        List<Long> ids = new ArrayList<>(idList);
+        write(indexData -> ids.forEach(indexData::removeComputer));
+    }
+
+    @Override
+    public void removeByCompany(long companyId) {
+        write(indexData -> {
+            Set<Long> computerIds = indexData.computersByCompany.get(companyId);
+            if (computerIds != null) {
+                new ArrayList<>(computerIds).forEach(indexData::removeComputer);
+            }
+        });
+    }
+
+    @Override
+    public void removeCompany(long companyId) {
+        write(indexData -> {
+            Set<Long> computerIds = indexData.computersByCompany.get(companyId);
+            if (computerIds != null) {
+                new ArrayList<>(computerIds).forEach(indexData::removeComputer);
+            }
+            NameEntry company = indexData.companies.remove(companyId);
+            if (company != null) {
+                indexData.companyNames.remove(company);
+            }
+        });
+    }
+
+    @Override
+    public void rebuild() {
+        if (sessionFactory == null) {
+            return;
+        }
+        build(indexData -> {
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                ScrollableResults companies = session.createQuery("select c.id, c.name from Company c")
+                        .setFetchSize(FETCH_SIZE).scroll(ScrollMode.FORWARD_ONLY);
+                while (companies.next()) {
+                    indexData.putCompany((Long) companies.get(0), (String) companies.get(1));
+                }
+                companies.close();
+                ScrollableResults computers = session
+                        .createQuery("select c.id, c.name, c.company.id from Computer c")
+                        .setFetchSize(FETCH_SIZE).scroll(ScrollMode.FORWARD_ONLY);
+                while (computers.next()) {
+                    indexData.putComputer((Long) computers.get(0), (String) computers.get(1), (Long) computers.get(2));
+                }
+                computers.close();
+            }
+        });
+    }
+
+    /**
+     * Builds the index from the given companies and computers.
+     * @param companies List<Company> representing all the companies
+     * @param computers List<Computer> representing all the computers
+     */
+    void build(List<Company> companies, List<Computer> computers) {
+        build(indexData -> {
+            companies.forEach(company -> indexData.putCompany(company.getId(), company.getName()));
+            computers.forEach(computer -> indexData.putComputer(computer.getId(), computer.getName(),
+                    computer.getCompany() == null ? null : computer.getCompany().getId()));
+        });
+    }
+
+    /**
+     * Loads new index data then replaces the current one, replaying the writes received meanwhile.
+     * @param loader the function filling the new IndexData
+     */
+    private void build(Consumer<IndexData> loader) {
+        synchronized (lock) {
+            if (pendingWrites != null) {
+                return;
+            }
+            pendingWrites = new ArrayList<>();
+        }
+        long start = System.currentTimeMillis();
+        try {
+            IndexData newData = new IndexData();
+            loader.accept(newData);
+            synchronized (lock) {
+                pendingWrites.forEach(write -> write.accept(newData));
+                data = newData;
+            }
+            LOGGER.info("SearchIndexImpl : indexed " + newData.computers.size() + " computers in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } catch (RuntimeException e) {
+            LOGGER.error("SearchIndexImpl : build() failed, the searches will use the database", e);
+        } finally {
+            synchronized (lock) {
+                pendingWrites = null;
+            }
+        }
+    }
+
+    /**
+     * Applies a write to the index, after the commit of the current transaction if there is one.
+     * @param write the operation to apply on the IndexData
+     */
+    private void write(Consumer<IndexData> write) {
+        Runnable apply = () -> {
+            synchronized (lock) {
+                if (data != null) {
+                    write.accept(data);
+                }
+                if (pendingWrites != null) {
+                    pendingWrites.add(write);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Sets the length of the shortest prefix resolved by the index.
+     * @param minPrefixLength the minimum length of a prefix
+     */
+    void setMinPrefixLength(int minPrefixLength) {
+        this.minPrefixLength = minPrefixLength;
+    }
+
+    /**
+     * Checks if a prefix can be resolved by the index. The LIKE wildcards and the too short prefixes
+     * are left to the database.
+     * @param prefix the prefix to check
+     * @return true if the index can resolve the prefix
+     */
+    private boolean isIndexable(String prefix) {
+        return prefix == null || (prefix.length() >= minPrefixLength && prefix.indexOf('%') < 0
+                && prefix.indexOf('_') < 0);
+    }
+
+    /**
+     * Normalizes a name the way the database compares it.
+     * @param name the name to normalize
+     * @return the name in lower case, or an empty String
+     */
+    private static String normalize(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The smallest ids added, up to a capacity, kept in a max-heap of primitive longs.
+     */
+    private static final class SmallestIds {
+        private final long[] heap;
+        private int size;
+
+        SmallestIds(int capacity) {
+            heap = new long[capacity];
+        }
+
+        void add(long id) {
+            if (size < heap.length) {
+                int child = size++;
+                while (child > 0 && heap[(child - 1) / 2] < id) {
+                    heap[child] = heap[(child - 1) / 2];
+                    child = (child - 1) / 2;
+                }
+                heap[child] = id;
+            } else if (size > 0 && id < heap[0]) {
+                int parent = 0;
+                while (2 * parent + 1 < size) {
+                    int child = 2 * parent + 1;
+                    if (child + 1 < size && heap[child + 1] > heap[child]) {
+                        child++;
+                    }
+                    if (heap[child] <= id) {
+                        break;
+                    }
+                    heap[parent] = heap[child];
+                    parent = child;
+                }
+                heap[parent] = id;
+            }
+        }
+
+        /**
+         * Get the ids in ascending order.
+         * @param from the number of smallest ids skipped
+         * @return List<Long> of the ids after the skipped ones
+         */
+        List<Long> toList(int from) {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            List<Long> ids = new ArrayList<>(Math.max(size - from, 0));
+            for (int i = from; i < size; i++) {
+                ids.add(sorted[i]);
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * The sorted names and the links between computers and companies.
+     */
+    private static final class IndexData {
+        private final ConcurrentSkipListSet<NameEntry> computerNames = new ConcurrentSkipListSet<>();
+        private final ConcurrentMap<Long, NameEntry> computers = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Long, Long> companyByComputer = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Long, Set<Long>> computersByCompany = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<NameEntry> companyNames = new ConcurrentSkipListSet<>();
+        private final ConcurrentMap<Long, NameEntry> companies = new ConcurrentHashMap<>();
+
+        void putCompany(long id, String name) {
+            NameEntry entry = new NameEntry(normalize(name), id);
+            NameEntry previous = companies.put(id, entry);
+            if (previous != null) {
+                companyNames.remove(previous);
+            }
+            companyNames.add(entry);
+        }
+
+        void putComputer(long id, String name, Long companyId) {
+            removeComputer(id);
+            NameEntry entry = new NameEntry(normalize(name), id);
+            computers.put(id, entry);
+            computerNames.add(entry);
+            if (companyId != null) {
+                companyByComputer.put(id, companyId);
+                computersByCompany.computeIfAbsent(companyId, key -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        void removeComputer(long id) {
+            NameEntry entry = computers.remove(id);
+            if (entry != null) {
+                computerNames.remove(entry);
+            }
+            Long companyId = companyByComputer.remove(id);
+            if (companyId != null) {
+                Set<Long> computerIds = computersByCompany.get(companyId);
+                if (computerIds != null) {
+                    computerIds.remove(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * A normalized name and the id of its element, sorted by name then id.
+     */
+    private static final class NameEntry implements Comparable<NameEntry> {
+        private final String name;
+        private final long id;
+
+        NameEntry(String name, long id) {
+            this.name = name;
+            this.id = id;
+        }
+
+        static NameEntry lowerBound(String prefix) {
+            return new NameEntry(normalize(prefix), Long.MIN_VALUE);
+        }
+
+        static NameEntry upperBound(String prefix) {
+            return new NameEntry(normalize(prefix) + Character.MAX_VALUE, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(NameEntry other) {
+            int result = name.compareTo(other.name);
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof NameEntry && compareTo((NameEntry) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 + Long.hashCode(id);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+-- Tables of config/db/1-SCHEMA.sql and of the users, left as they are in the databases created before
+-- the migrations. The foreign keys of users_roles are the ones Hibernate adds when it updates the schema.
+create table if not exists company (
+  id                        bigint not null auto_increment,
+  name                      varchar(255),
+  constraint pk_company primary key (id));
+
+create table if not exists computer (
+  id                        bigint not null auto_increment,
+  name                      varchar(255),
+  introduced                timestamp NULL,
+  discontinued              timestamp NULL,
+  company_id                bigint default NULL,
+  constraint pk_computer primary key (id),
+  index ix_computer_company_1 (company_id),
+  constraint fk_computer_company_1 foreign key (company_id) references company (id)
+    on delete restrict on update restrict);
+
+create table if not exists id_generator (
+  entity                    varchar(255) not null,
+  next_id                   bigint,
+  constraint pk_id_generator primary key (entity));
+
+create table if not exists role (
+  id                        bigint not null auto_increment,
+  role                      varchar(255),
+  constraint pk_role primary key (id));
+
+create table if not exists user (
+  id                        bigint not null,
+  username                  varchar(255) not null,
+  password                  varchar(255) not null,
+  status                    bit not null,
+  constraint pk_user primary key (id));
+
+create table if not exists users_roles (
+  user_id                   bigint not null,
+  role_id                   bigint not null);
@@ -0,0 +1,10 @@
+-- One index per sort of the computer pages. InnoDB appends the primary key to the secondary indexes,
+-- so each one is in the order "column, id" of the pages and of their cursors, and the page is read
+-- from the index instead of sorting the whole table.
+-- The sort on the name of the company reads the companies from ix_company_name, then their computers from
+-- ix_computer_company_1, in the order "company_id, id".
+-- The indexes on the names also serve the prefix searches, which are LIKE 'prefix%'.
+create index ix_computer_name on computer (name);
+create index ix_computer_introduced on computer (introduced);
+create index ix_computer_discontinued on computer (discontinued);
+create index ix_company_name on company (name);
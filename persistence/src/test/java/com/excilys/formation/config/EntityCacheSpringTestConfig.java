@@ -0,0 +1,28 @@
+package com.excilys.formation.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
+
+import java.util.Properties;
+
+/**
+ * PersistenceSpringTestConfig with the second-level cache of the entities, configured as in PersistenceSpringConfig.
+ */
+@Configuration
+public class EntityCacheSpringTestConfig extends PersistenceSpringTestConfig {
+
+    @Override
+    @Bean
+    public LocalSessionFactoryBean sessionFactory() {
+        LocalSessionFactoryBean sessionFactory = super.sessionFactory();
+        Properties properties = sessionFactory.getHibernateProperties();
+        properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+        properties.setProperty("hibernate.cache.region.factory_class",
+                "org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory");
+        properties.setProperty("net.sf.ehcache.configurationResourceName", "/ehcache.xml");
+        properties.setProperty("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        properties.setProperty("hibernate.cache.default_cache_concurrency_strategy", "read-write");
+        return sessionFactory;
+    }
+}
@@ -0,0 +1,152 @@
+package com.excilys.formation.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the routing between two embedded databases, the primary and a replica.
+ */
+public class ReadWriteRoutingDataSourceTest {
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primary";
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica";
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+
+    @Before
+    public void setUp() throws SQLException {
+        primary = dataSource(PRIMARY_URL);
+        replica = dataSource(REPLICA_URL);
+        // The first connection loads the driver, which would take longer than the timed windows of the tests
+        primary.getConnection().close();
+    }
+
+    @After
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void getConnection_ShouldUseThePrimaryOutsideOfReadOnlyTransactions() throws SQLException {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary,
+                Collections.singletonList(replica));
+        assertEquals(PRIMARY_URL, urlOf(routingDataSource));
+    }
+
+    @Test
+    public void getConnection_ShouldUseTheReplicasInReadOnlyTransactions() throws SQLException {
+        JdbcDataSource secondReplica = dataSource("jdbc:h2:mem:replica2");
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary,
+                Arrays.asList(replica, secondReplica));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(REPLICA_URL, urlOf(routingDataSource));
+        assertEquals(secondReplica.getURL(), urlOf(routingDataSource));
+        assertEquals(REPLICA_URL, urlOf(routingDataSource));
+    }
+
+    @Test
+    public void getConnection_ShouldFailOverToThePrimaryWhenTheReplicaIsDown() throws SQLException {
+        JdbcDataSource down = dataSource("jdbc:h2:mem:down;IFEXISTS=TRUE");
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary,
+                Collections.singletonList(down));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(PRIMARY_URL, urlOf(routingDataSource));
+        assertEquals(1, routingDataSource.getFailovers());
+        routingDataSource.checkReplicas();
+        assertEquals(0, routingDataSource.getAvailableReplicas());
+    }
+
+    @Test
+    public void checkReplicas_ShouldSkipTheReplicasLaggingTooMuch() throws SQLException {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary,
+                Collections.singletonList(replica));
+        routingDataSource.setMaxLagSeconds(5);
+        routingDataSource.setLagQuery("SELECT 30 AS Seconds_Behind_Master");
+        routingDataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(0, routingDataSource.getAvailableReplicas());
+        assertEquals(PRIMARY_URL, urlOf(routingDataSource));
+        routingDataSource.setLagQuery("SELECT 2");
+        routingDataSource.checkReplicas();
+        assertEquals(1, routingDataSource.getAvailableReplicas());
+        assertEquals(REPLICA_URL, urlOf(routingDataSource));
+    }
+
+    @Test
+    public void getConnection_ShouldReadFromThePrimaryRightAfterAWrite() throws Exception {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary,
+                Collections.singletonList(replica));
+        routingDataSource.setReadYourWritesMillis(250);
+        assertEquals(PRIMARY_URL, urlOf(routingDataSource));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(PRIMARY_URL, urlOf(routingDataSource));
+        Thread.sleep(350);
+        assertEquals(REPLICA_URL, urlOf(routingDataSource));
+        assertEquals(0, routingDataSource.getFailovers());
+    }
+
+    @Test
+    public void getConnection_ShouldReadFromThePrimaryRightAfterTheEndOfAWritingTransaction() throws Exception {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary,
+                Collections.singletonList(replica));
+        routingDataSource.setReadYourWritesMillis(250);
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(PRIMARY_URL, urlOf(routingDataSource));
+        // The transaction lasts longer than the window, which starts again at its commit
+        Thread.sleep(350);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCompletion();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(PRIMARY_URL, urlOf(routingDataSource));
+        Thread.sleep(350);
+        assertEquals(REPLICA_URL, urlOf(routingDataSource));
+    }
+
+    @Test
+    public void getConnection_WithoutReadYourWrites_ShouldReadFromTheReplicasRightAfterAWrite() throws SQLException {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary,
+                Collections.singletonList(replica));
+        assertEquals(PRIMARY_URL, urlOf(routingDataSource));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(REPLICA_URL, urlOf(routingDataSource));
+    }
+
+    /**
+     * Builds the DataSource of an embedded database.
+     * @param url the JDBC url of the database
+     * @return a JdbcDataSource
+     */
+    private static JdbcDataSource dataSource(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        return dataSource;
+    }
+
+    /**
+     * Get the url of the database of a connection of the routing DataSource.
+     * @param routingDataSource the ReadWriteRoutingDataSource
+     * @return the JDBC url
+     * @throws SQLException if no connection can be taken
+     */
+    private static String urlOf(ReadWriteRoutingDataSource routingDataSource) throws SQLException {
+        try (Connection connection = routingDataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.excilys.formation.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the timing of the statements of an embedded database.
+ */
+public class SlowQueryDataSourceTest {
+    private static final String SLOW_QUERY = "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 5000000) WHERE MOD(X, 7) = ?";
+    private JdbcDataSource target;
+
+    @Before
+    public void setUp() {
+        target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:slow");
+        target.setUser("sa");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_ShouldRefuseANonPositiveThreshold() {
+        new SlowQueryDataSource(target, 0);
+    }
+
+    @Test
+    public void getConnection_ShouldOnlyCountTheStatementsSlowerThanTheThreshold() throws SQLException {
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(target, 1);
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT 1");
+            }
+            assertEquals(0, dataSource.getSlowQueries());
+            try (PreparedStatement statement = connection.prepareStatement(SLOW_QUERY)) {
+                statement.setInt(1, 3);
+                statement.executeQuery().close();
+            }
+            assertEquals(1, dataSource.getSlowQueries());
+        }
+    }
+
+    @Test
+    public void getConnection_ShouldKeepTheTargetConnectionReachable() throws SQLException {
+        try (Connection connection = new SlowQueryDataSource(target, 1000).getConnection()) {
+            assertTrue(connection.isWrapperFor(org.h2.jdbc.JdbcConnection.class));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.excilys.formation.persistence.implementation;
+
+import com.excilys.formation.config.EntityCacheSpringTestConfig;
+import com.excilys.formation.model.Computer;
+import com.excilys.formation.persistence.ComputerDao;
+import com.github.springtestdbunit.DbUnitTestExecutionListener;
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the second-level cache of the computers, whose writes are committed so that it is updated.
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {EntityCacheSpringTestConfig.class})
+@TestExecutionListeners({DependencyInjectionTestExecutionListener.class,
+    DbUnitTestExecutionListener.class})
+@DatabaseSetup("classpath:dataset.xml")
+public class ComputerDaoImplCacheTest {
+    @Autowired
+    private ComputerDao computerDao;
+    @Autowired
+    private SessionFactory sessionFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    private Cache cache;
+
+    @Before
+    public void setUp() {
+        // The rows of the dataset are inserted again before each test, behind the back of the cache
+        cache = sessionFactory.getCache();
+        cache.evictAllRegions();
+        inTransaction(() -> computerDao.getById(1L));
+        inTransaction(() -> computerDao.getById(2L));
+        assertTrue(cache.containsEntity(Computer.class, 1L));
+        assertTrue(cache.containsEntity(Computer.class, 2L));
+    }
+
+    @Test
+    public void update_ShouldOnlyChangeTheEntryOfTheComputer() {
+        Computer computer = new Computer.ComputerBuilder("Renamed Computer").id(1L).build();
+        inTransaction(() -> {
+            computerDao.update(computer);
+            return null;
+        });
+        assertTrue(cache.containsEntity(Computer.class, 2L));
+        assertEquals("Renamed Computer", inTransaction(() -> computerDao.getById(1L)).getName());
+        assertEquals("Test Computer 2", inTransaction(() -> computerDao.getById(2L)).getName());
+    }
+
+    @Test
+    public void delete_ShouldOnlyEvictTheComputer() {
+        inTransaction(() -> {
+            computerDao.delete(1L);
+            return null;
+        });
+        // The read-write region keeps a lock in place of the deleted entry, which is never served
+        assertTrue(cache.containsEntity(Computer.class, 2L));
+        assertNull(inTransaction(() -> computerDao.getById(1L)));
+    }
+
+    @Test
+    public void deleteList_ShouldNotServeTheDeletedComputers() {
+        // The native delete doesn't go through the session, the cached computer has to be evicted by key
+        inTransaction(() -> {
+            computerDao.deleteList(Collections.singletonList(1L));
+            return null;
+        });
+        assertFalse(cache.containsEntity(Computer.class, 1L));
+        assertTrue(cache.containsEntity(Computer.class, 2L));
+        assertNull(inTransaction(() -> computerDao.getById(1L)));
+        assertNotNull(inTransaction(() -> computerDao.getById(2L)));
+    }
+
+    @Test
+    public void deleteByCompany_ShouldNotServeTheDeletedComputers() {
+        inTransaction(() -> {
+            computerDao.deleteByCompany(1L);
+            return null;
+        });
+        assertFalse(cache.containsEntity(Computer.class, 1L));
+        assertTrue(cache.containsEntity(Computer.class, 2L));
+        assertNull(inTransaction(() -> computerDao.getById(1L)));
+    }
+
+    /**
+     * Runs a call in its own committed transaction.
+     * @param call the Supplier of the result
+     * @param <T> the type of the result
+     * @return the result of the call
+     */
+    private <T> T inTransaction(Supplier<T> call) {
+        return new TransactionTemplate(transactionManager).execute(status -> call.get());
+    }
+}
@@ -18,6 +18,10 @@ import org.springframework.test.context.transaction.TransactionalTestExecutionLi
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -67,15 +71,38 @@ public class ComputerDaoImplTest {
         assertNull(computer);
     }
 
-    /*@Test
-    public void testDeleteList() {
-        fail("Not yet implemented");
+    @Test
+    public void deleteList_ShouldDeleteAllTheChunks() {
+        // More ids than a single delete statement takes, the unknown ones being ignored
+        List<Long> ids = new ArrayList<>();
+        for (long id = 2500; id > 0; id--) {
+            ids.add(id);
+        }
+        computerDao.deleteList(ids);
+        assertNull(computerDao.getById(1L));
+        assertNull(computerDao.getById(2L));
+        computerDao.deleteList(new ArrayList<>());
+        computerDao.deleteList(null);
     }
 
     @Test
-    public void testDeleteByCompany() {
-        fail("Not yet implemented");
-    }*/
+    public void getIds_ShouldReturnTheChunksOfTheSearch() {
+        PageFilter pageFilter = new PageFilter();
+        pageFilter.addCondition("computerName", "Test Computer");
+        pageFilter.addCondition("companyName", "Test Computer");
+        assertEquals(Arrays.asList(1L), computerDao.getIds(pageFilter, 0, 1));
+        assertEquals(Arrays.asList(2L), computerDao.getIds(pageFilter, 1, 1));
+        assertEquals(Collections.emptyList(), computerDao.getIds(pageFilter, 2, 1));
+        pageFilter.addCondition("computerName", "Test Computer 2");
+        pageFilter.addCondition("companyName", "Test Computer 2");
+        assertEquals(Arrays.asList(2L), computerDao.getIds(pageFilter, 0, 10));
+        try {
+            computerDao.getIds(null, 0, 10);
+            fail("A PageFilter is needed");
+        } catch (IllegalArgumentException e) {
+            assertTrue(true);
+        }
+    }
 
     @Test
     public void getComputerById_ShouldReturnComputer() {
@@ -85,6 +112,21 @@ public class ComputerDaoImplTest {
         assertEquals(computer.getName(), "Test Computer 1");
     }
 
+    @Test
+    public void getComputersByIds_ShouldReturnComputersInOrderOrNull() {
+        List<Computer> computers = computerDao.getByIds(Arrays.asList(2L, 999L, 1L));
+        assertEquals(3, computers.size());
+        assertEquals("Test Computer 2", computers.get(0).getName());
+        assertNull(computers.get(1));
+        assertEquals("Test Computer 1", computers.get(2).getName());
+        try {
+            computerDao.getByIds(null);
+            fail("A list of ids is needed");
+        } catch (IllegalArgumentException e) {
+            assertTrue(true);
+        }
+    }
+
     @Test
     public void getComputerByName_ShouldReturnComputer() {
         Computer computer = computerDao.getByName("Test Computer 2");
@@ -0,0 +1,108 @@
+package com.excilys.formation.persistence.implementation;
+
+import com.excilys.formation.model.Company;
+import com.excilys.formation.model.Computer;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CountServiceImplTest {
+    private CountServiceImpl countService;
+    private AtomicInteger calls;
+
+    @Before
+    public void setUp() {
+        countService = new CountServiceImpl();
+        countService.setTtlSeconds(300);
+        countService.setMaxFilteredEntries(1000);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    public void getCount_ShouldBeCachedIgnoringTheSort() {
+        Map<String, String> conditions = new HashMap<>();
+        conditions.put("computerName", "CM");
+        conditions.put("column", "name");
+        assertEquals(5, countService.getCount(Computer.class, conditions, () -> count(5)));
+        conditions.put("column", "introduced");
+        conditions.put("order", "DESC");
+        assertEquals(5, countService.getCount(Computer.class, conditions, () -> count(5)));
+        assertEquals(1, calls.get());
+        assertEquals(7, countService.getCount(Company.class, conditions, () -> count(7)));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void update_ShouldChangeUnfilteredAndDropFilteredCounts() {
+        Map<String, String> conditions = new HashMap<>();
+        conditions.put("computerName", "CM");
+        countService.getCount(Computer.class, null, () -> count(10));
+        countService.getCount(Computer.class, conditions, () -> count(3));
+        countService.update(Computer.class, 2);
+        countService.update(Computer.class, -1);
+        assertEquals(11, countService.getCount(Computer.class, null, () -> count(0)));
+        assertEquals(4, countService.getCount(Computer.class, conditions, () -> count(4)));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void getCount_ShouldRecomputeOutdatedCounts() {
+        countService.setTtlSeconds(-1);
+        countService.getCount(Computer.class, null, () -> count(10));
+        assertEquals(12, countService.getCount(Computer.class, null, () -> count(12)));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void getCount_ShouldReturnOutdatedCountInApproximateMode() {
+        countService.setTtlSeconds(-1);
+        countService.setApproximate(true);
+        countService.getCount(Computer.class, null, () -> count(10));
+        assertEquals(10, countService.getCount(Computer.class, null, () -> count(12)));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void invalidate_ShouldRemoveCounts() {
+        countService.getCount(Computer.class, null, () -> count(10));
+        countService.invalidate(Computer.class);
+        assertEquals(9, countService.getCount(Computer.class, null, () -> count(9)));
+        try {
+            countService.invalidate(null);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(true);
+        }
+    }
+
+    @Test
+    public void invalidate_InsideATransaction_ShouldRemoveCountsOnceCommitted() {
+        countService.getCount(Computer.class, null, () -> count(10));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            countService.invalidate(Computer.class);
+            // The transaction sees its own writes
+            assertEquals(11, countService.getCount(Computer.class, null, () -> count(11)));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(12, countService.getCount(Computer.class, null, () -> count(12)));
+        assertEquals(3, calls.get());
+    }
+
+    private long count(long value) {
+        calls.incrementAndGet();
+        return value;
+    }
+}
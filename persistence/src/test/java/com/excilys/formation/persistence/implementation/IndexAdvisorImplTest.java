@@ -0,0 +1,65 @@
+package com.excilys.formation.persistence.implementation;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the index check against an embedded database.
+ */
+public class IndexAdvisorImplTest {
+    private JdbcDataSource dataSource;
+    private IndexAdvisorImpl indexAdvisor;
+
+    @Before
+    public void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:index" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;"
+                + "DATABASE_TO_UPPER=FALSE");
+        dataSource.setUser("sa");
+        execute("create table company (id bigint primary key, name varchar(255))",
+                "create table computer (id bigint primary key, name varchar(255), introduced timestamp NULL, "
+                        + "discontinued timestamp NULL, company_id bigint)");
+        indexAdvisor = new IndexAdvisorImpl();
+        indexAdvisor.setDataSource(dataSource);
+    }
+
+    @Test
+    public void getUnindexedSortKeys_ShouldListTheSortsWithoutIndex() throws SQLException {
+        execute("create index ix_computer_name on computer (name)",
+                "create index ix_computer_dates on computer (introduced, discontinued)");
+        assertEquals(Arrays.asList("computer.discontinued", "company.name"), indexAdvisor.getUnindexedSortKeys());
+    }
+
+    @Test
+    public void getUnindexedSortKeys_ShouldNeedTheJoinIndexForTheSortOnTheCompanyName() throws SQLException {
+        execute("create index ix_computer_name on computer (name)",
+                "create index ix_computer_introduced on computer (introduced)",
+                "create index ix_computer_discontinued on computer (discontinued)",
+                "create index ix_company_name on company (name)");
+        assertEquals(Collections.singletonList("company.name"), indexAdvisor.getUnindexedSortKeys());
+        execute("create index ix_computer_company_1 on computer (company_id)");
+        assertEquals(Collections.emptyList(), indexAdvisor.getUnindexedSortKeys());
+    }
+
+    /**
+     * Executes statements on the database.
+     * @param sql the statements
+     * @throws SQLException if a statement fails
+     */
+    private void execute(String... sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String query : sql) {
+                statement.execute(query);
+            }
+        }
+    }
+}
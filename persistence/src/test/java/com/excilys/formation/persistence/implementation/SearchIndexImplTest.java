@@ -0,0 +1,77 @@
+package com.excilys.formation.persistence.implementation;
+
+import com.excilys.formation.model.Company;
+import com.excilys.formation.model.Computer;
+import com.excilys.formation.persistence.SearchIndex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SearchIndexImplTest {
+    private SearchIndexImpl searchIndex;
+
+    @Before
+    public void setUp() {
+        Company apple = new Company.CompanyBuilder("Apple Inc.").id(1L).build();
+        Company ibm = new Company.CompanyBuilder("IBM").id(2L).build();
+        searchIndex = new SearchIndexImpl();
+        assertFalse(searchIndex.isReady());
+        assertNull(search("ap", "ap"));
+        searchIndex.build(Arrays.asList(apple, ibm), Arrays.asList(
+                new Computer.ComputerBuilder("MacBook Pro").id(1L).company(apple).build(),
+                new Computer.ComputerBuilder("Amiga 500").id(2L).build(),
+                new Computer.ComputerBuilder("IBM PC").id(3L).company(ibm).build(),
+                new Computer.ComputerBuilder("Apple II").id(4L).company(apple).build()));
+    }
+
+    @Test
+    public void search_ShouldMatchComputerOrCompanyPrefix() {
+        assertTrue(searchIndex.isReady());
+        assertEquals(Arrays.asList(1L, 4L), search("ap", "ap"));
+        assertEquals(Arrays.asList(3L), search("ibm", "ibm"));
+        assertEquals(Arrays.asList(1L, 2L, 4L), search("am", "ap"));
+        assertEquals(Collections.emptyList(), search("zx", "zx"));
+        assertNull(search("a%", "a%"));
+    }
+
+    @Test
+    public void search_ShouldLeaveShortPrefixesToTheDatabase() {
+        assertNull(search("", ""));
+        assertNull(search("a", "a"));
+        assertNull(searchIndex.search(null, null, 0, 0, 10));
+    }
+
+    @Test
+    public void search_ShouldReturnTheSliceAndTotal() {
+        SearchIndex.Slice slice = searchIndex.search("am", "ap", 0, 1, 1);
+        assertEquals(Arrays.asList(2L), slice.getIds());
+        assertEquals(3, slice.getTotal());
+        slice = searchIndex.search("am", "ap", 1, 0, 10);
+        assertEquals(Arrays.asList(2L, 4L), slice.getIds());
+        assertEquals(3, slice.getTotal());
+        assertEquals(Collections.emptyList(), searchIndex.search("am", "ap", 0, 5, 10).getIds());
+    }
+
+    @Test
+    public void writes_ShouldUpdateTheIndex() {
+        searchIndex.put(new Computer.ComputerBuilder("Atari ST").id(5L).build());
+        searchIndex.put(new Computer.ComputerBuilder("Commodore 64").id(2L).build());
+        assertEquals(Arrays.asList(1L, 4L, 5L), search("at", "ap"));
+        searchIndex.removeAll(Arrays.asList(5L));
+        searchIndex.removeByCompany(1L);
+        assertEquals(Collections.emptyList(), search("at", "ap"));
+        searchIndex.removeCompany(2L);
+        assertEquals(Collections.emptyList(), search("ib", "ib"));
+        assertEquals(Arrays.asList(2L), search("co", "co"));
+    }
+
+    private List<Long> search(String computerPrefix, String companyPrefix) {
+        SearchIndex.Slice slice = searchIndex.search(computerPrefix, companyPrefix, 0, 0, 10);
+        return slice == null ? null : slice.getIds();
+    }
+}
@@ -0,0 +1,112 @@
+package com.excilys.formation.config;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.excilys.formation.util.AsyncExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+/**
+ * Class configuring the asynchronous requests of the rest module, whose services are called on the threads
+ * of the AsyncExecutor instead of the servlet threads.
+ * By default the executor has as many threads as the pool has connections, "rest.async.threads", and lets
+ * "rest.async.queueSize" requests wait. "rest.async.virtualThreads" runs them on virtual threads instead,
+ * when the runtime has them. A request not answered after "rest.async.timeoutMillis" gets a 503 status.
+ * The streams of server-sent events, which last as long as their search, run on a second executor of
+ * "rest.stream.threads" threads letting "rest.stream.queueSize" streams wait, so that they never hold the
+ * threads of the short requests. The exports run on it too.
+ * The other asynchronous handlers of Spring MVC, such as the Callable results, run on a third pool of
+ * "rest.mvc.threads" threads letting "rest.mvc.queueSize" tasks wait, instead of a new thread per request.
+ */
+@Configuration
+public class RestAsyncConfig extends WebMvcConfigurerAdapter {
+    @Value("${rest.async.threads:${dataSource.maximumPoolSize:20}}")
+    private int threads;
+
+    @Value("${rest.async.queueSize:100}")
+    private int queueSize;
+
+    @Value("${rest.async.virtualThreads:false}")
+    private boolean virtualThreads;
+
+    @Value("${rest.async.timeoutMillis:30000}")
+    private long timeoutMillis;
+
+    @Value("${rest.stream.threads:4}")
+    private int streamThreads;
+
+    @Value("${rest.stream.queueSize:0}")
+    private int streamQueueSize;
+
+    @Value("${rest.mvc.threads:4}")
+    private int mvcThreads;
+
+    @Value("${rest.mvc.queueSize:20}")
+    private int mvcQueueSize;
+
+    /**
+     * Builds the executor of the asynchronous requests, whose running, waiting and refused requests are
+     * exposed as the gauges "rest.async.active", "rest.async.queued" and "rest.async.rejected".
+     * @param metricRegistry the MetricRegistry of the application
+     * @return the AsyncExecutor
+     */
+    @Bean
+    @Primary
+    public AsyncExecutor asyncExecutor(MetricRegistry metricRegistry) {
+        return register(new AsyncExecutor("rest-async", threads, queueSize, virtualThreads), "rest.async",
+                metricRegistry);
+    }
+
+    /**
+     * Builds the executor of the streams, whose running, waiting and refused streams are exposed as the gauges
+     * "rest.stream.active", "rest.stream.queued" and "rest.stream.rejected".
+     * @param metricRegistry the MetricRegistry of the application
+     * @return the AsyncExecutor
+     */
+    @Bean
+    public AsyncExecutor streamExecutor(MetricRegistry metricRegistry) {
+        return register(new AsyncExecutor("rest-stream", streamThreads, streamQueueSize, virtualThreads),
+                "rest.stream", metricRegistry);
+    }
+
+    /**
+     * Builds the executor of the asynchronous handlers of Spring MVC which don't have their own.
+     * @return the ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor mvcTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("rest-mvc-");
+        executor.setCorePoolSize(mvcThreads);
+        executor.setMaxPoolSize(mvcThreads);
+        executor.setQueueCapacity(mvcQueueSize);
+        executor.setDaemon(true);
+        return executor;
+    }
+
+    /**
+     * Exposes the running, waiting and refused tasks of an executor as gauges.
+     * @param asyncExecutor the AsyncExecutor
+     * @param prefix the prefix of the names of the gauges
+     * @param metricRegistry the MetricRegistry of the application
+     * @return the AsyncExecutor
+     */
+    private static AsyncExecutor register(AsyncExecutor asyncExecutor, String prefix,
+            MetricRegistry metricRegistry) {
+        metricRegistry.register(prefix + ".active", (Gauge<Integer>) asyncExecutor::getActive);
+        metricRegistry.register(prefix + ".queued", (Gauge<Integer>) asyncExecutor::getQueued);
+        metricRegistry.register(prefix + ".rejected", (Gauge<Long>) asyncExecutor::getRejected);
+        return asyncExecutor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(timeoutMillis);
+        configurer.setTaskExecutor(mvcTaskExecutor());
+    }
+}
@@ -1,7 +1,10 @@
 package com.excilys.formation.config;
 
+import com.excilys.formation.filter.CompressionFilter;
 import org.springframework.web.servlet.support.AbstractAnnotationConfigDispatcherServletInitializer;
 
+import javax.servlet.Filter;
+
 /**
  * Created by Ookami on 03/01/2017.
  * Class initializing the Spring context for the rest module.
@@ -22,4 +25,9 @@ public class RestInitializer extends AbstractAnnotationConfigDispatcherServletIn
     protected String[] getServletMappings() {
         return new String[] {"/" };
     }
+
+    @Override
+    protected Filter[] getServletFilters() {
+        return new Filter[] {new CompressionFilter()};
+    }
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.excilys.formation.config;
 
+import com.excilys.formation.util.SmileHttpMessageConverter;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+import java.util.List;
 
 /**
  * Created by Ookami on 03/01/2017.
@@ -11,5 +16,15 @@ import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 @Configuration
 @EnableWebMvc
 @ComponentScan(basePackages = "com.excilys.formation.controller, com.excilys.formation.config")
-public class RestSpringConfig {
+public class RestSpringConfig extends WebMvcConfigurerAdapter {
+
+    /**
+     * Adds Smile to the formats of the responses, chosen by the clients sending "application/x-jackson-smile"
+     * in their Accept header. JSON stays the default, its converter coming first.
+     * @param converters the default HttpMessageConverters
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new SmileHttpMessageConverter());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.excilys.formation.controller;
+
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.util.ResourceBundle;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Answers the asynchronous requests refused by the AsyncExecutor.
+ */
+@ControllerAdvice
+public class AsyncExceptionHandler {
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(AsyncExceptionHandler.class);
+    /**
+     * Seconds after which the client is told to send its request again.
+     */
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    /**
+     * Answers a refused request with a 503 status, telling the client when to retry.
+     * @param e the RejectedExecutionException of the AsyncExecutor
+     * @return a 503 status with a Retry-After header and an error message
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> busy(RejectedExecutionException e) {
+        LOGGER.debug("AsyncExceptionHandler : " + e.getMessage());
+        ResourceBundle messages = ResourceBundle.getBundle("messages/messages", LocaleContextHolder.getLocale());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(messages.getString("error.busy"));
+    }
+}
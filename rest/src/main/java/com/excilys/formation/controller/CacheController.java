@@ -0,0 +1,35 @@
+package com.excilys.formation.controller;
+
+import com.excilys.formation.cache.CacheStatistics;
+import com.excilys.formation.persistence.EntityCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rest Controller class exposing the statistics of the caches,
+ * the Spring caches followed by the regions of the entity cache.
+ */
+@RestController
+@RequestMapping(value = "/rest")
+public class CacheController {
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private EntityCache entityCache;
+
+    @RequestMapping(value = "/cache/stats", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Map<String, Number>>> stats() {
+        Map<String, Map<String, Number>> statistics = new LinkedHashMap<>(CacheStatistics.collect(cacheManager));
+        statistics.putAll(entityCache.getStatistics());
+        return new ResponseEntity<>(statistics, HttpStatus.OK);
+    }
+}
@@ -1,10 +1,14 @@
 package com.excilys.formation.controller;
 
 import ch.qos.logback.classic.Logger;
+import com.excilys.formation.dto.DeletionJob;
 import com.excilys.formation.model.Company;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
 import com.excilys.formation.service.CompanyService;
+import com.excilys.formation.service.VersionService;
+import com.excilys.formation.util.AsyncExecutor;
+import com.excilys.formation.util.SmileHttpMessageConverter;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.i18n.LocaleContextHolder;
@@ -15,8 +19,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Rest Controller class for the companies.
@@ -27,17 +35,75 @@ public class CompanyController {
     private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(CompanyController.class);
     @Autowired
     private CompanyService companyService;
+    @Autowired
+    private AsyncExecutor asyncExecutor;
+    @Autowired
+    private VersionService versionService;
 
-    @RequestMapping(value = "/companies/{limit}/{pagenum}", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Page<Company>> page(@PathVariable int limit, @PathVariable int pagenum) {
+    /**
+     * Get a page of companies, or a 304 status without reading it if the client has its current version.
+     * @param limit the number of companies by page
+     * @param pagenum the number of the page
+     * @param request the WebRequest, whose conditional headers are checked
+     * @return the Page
+     */
+    @RequestMapping(value = "/companies/{limit}/{pagenum}", method = RequestMethod.GET,
+            produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.SMILE_VALUE})
+    public ResponseEntity<Page<Company>> page(@PathVariable int limit, @PathVariable int pagenum, WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+        return getPage(limit, pagenum);
+    }
+
+    /**
+     * Get a page of companies without holding the servlet thread while it is read.
+     * @param limit the number of companies by page
+     * @param pagenum the number of the page
+     * @param request the WebRequest, whose conditional headers are checked
+     * @return the CompletableFuture of the Page
+     */
+    @RequestMapping(value = "/async/companies/{limit}/{pagenum}", method = RequestMethod.GET,
+            produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.SMILE_VALUE})
+    public CompletableFuture<ResponseEntity<Page<Company>>> pageAsync(@PathVariable int limit, @PathVariable int pagenum,
+            WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+        return asyncExecutor.supply(() -> getPage(limit, pagenum));
+    }
+
+    /**
+     * Get a page of companies.
+     * @param limit the number of companies by page
+     * @param pagenum the number of the page
+     * @return the Page
+     */
+    private ResponseEntity<Page<Company>> getPage(int limit, int pagenum) {
         PageFilter pageFilter = new PageFilter();
         pageFilter.setElementsByPage(limit);
         pageFilter.setPageNum(pagenum);
         return new ResponseEntity<>(companyService.getPage(pageFilter), HttpStatus.OK);
     }
 
+    /**
+     * Checks the conditional headers of a request against the version of the companies,
+     * setting the ETag and Last-Modified headers of the response.
+     * @param request the WebRequest
+     * @return true if the client has the current version, the response being a 304 status
+     */
+    private boolean isNotModified(WebRequest request) {
+        return request.checkNotModified(versionService.getETag(LocaleContextHolder.getLocale().toLanguageTag(),
+                Company.class), versionService.getLastModified(Company.class));
+    }
+
+    /**
+     * Starts the deletion of a company and of its computers in the background.
+     * @param id the id of the company
+     * @return a 202 status with the DeletionJob, whose status is at the returned location, or an error message
+     */
     @RequestMapping(value = "/companies/{id}", method = RequestMethod.DELETE)
-    public ResponseEntity<String> delete(@PathVariable Long id) {
+    public ResponseEntity<?> delete(@PathVariable Long id) {
         ResourceBundle messages = ResourceBundle.getBundle("messages/messages", LocaleContextHolder.getLocale());
         if (id <= 0) {
             return new ResponseEntity<String>(messages.getString("message.unauthorizedId"), HttpStatus.NOT_ACCEPTABLE);
@@ -46,7 +112,24 @@ public class CompanyController {
         if (company == null) {
             return new ResponseEntity<String>(messages.getString("message.companyNotFoundId") + id, HttpStatus.NOT_FOUND);
         }
-        companyService.delete(id);
-        return new ResponseEntity<String>(messages.getString("error.companyDeleted"), HttpStatus.OK);
+        DeletionJob job = companyService.deleteAsync(id);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath().path("/rest/companies/jobs/{jobId}")
+                .buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    /**
+     * Get the status of a deletion of a company.
+     * @param jobId the id of the DeletionJob
+     * @return the DeletionJob, or a 404 status if it is unknown or too old
+     */
+    @RequestMapping(value = "/companies/jobs/{jobId}", method = RequestMethod.GET,
+            produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.SMILE_VALUE})
+    public ResponseEntity<DeletionJob> job(@PathVariable String jobId) {
+        DeletionJob job = companyService.getDeletionJob(jobId);
+        if (job == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(job, HttpStatus.OK);
     }
 }
\ No newline at end of file
@@ -1,24 +1,51 @@
 package com.excilys.formation.controller;
 
 import ch.qos.logback.classic.Logger;
+import com.excilys.formation.dto.BatchReport;
 import com.excilys.formation.dto.ComputerDto;
+import com.excilys.formation.dto.ImportReport;
 import com.excilys.formation.mapper.DtoMapper;
+import com.excilys.formation.model.Company;
 import com.excilys.formation.model.Computer;
+import com.excilys.formation.model.util.ComputerRow;
+import com.excilys.formation.model.util.PageCursor;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
 import com.excilys.formation.service.ComputerService;
+import com.excilys.formation.service.VersionService;
+import com.excilys.formation.util.AsyncExecutor;
+import com.excilys.formation.util.ExportFormat;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 
 /**
@@ -28,11 +55,87 @@ import java.util.ResourceBundle;
 @RequestMapping(value = "/rest")
 public class ComputerController {
     private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(ComputerController.class);
+    /**
+     * Reader of the imported computers, configured like the one of the message converters.
+     */
+    private static final ObjectReader IMPORT_READER = Jackson2ObjectMapperBuilder.json().build()
+            .readerFor(ComputerDto.class);
+    /**
+     * Columns by which the streamed computers can be sorted.
+     */
+    private static final List<String> STREAM_COLUMNS = Arrays.asList("computerName", "companyName", "introduced",
+            "discontinued");
+    /**
+     * Size of the chunks of the export sent to the client.
+     */
+    private static final int EXPORT_CHUNK_SIZE = 64 * 1024;
     @Autowired
     private ComputerService computerService;
+    @Autowired
+    private AsyncExecutor asyncExecutor;
+    @Autowired
+    @Qualifier("streamExecutor")
+    private AsyncExecutor streamExecutor;
+    @Value("${rest.stream.timeoutMillis:600000}")
+    private long streamTimeoutMillis;
+    @Autowired
+    private VersionService versionService;
 
+    /**
+     * Get a computer, or a 304 status without reading it if the client has its current version.
+     * @param id the id of the computer
+     * @param request the WebRequest, whose conditional headers are checked
+     * @return the ComputerDto
+     */
     @RequestMapping(value = "/computers/{id}", method = RequestMethod.GET)
-    public ComputerDto computer(@PathVariable Long id) {
+    public ComputerDto computer(@PathVariable Long id, WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+        return getComputer(id);
+    }
+
+    /**
+     * Get a page of computers, or a 304 status without reading it if the client has its current version.
+     * @param limit the number of computers by page
+     * @param pagenum the number of the page
+     * @param cursor the cursor of the page, if any
+     * @param request the WebRequest, whose conditional headers are checked
+     * @return the Page
+     */
+    @RequestMapping(value = "/computers/{limit}/{pagenum}", method = RequestMethod.GET)
+    public Page<Computer> page(@PathVariable int limit, @PathVariable int pagenum,
+            @RequestParam(value = "cursor", required = false) String cursor, WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+        return getPage(limit, pagenum, cursor);
+    }
+
+    /**
+     * Get a page of computer rows, with the flat companyId and companyName fields instead of the company,
+     * or a 304 status without reading it if the client has its current version.
+     * @param limit the number of computers by page
+     * @param pagenum the number of the page
+     * @param cursor the cursor of the page, if any
+     * @param request the WebRequest, whose conditional headers are checked
+     * @return the Page
+     */
+    @RequestMapping(value = "/computers/rows/{limit}/{pagenum}", method = RequestMethod.GET)
+    public Page<ComputerRow> rowPage(@PathVariable int limit, @PathVariable int pagenum,
+            @RequestParam(value = "cursor", required = false) String cursor, WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+        return getRowPage(limit, pagenum, cursor);
+    }
+
+    /**
+     * Get a computer.
+     * @param id the id of the computer
+     * @return the ComputerDto, or null if there is no computer with this id
+     */
+    private ComputerDto getComputer(Long id) {
         DtoMapper dtoMapper = new DtoMapper();
         Computer computer = computerService.getById(id);
         if (computer == null) {
@@ -41,12 +144,196 @@ public class ComputerController {
         return dtoMapper.fromComputer(computer);
     }
 
-    @RequestMapping(value = "/computers/{limit}/{pagenum}", method = RequestMethod.GET)
-    public Page<Computer> page(@PathVariable int limit, @PathVariable int pagenum) {
+    /**
+     * Get a page of computers.
+     * @param limit the number of computers by page
+     * @param pagenum the number of the page
+     * @param cursor the cursor of the page, if any
+     * @return the Page
+     */
+    private Page<Computer> getPage(int limit, int pagenum, String cursor) {
+        return computerService.getPage(toPageFilter(limit, pagenum, cursor));
+    }
+
+    /**
+     * Get a page of computer rows.
+     * @param limit the number of computers by page
+     * @param pagenum the number of the page
+     * @param cursor the cursor of the page, if any
+     * @return the Page
+     */
+    private Page<ComputerRow> getRowPage(int limit, int pagenum, String cursor) {
+        return computerService.getRowPage(toPageFilter(limit, pagenum, cursor));
+    }
+
+    /**
+     * Builds the PageFilter of a page of computers.
+     * @param limit the number of computers by page
+     * @param pagenum the number of the page
+     * @param cursor the cursor of the page, if any
+     * @return the PageFilter
+     */
+    private static PageFilter toPageFilter(int limit, int pagenum, String cursor) {
         PageFilter pageFilter = new PageFilter();
         pageFilter.setElementsByPage(limit);
         pageFilter.setPageNum(pagenum);
-        return computerService.getPage(pageFilter);
+        pageFilter.setCursor(PageCursor.decode(cursor));
+        return pageFilter;
+    }
+
+    /**
+     * Checks the conditional headers of a request against the versions of the computers and of the companies
+     * they show, setting the ETag and Last-Modified headers of the response.
+     * @param request the WebRequest
+     * @return true if the client has the current version, the response being a 304 status
+     */
+    private boolean isNotModified(WebRequest request) {
+        return request.checkNotModified(versionService.getETag(LocaleContextHolder.getLocale().toLanguageTag(),
+                Computer.class, Company.class), versionService.getLastModified(Computer.class, Company.class));
+    }
+
+    /**
+     * Exports all the computers, written to the response as they are read by a single forward-only query.
+     * Like the streams of server-sent events, the rows are read on the executor of the streams and the export
+     * is cut after "rest.stream.timeoutMillis" instead of the timeout of the requests.
+     * @param format the format of the export, ndjson or csv
+     * @return the ResponseBodyEmitter of the streamed rows, or a 400 status for an unknown format
+     */
+    @RequestMapping(value = "/computers/export", method = RequestMethod.GET)
+    public ResponseEntity<ResponseBodyEmitter> export(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.from(format);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        MediaType contentType = MediaType.parseMediaType(exportFormat.getContentType());
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(streamTimeoutMillis);
+        streamExecutor.supply(() -> {
+            OutputStream out = new BufferedOutputStream(new EmitterOutputStream(emitter, contentType),
+                    EXPORT_CHUNK_SIZE);
+            try {
+                ExportFormat.RowWriter writer = exportFormat.open(out);
+                long count = computerService.forEachRow(writer::writeUnchecked);
+                writer.flush();
+                out.flush();
+                emitter.complete();
+                LOGGER.info("ComputerController : exported " + count + " computers as " + exportFormat);
+            } catch (IOException | UncheckedIOException e) {
+                LOGGER.debug("ComputerController : export() stopped, the client is gone");
+            } catch (RuntimeException e) {
+                LOGGER.error("ComputerController : export() failed", e);
+                emitter.completeWithError(e);
+            }
+            return null;
+        });
+        return ResponseEntity.ok().contentType(contentType).body(emitter);
+    }
+
+    /**
+     * OutputStream sending each write as a chunk of a ResponseBodyEmitter.
+     */
+    private static class EmitterOutputStream extends OutputStream {
+        private final ResponseBodyEmitter emitter;
+        private final MediaType contentType;
+
+        /**
+         * EmitterOutputStream constructor.
+         * @param emitter the ResponseBodyEmitter of the response
+         * @param contentType the MediaType of the chunks
+         */
+        EmitterOutputStream(ResponseBodyEmitter emitter, MediaType contentType) {
+            this.emitter = emitter;
+            this.contentType = contentType;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length > 0) {
+                emitter.send(Arrays.copyOfRange(bytes, offset, offset + length), contentType);
+            }
+        }
+    }
+
+    /**
+     * Streams the computers matching a search as server-sent events : a "computer" event by ComputerDto, sent
+     * as the rows are read chunk by chunk with a cursor, then a "total" event with the number of computers.
+     * The rows are read on the executor of the streams, without holding the servlet thread nor the whole search
+     * in memory, and the stream is cut after "rest.stream.timeoutMillis" instead of the timeout of the requests.
+     * @param search the prefix of the computer or company names, an empty one matching all the computers
+     * @param column the sorted column, computerName, companyName, introduced or discontinued, sorted by id if absent
+     * @param order the order of the sort, ASC or DESC
+     * @return the SseEmitter of the events, or a 400 status for an unknown column
+     */
+    @RequestMapping(value = "/computers/stream", method = RequestMethod.GET)
+    public ResponseEntity<SseEmitter> stream(@RequestParam(value = "search", defaultValue = "") String search,
+            @RequestParam(value = "column", required = false) String column,
+            @RequestParam(value = "order", defaultValue = "ASC") String order) {
+        PageFilter pageFilter = new PageFilter();
+        pageFilter.addCondition("computerName", search);
+        pageFilter.addCondition("companyName", search);
+        if (column != null) {
+            if (!STREAM_COLUMNS.contains(column)) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            pageFilter.addCondition("table", "companyName".equals(column) ? "company" : "computer");
+            pageFilter.addCondition("column", "computerName".equals(column) || "companyName".equals(column) ? "name"
+                    : column);
+            pageFilter.addCondition("order", order);
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        streamExecutor.supply(() -> {
+            DtoMapper dtoMapper = new DtoMapper();
+            try {
+                long count = computerService.forEachChunk(pageFilter, chunk -> {
+                    for (ComputerDto computer : dtoMapper.fromComputerRowList(chunk)) {
+                        send(emitter, SseEmitter.event().name("computer").data(computer, MediaType.APPLICATION_JSON));
+                    }
+                });
+                send(emitter, SseEmitter.event().name("total").data(count));
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                LOGGER.debug("ComputerController : stream() stopped, the client is gone");
+            } catch (RuntimeException e) {
+                LOGGER.error("ComputerController : stream() failed", e);
+                emitter.completeWithError(e);
+            }
+            return null;
+        });
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Sends an event, failing with an UncheckedIOException if the client is gone.
+     * @param emitter the SseEmitter of the stream
+     * @param event the SseEventBuilder of the event
+     */
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Imports the computers of the request body, one JSON object per line or a JSON array,
+     * read one by one as they are inserted instead of being deserialized all at once.
+     * @param body the InputStream of the request body
+     * @return the ImportReport of the import
+     * @throws IOException if the body can't be read
+     */
+    @RequestMapping(value = "/computers/import", method = RequestMethod.POST)
+    public ImportReport importAll(InputStream body) throws IOException {
+        try (MappingIterator<ComputerDto> computers = IMPORT_READER.readValues(body)) {
+            return computerService.importAll(computers);
+        }
     }
 
     @RequestMapping(value = "/computers", method = RequestMethod.POST)
@@ -76,6 +363,79 @@ public class ComputerController {
         return new ResponseEntity<String>(messages.getString("message.deleted"), HttpStatus.OK);
     }
 
+    /**
+     * Get computers by their ids, read in one transaction.
+     * @param ids the ids of the computers
+     * @return the BatchReport with the status and the ComputerDto of each computer, or a 400 status for too many ids
+     */
+    @RequestMapping(value = "/computers/batch", method = RequestMethod.GET)
+    public ResponseEntity<BatchReport> getBatch(@RequestParam(value = "ids") List<Long> ids) {
+        return batch(() -> computerService.getByIds(ids));
+    }
+
+    /**
+     * Creates computers, inserted in one transaction.
+     * @param computers the ComputerDtos to create
+     * @return the BatchReport with the status and the created ComputerDto of each computer,
+     * or a 400 status for too many computers
+     */
+    @RequestMapping(value = "/computers/batch", method = RequestMethod.POST)
+    public ResponseEntity<BatchReport> addBatch(@RequestBody List<ComputerDto> computers) {
+        return batch(() -> computerService.createAll(computers));
+    }
+
+    /**
+     * Updates computers in one transaction.
+     * @param computers the ComputerDtos to update, with their id
+     * @return the BatchReport with the status of each computer, or a 400 status for too many computers
+     */
+    @RequestMapping(value = "/computers/batch", method = RequestMethod.PUT)
+    public ResponseEntity<BatchReport> updateBatch(@RequestBody List<ComputerDto> computers) {
+        return batch(() -> computerService.updateAll(computers));
+    }
+
+    /**
+     * Deletes computers in one transaction.
+     * @param ids the ids of the computers
+     * @return the BatchReport with the status of each computer, or a 400 status for too many ids
+     */
+    @RequestMapping(value = "/computers/batch", method = RequestMethod.DELETE)
+    public ResponseEntity<BatchReport> deleteBatch(@RequestParam(value = "ids") List<Long> ids) {
+        return batch(() -> computerService.deleteAll(ids));
+    }
+
+    /**
+     * Runs a batch, whose items have their own status.
+     * @param batch the Supplier of the BatchReport
+     * @return a 200 status with the BatchReport, or a 400 status if the batch is refused as a whole
+     */
+    private static ResponseEntity<BatchReport> batch(Supplier<BatchReport> batch) {
+        try {
+            return new ResponseEntity<>(batch.get(), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            LOGGER.debug("ComputerController : batch refused, " + e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Deletes all the computers whose name or company name starts with the search, chunk by chunk on the server.
+     * @param search the searched prefix, which can't be blank
+     * @return the number of deleted computers, or a 400 status for a blank search
+     */
+    @RequestMapping(value = "/computers", method = RequestMethod.DELETE)
+    public ResponseEntity<String> deleteByFilter(@RequestParam(value = "search") String search) {
+        if (search.trim().isEmpty()) {
+            // A blank search would delete all the computers
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        PageFilter pageFilter = new PageFilter();
+        pageFilter.addCondition("computerName", search);
+        pageFilter.addCondition("companyName", search);
+        long deleted = computerService.deleteByFilter(pageFilter);
+        return new ResponseEntity<String>(String.valueOf(deleted), HttpStatus.OK);
+    }
+
     @RequestMapping(value = "/computers", method = RequestMethod.PUT)
     public ResponseEntity<String> update(@RequestBody ComputerDto computer) {
         ResourceBundle messages = ResourceBundle.getBundle("messages/messages", LocaleContextHolder.getLocale());
@@ -88,4 +448,82 @@ public class ComputerController {
         }
         return new ResponseEntity<String>(messages.getString("message.updated"), HttpStatus.OK);
     }
+
+    /**
+     * Get a computer without holding the servlet thread while it is read.
+     * @param id the id of the computer
+     * @param request the WebRequest, whose conditional headers are checked
+     * @return the CompletableFuture of the ComputerDto
+     */
+    @RequestMapping(value = "/async/computers/{id}", method = RequestMethod.GET)
+    public CompletableFuture<ComputerDto> computerAsync(@PathVariable Long id, WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+        return asyncExecutor.supply(() -> getComputer(id));
+    }
+
+    /**
+     * Get a page of computers without holding the servlet thread while it is read.
+     * @param limit the number of computers by page
+     * @param pagenum the number of the page
+     * @param cursor the cursor of the page, if any
+     * @param request the WebRequest, whose conditional headers are checked
+     * @return the CompletableFuture of the Page
+     */
+    @RequestMapping(value = "/async/computers/{limit}/{pagenum}", method = RequestMethod.GET)
+    public CompletableFuture<Page<Computer>> pageAsync(@PathVariable int limit, @PathVariable int pagenum,
+            @RequestParam(value = "cursor", required = false) String cursor, WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+        return asyncExecutor.supply(() -> getPage(limit, pagenum, cursor));
+    }
+
+    /**
+     * Get a page of computer rows without holding the servlet thread while it is read.
+     * @param limit the number of computers by page
+     * @param pagenum the number of the page
+     * @param cursor the cursor of the page, if any
+     * @param request the WebRequest, whose conditional headers are checked
+     * @return the CompletableFuture of the Page
+     */
+    @RequestMapping(value = "/async/computers/rows/{limit}/{pagenum}", method = RequestMethod.GET)
+    public CompletableFuture<Page<ComputerRow>> rowPageAsync(@PathVariable int limit, @PathVariable int pagenum,
+            @RequestParam(value = "cursor", required = false) String cursor, WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+        return asyncExecutor.supply(() -> getRowPage(limit, pagenum, cursor));
+    }
+
+    /**
+     * Creates a computer without holding the servlet thread while it is inserted.
+     * @param computer the ComputerDto to create
+     * @return the CompletableFuture of the created ComputerDto
+     */
+    @RequestMapping(value = "/async/computers", method = RequestMethod.POST)
+    public CompletableFuture<ComputerDto> addAsync(@RequestBody ComputerDto computer) {
+        return asyncExecutor.supply(() -> add(computer));
+    }
+
+    /**
+     * Updates a computer without holding the servlet thread while it is updated.
+     * @param computer the ComputerDto to update
+     * @return the CompletableFuture of the answer
+     */
+    @RequestMapping(value = "/async/computers", method = RequestMethod.PUT)
+    public CompletableFuture<ResponseEntity<String>> updateAsync(@RequestBody ComputerDto computer) {
+        return asyncExecutor.supply(() -> update(computer));
+    }
+
+    /**
+     * Deletes a computer without holding the servlet thread while it is deleted.
+     * @param id the id of the computer
+     * @return the CompletableFuture of the answer
+     */
+    @RequestMapping(value = "/async/computers/{id}", method = RequestMethod.DELETE)
+    public CompletableFuture<ResponseEntity<String>> deleteAsync(@PathVariable Long id) {
+        return asyncExecutor.supply(() -> delete(id));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.excilys.formation.controller;
+
+import com.codahale.metrics.MetricRegistry;
+import com.excilys.formation.metrics.MetricsSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Rest Controller class exposing the metrics of the application : the timers of the DAOs, services and
+ * controllers, and the gauges of the caches.
+ */
+@RestController
+@RequestMapping(value = "/rest")
+public class MetricsController {
+    @Autowired
+    private MetricRegistry metricRegistry;
+
+    @RequestMapping(value = "/metrics", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Map<String, Number>>> metrics(
+            @RequestParam(value = "prefix", required = false) String prefix) {
+        return new ResponseEntity<>(MetricsSnapshot.collect(metricRegistry, prefix), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,203 @@
+package com.excilys.formation.util;
+
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Executor of the asynchronous requests, running their calls to the services off the servlet threads.
+ * At most "threads" tasks run at once and at most "queueSize" wait for their turn : a task submitted beyond
+ * them is refused right away instead of holding the servlet thread, so that the client can come back later.
+ * The tasks run on a pool of "threads" threads, or on virtual threads when they are asked for and the runtime
+ * has them. The bounds are kept in that case by two numbers of permits : "threads" for the running tasks, and
+ * "threads" + "queueSize" for the accepted ones, the others waiting for a running permit.
+ */
+public class AsyncExecutor implements DisposableBean {
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(AsyncExecutor.class);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Semaphore running;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final int threads;
+    private final String name;
+
+    /**
+     * AsyncExecutor constructor, whose threads are named "rest-async-n".
+     * @param threads the maximum number of tasks running at once
+     * @param queueSize the maximum number of tasks waiting to run
+     * @param virtualThreads true to run the tasks on virtual threads if the runtime has them
+     */
+    public AsyncExecutor(int threads, int queueSize, boolean virtualThreads) {
+        this("rest-async", threads, queueSize, virtualThreads);
+    }
+
+    /**
+     * AsyncExecutor constructor.
+     * @param name the name of the executor, prefixing the names of its threads
+     * @param threads the maximum number of tasks running at once
+     * @param queueSize the maximum number of tasks waiting to run
+     * @param virtualThreads true to run the tasks on virtual threads if the runtime has them
+     */
+    public AsyncExecutor(String name, int threads, int queueSize, boolean virtualThreads) {
+        if (name == null || threads <= 0 || queueSize < 0) {
+            throw new IllegalArgumentException("A name, a positive number of threads and a queue size are needed");
+        }
+        this.name = name;
+        this.threads = threads;
+        ExecutorService virtualExecutor = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (virtualExecutor != null) {
+            executor = virtualExecutor;
+            // Virtual threads are not bounded, a task waits on its thread for one of the running permits
+            permits = new Semaphore(threads + queueSize);
+            running = new Semaphore(threads);
+            LOGGER.info("AsyncExecutor : running the tasks of " + name + " on virtual threads, " + threads
+                    + " at once and " + queueSize + " waiting");
+        } else {
+            AtomicInteger count = new AtomicInteger();
+            executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    queueSize == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueSize),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.AbortPolicy());
+            permits = null;
+            running = null;
+        }
+    }
+
+    /**
+     * Runs a task asynchronously, with the locale of the current request.
+     * @param task the Supplier of the result
+     * @param <T> the type of the result
+     * @return a CompletableFuture completed with the result of the task, or with the exception it threw
+     * @throws RejectedExecutionException if the tasks are already as many as the threads and the queue can hold
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        if (permits != null && !permits.tryAcquire()) {
+            throw reject();
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        queued.incrementAndGet();
+        try {
+            executor.execute(() -> run(task, future, localeContext));
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+            throw reject();
+        }
+        return future;
+    }
+
+    /**
+     * Runs a task on the current thread, completing its future.
+     * @param task the Supplier of the result
+     * @param future the CompletableFuture of the task
+     * @param localeContext the LocaleContext of the request of the task
+     * @param <T> the type of the result
+     */
+    private <T> void run(Supplier<T> task, CompletableFuture<T> future, LocaleContext localeContext) {
+        if (running != null) {
+            try {
+                running.acquire();
+            } catch (InterruptedException e) {
+                // The executor is shut down
+                Thread.currentThread().interrupt();
+                queued.decrementAndGet();
+                permits.release();
+                future.completeExceptionally(e);
+                return;
+            }
+        }
+        queued.decrementAndGet();
+        active.incrementAndGet();
+        LocaleContextHolder.setLocaleContext(localeContext);
+        try {
+            future.complete(task.get());
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+        } finally {
+            LocaleContextHolder.resetLocaleContext();
+            active.decrementAndGet();
+            if (running != null) {
+                running.release();
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Counts a refused task.
+     * @return the RejectedExecutionException to throw
+     */
+    private RejectedExecutionException reject() {
+        rejected.incrementAndGet();
+        return new RejectedExecutionException("The " + threads + " threads of " + name + " are busy");
+    }
+
+    /**
+     * Get the number of running tasks.
+     * @return the number of running tasks
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * Get the number of tasks waiting to run.
+     * @return the number of waiting tasks
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Get the number of refused tasks.
+     * @return the number of tasks refused since the start
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task, found by reflection as the project targets Java 8.
+     * @return the ExecutorService, or null if the runtime doesn't have virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.info("AsyncExecutor : virtual threads aren't available, running the requests on a pool of threads");
+            return null;
+        }
+    }
+}
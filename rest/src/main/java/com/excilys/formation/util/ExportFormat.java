@@ -0,0 +1,171 @@
+package com.excilys.formation.util;
+
+import com.excilys.formation.model.util.ComputerRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Formats of the export of the computers, writing the rows to a stream one by one.
+ */
+public enum ExportFormat {
+    /**
+     * One JSON object per line, serialized like the rows of the pages.
+     */
+    NDJSON("application/x-ndjson") {
+        @Override
+        public RowWriter open(OutputStream out) throws IOException {
+            JsonGenerator generator = MAPPER.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Each row ends with its own line break instead of the default space between root values
+            generator.setRootValueSeparator(null);
+            return new RowWriter() {
+                @Override
+                public void write(ComputerRow row) throws IOException {
+                    MAPPER.writeValue(generator, row);
+                    generator.writeRaw('\n');
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    generator.flush();
+                }
+            };
+        }
+    },
+    /**
+     * Comma-separated values with a header line, the dates in the ISO format.
+     */
+    CSV("text/csv") {
+        @Override
+        public RowWriter open(OutputStream out) throws IOException {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write("id,name,introduced,discontinued,companyId,companyName\n");
+            return new RowWriter() {
+                @Override
+                public void write(ComputerRow row) throws IOException {
+                    writer.append(String.valueOf(row.getId())).append(',')
+                            .append(escape(row.getName())).append(',')
+                            .append(formatDate(row.getIntroduced())).append(',')
+                            .append(formatDate(row.getDiscontinued())).append(',')
+                            .append(row.getCompanyId() == null ? "" : String.valueOf(row.getCompanyId())).append(',')
+                            .append(escape(row.getCompanyName())).append('\n');
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    writer.flush();
+                }
+            };
+        }
+    };
+
+    /**
+     * The mapper of the NDJSON rows, configured like the one of the message converters.
+     * The rows are flushed with the response buffer instead of one by one.
+     */
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).build();
+    private final String contentType;
+
+    /**
+     * ExportFormat constructor.
+     * @param contentType the content type of the format
+     */
+    ExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * Getter for the contentType field.
+     * @return String representing the content type of the format.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Get a format from its name.
+     * @param name the name of the format, case insensitive
+     * @return the ExportFormat
+     */
+    public static ExportFormat from(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("A format is needed");
+        }
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Starts writing the rows to a stream.
+     * @param out the OutputStream to write to, which isn't closed by the RowWriter
+     * @return a RowWriter
+     * @throws IOException if the stream can't be written
+     */
+    public abstract RowWriter open(OutputStream out) throws IOException;
+
+    /**
+     * Writes the rows one by one to a stream.
+     */
+    public interface RowWriter {
+        /**
+         * Writes a row.
+         * @param row the ComputerRow to write
+         * @throws IOException if the stream can't be written
+         */
+        void write(ComputerRow row) throws IOException;
+
+        /**
+         * Flushes the written rows, without closing the stream.
+         * @throws IOException if the stream can't be written
+         */
+        void flush() throws IOException;
+
+        /**
+         * Writes a row, for the callers which can't throw an IOException.
+         * @param row the ComputerRow to write
+         */
+        default void writeUnchecked(ComputerRow row) {
+            try {
+                write(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Formats a date of a CSV row.
+     * @param date the LocalDate, may be null
+     * @return the ISO date or an empty String
+     */
+    private static String formatDate(LocalDate date) {
+        return date == null ? "" : date.toString();
+    }
+
+    /**
+     * Escapes a value of a CSV row, quoting it if it contains a separator, a quote or a line break.
+     * @param value the value, may be null
+     * @return the escaped value
+     */
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,36 @@
+package com.excilys.formation.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Converter reading and writing Smile, the binary encoding of JSON, with a mapper configured like the one of JSON.
+ * Its names and values are written without quotes nor escapes, the names and the short values repeated
+ * in a page, like the names of the companies, being written once and then referred to.
+ */
+public class SmileHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.valueOf(SMILE_VALUE);
+
+    /**
+     * SmileHttpMessageConverter constructor.
+     */
+    public SmileHttpMessageConverter() {
+        super(createObjectMapper(), SMILE);
+    }
+
+    /**
+     * Builds the mapper of Smile, sharing the short string values besides the names.
+     * @return the ObjectMapper
+     */
+    private static ObjectMapper createObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper(new SmileFactory()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES));
+        Jackson2ObjectMapperBuilder.json().configure(objectMapper);
+        return objectMapper;
+    }
+}
@@ -0,0 +1,37 @@
+package com.excilys.formation.controller;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.*;
+
+public class AsyncExceptionHandlerTest {
+
+    @After
+    public void tearDown() {
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    public void busy_ShouldAnswerServiceUnavailableWithRetryAfter() {
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        ResponseEntity<String> response = new AsyncExceptionHandler().busy(new RejectedExecutionException("busy"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("Server busy, please retry later", response.getBody());
+    }
+
+    @Test
+    public void busy_ShouldAnswerInTheLocaleOfTheRequest() {
+        LocaleContextHolder.setLocale(Locale.FRENCH);
+        ResponseEntity<String> response = new AsyncExceptionHandler().busy(new RejectedExecutionException("busy"));
+        assertEquals("Serveur occupé, veuillez réessayer plus tard", response.getBody());
+    }
+}
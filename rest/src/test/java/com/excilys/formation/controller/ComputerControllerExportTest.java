@@ -0,0 +1,90 @@
+package com.excilys.formation.controller;
+
+import com.excilys.formation.model.util.ComputerRow;
+import com.excilys.formation.service.ComputerService;
+import com.excilys.formation.util.AsyncExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests of the export of the computers, whose service is mocked.
+ */
+public class ComputerControllerExportTest {
+    private static final long STREAM_TIMEOUT_MILLIS = 600000;
+    private AsyncExecutor streamExecutor;
+    private ComputerService computerService;
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+        streamExecutor = new AsyncExecutor("rest-stream", 1, 0, false);
+        computerService = Mockito.mock(ComputerService.class);
+        ComputerController computerController = new ComputerController();
+        ReflectionTestUtils.setField(computerController, "computerService", computerService);
+        ReflectionTestUtils.setField(computerController, "streamExecutor", streamExecutor);
+        ReflectionTestUtils.setField(computerController, "streamTimeoutMillis", STREAM_TIMEOUT_MILLIS);
+        mockMvc = MockMvcBuilders.standaloneSetup(computerController).build();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        streamExecutor.destroy();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void export_ShouldStreamTheRowsOnTheStreamExecutorWithItsTimeout() throws Exception {
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(computerService.forEachRow(any(Consumer.class))).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            Consumer<ComputerRow> consumer = (Consumer<ComputerRow>) invocation.getArguments()[0];
+            consumer.accept(new ComputerRow(1L, "MacBook, Pro", LocalDate.of(2006, 1, 10), null, 1L, "Apple Inc."));
+            consumer.accept(new ComputerRow(2L, "CM-2", null, null, null, null));
+            return 2L;
+        });
+        MvcResult result = mockMvc.perform(get("/rest/computers/export").param("format", "csv"))
+                .andExpect(request().asyncStarted()).andReturn();
+        assertEquals(STREAM_TIMEOUT_MILLIS, result.getRequest().getAsyncContext().getTimeout());
+        waitForTheEnd();
+        assertEquals("rest-stream-1", thread.get());
+        assertEquals("text/csv", result.getResponse().getContentType());
+        assertEquals("id,name,introduced,discontinued,companyId,companyName\n"
+                + "1,\"MacBook, Pro\",2006-01-10,,1,Apple Inc.\n"
+                + "2,CM-2,,,,\n", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    public void export_UnknownFormat_ShouldAnswerBadRequest() throws Exception {
+        mockMvc.perform(get("/rest/computers/export").param("format", "xml")).andExpect(status().isBadRequest());
+        Mockito.verifyZeroInteractions(computerService);
+    }
+
+    /**
+     * Waits until the export is sent, its task being counted by the executor from its submission.
+     * @throws InterruptedException if the test is interrupted
+     */
+    private void waitForTheEnd() throws InterruptedException {
+        long end = System.currentTimeMillis() + 5000;
+        while (streamExecutor.getActive() + streamExecutor.getQueued() > 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, streamExecutor.getActive() + streamExecutor.getQueued());
+    }
+}
@@ -0,0 +1,110 @@
+package com.excilys.formation.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AsyncExecutorTest {
+    private AsyncExecutor asyncExecutor;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        LocaleContextHolder.resetLocaleContext();
+        if (asyncExecutor != null) {
+            asyncExecutor.destroy();
+        }
+    }
+
+    @Test
+    public void supply_ShouldRefuseTheTasksBeyondTheThreadsAndTheQueue() throws Exception {
+        checkBounds(false);
+    }
+
+    @Test
+    public void supply_OnVirtualThreads_ShouldKeepTheSameBounds() throws Exception {
+        // Without virtual threads in the runtime, the pool of threads is used instead
+        checkBounds(true);
+    }
+
+    @Test
+    public void supply_ShouldRunWithTheLocaleOfTheRequest() throws Exception {
+        // A waiting place, as the thread may not be back to the queue when the first future is completed
+        asyncExecutor = new AsyncExecutor(1, 1, false);
+        LocaleContextHolder.setLocale(Locale.FRENCH);
+        assertEquals(Locale.FRENCH, asyncExecutor.supply(LocaleContextHolder::getLocale).get(5, TimeUnit.SECONDS));
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        assertEquals(Locale.ENGLISH, asyncExecutor.supply(LocaleContextHolder::getLocale).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void supply_ShouldRunOnTheThreadsOfTheNamedExecutor() throws Exception {
+        asyncExecutor = new AsyncExecutor("rest-stream", 1, 0, false);
+        String thread = asyncExecutor.supply(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+        assertTrue(thread.startsWith("rest-stream-"));
+    }
+
+    @Test
+    public void supply_ShouldCompleteWithTheExceptionOfTheTask() throws Exception {
+        asyncExecutor = new AsyncExecutor(1, 0, false);
+        CompletableFuture<Object> future = asyncExecutor.supply(() -> {
+            throw new IllegalStateException("failed");
+        });
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("The task failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    /**
+     * Fills the threads and the queue of an executor with blocked tasks, then checks that the next one is refused
+     * and that only "threads" tasks run at once.
+     * @param virtualThreads true to ask for virtual threads
+     * @throws Exception if a task fails
+     */
+    private void checkBounds(boolean virtualThreads) throws Exception {
+        asyncExecutor = new AsyncExecutor(2, 1, virtualThreads);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int task = i;
+            futures.add(asyncExecutor.supply(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return task;
+            }));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(2, asyncExecutor.getActive());
+        assertEquals(1, asyncExecutor.getQueued());
+        try {
+            asyncExecutor.supply(() -> 3);
+            fail("The threads and the queue are full");
+        } catch (RejectedExecutionException e) {
+            assertEquals(1, asyncExecutor.getRejected());
+        }
+        release.countDown();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Integer.valueOf(i), futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        // Once the tasks are done, new ones are accepted again
+        assertEquals(Integer.valueOf(4), asyncExecutor.supply(() -> 4).get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,134 @@
+package com.excilys.formation.cache;
+
+import ch.qos.logback.classic.Logger;
+import com.excilys.formation.pagination.Page;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.guava.GuavaCache;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Util class building the caches from their CacheSettings.
+ */
+public final class CacheFactory {
+    private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(CacheFactory.class);
+
+    private CacheFactory() {
+    }
+
+    /**
+     * Builds a cache.
+     * @param name the name of the cache
+     * @param settings the CacheSettings of the cache
+     * @param refresher the function computing again the value of a key when it is refreshed, may be null
+     * @return a Cache
+     */
+    public static Cache build(String name, CacheSettings settings, Function<Object, Object> refresher) {
+        if (name == null || settings == null) {
+            throw new IllegalArgumentException("A cache name and its settings are needed");
+        }
+        LOGGER.info("CacheFactory : building " + name + " with " + settings);
+        if (settings.getBackend() == CacheSettings.Backend.GUAVA) {
+            return buildGuava(name, settings);
+        }
+        return buildCaffeine(name, settings, refresher);
+    }
+
+    /**
+     * Get the entries of a cache built by this factory.
+     * @param cache the Cache
+     * @return a ConcurrentMap view of the entries
+     */
+    @SuppressWarnings("unchecked")
+    public static ConcurrentMap<Object, Object> asMap(Cache cache) {
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache).asMap();
+        }
+        if (nativeCache instanceof com.google.common.cache.Cache) {
+            return ((com.google.common.cache.Cache<Object, Object>) nativeCache).asMap();
+        }
+        throw new IllegalArgumentException("Unsupported cache implementation : " + nativeCache.getClass());
+    }
+
+    /**
+     * Builds a Caffeine cache, whose size is bounded with a W-TinyLFU policy.
+     * @param name the name of the cache
+     * @param settings the CacheSettings of the cache
+     * @param refresher the function computing again the value of a key, may be null
+     * @return a CaffeineCache
+     */
+    private static Cache buildCaffeine(String name, CacheSettings settings, Function<Object, Object> refresher) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (settings.getMaximumWeight() > 0) {
+            builder.maximumWeight(settings.getMaximumWeight()).weigher(CacheFactory::weigh);
+        } else if (settings.getMaximumSize() > 0) {
+            builder.maximumSize(settings.getMaximumSize());
+        }
+        if (settings.getExpireAfterWrite() > 0) {
+            builder.expireAfterWrite(settings.getExpireAfterWrite(), TimeUnit.SECONDS);
+        }
+        if (settings.getRefreshAfterWrite() > 0 && refresher != null) {
+            builder.refreshAfterWrite(settings.getRefreshAfterWrite(), TimeUnit.SECONDS);
+            return new CaffeineCache(name, builder.build(new CacheLoader<Object, Object>() {
+                @Override
+                public Object load(Object key) {
+                    // A missing entry is computed by the cached method
+                    return null;
+                }
+
+                @Override
+                public Object reload(Object key, Object oldValue) {
+                    return refresher.apply(key);
+                }
+            }));
+        }
+        return new CaffeineCache(name, builder.build());
+    }
+
+    /**
+     * Builds a Guava cache, whose size is bounded with a LRU policy.
+     * @param name the name of the cache
+     * @param settings the CacheSettings of the cache
+     * @return a GuavaCache
+     */
+    private static Cache buildGuava(String name, CacheSettings settings) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+        if (settings.getMaximumWeight() > 0) {
+            builder.maximumWeight(settings.getMaximumWeight()).weigher(CacheFactory::weigh);
+        } else if (settings.getMaximumSize() > 0) {
+            builder.maximumSize(settings.getMaximumSize());
+        }
+        if (settings.getExpireAfterWrite() > 0) {
+            builder.expireAfterWrite(settings.getExpireAfterWrite(), TimeUnit.SECONDS);
+        }
+        if (settings.getRefreshAfterWrite() > 0) {
+            LOGGER.warn("CacheFactory : refreshAfterWrite is only supported by the caffeine backend, ignored for " + name);
+        }
+        return new GuavaCache(name, builder.build());
+    }
+
+    /**
+     * Weighs an entry by its number of elements.
+     * @param key the key of the entry
+     * @param value the cached value
+     * @return the number of elements of a page or a collection, 1 otherwise
+     */
+    private static int weigh(Object key, Object value) {
+        if (value instanceof Page && ((Page<?>) value).getElements() != null) {
+            return Math.max(1, ((Page<?>) value).getElements().size());
+        }
+        if (value instanceof Collection) {
+            return Math.max(1, ((Collection<?>) value).size());
+        }
+        return 1;
+    }
+}
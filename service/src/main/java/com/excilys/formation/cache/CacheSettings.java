@@ -0,0 +1,130 @@
+package com.excilys.formation.cache;
+
+import org.springframework.core.env.Environment;
+
+import java.util.Locale;
+
+/**
+ * Settings of a cache, read from the properties "cache.&lt;name&gt;.*" with a fallback on "cache.default.*".
+ * <ul>
+ * <li>backend : caffeine (W-TinyLFU eviction) or guava (LRU eviction)</li>
+ * <li>maximumSize : maximum number of entries</li>
+ * <li>maximumWeight : maximum number of elements of the cached pages and lists, replaces maximumSize</li>
+ * <li>expireAfterWrite : time to live of an entry, in seconds</li>
+ * <li>refreshAfterWrite : time after which an entry is reloaded in the background, in seconds</li>
+ * </ul>
+ * A value of 0 or less disables the setting.
+ */
+public final class CacheSettings {
+    /**
+     * The available cache implementations.
+     */
+    public enum Backend {
+        CAFFEINE, GUAVA
+    }
+
+    private static final String PREFIX = "cache.";
+    private static final String DEFAULT = "default";
+    private static final long DEFAULT_MAXIMUM_SIZE = 10000;
+    private static final long DEFAULT_EXPIRE_AFTER_WRITE = 3600;
+    private final Backend backend;
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final long expireAfterWrite;
+    private final long refreshAfterWrite;
+
+    /**
+     * CacheSettings constructor.
+     * @param backend the cache implementation
+     * @param maximumSize the maximum number of entries
+     * @param maximumWeight the maximum weight of the entries
+     * @param expireAfterWrite the time to live of an entry, in seconds
+     * @param refreshAfterWrite the time after which an entry is reloaded, in seconds
+     */
+    public CacheSettings(Backend backend, long maximumSize, long maximumWeight, long expireAfterWrite,
+            long refreshAfterWrite) {
+        this.backend = backend == null ? Backend.CAFFEINE : backend;
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.expireAfterWrite = expireAfterWrite;
+        this.refreshAfterWrite = refreshAfterWrite;
+    }
+
+    /**
+     * Reads the settings of a cache from the Environment.
+     * @param environment the Environment containing the properties
+     * @param name the name of the cache
+     * @return the CacheSettings of the cache
+     */
+    public static CacheSettings from(Environment environment, String name) {
+        if (environment == null || name == null) {
+            throw new IllegalArgumentException("An Environment and a cache name are needed");
+        }
+        String backend = getProperty(environment, name, "backend", Backend.CAFFEINE.name());
+        return new CacheSettings(Backend.valueOf(backend.trim().toUpperCase(Locale.ROOT)),
+                Long.parseLong(getProperty(environment, name, "maximumSize", String.valueOf(DEFAULT_MAXIMUM_SIZE))),
+                Long.parseLong(getProperty(environment, name, "maximumWeight", "0")),
+                Long.parseLong(getProperty(environment, name, "expireAfterWrite", String.valueOf(DEFAULT_EXPIRE_AFTER_WRITE))),
+                Long.parseLong(getProperty(environment, name, "refreshAfterWrite", "0")));
+    }
+
+    /**
+     * Get a property of a cache, or the default one.
+     * @param environment the Environment containing the properties
+     * @param name the name of the cache
+     * @param property the name of the property
+     * @param defaultValue the value used if neither the cache nor the default property is set
+     * @return the value of the property
+     */
+    private static String getProperty(Environment environment, String name, String property, String defaultValue) {
+        return environment.getProperty(PREFIX + name + "." + property,
+                environment.getProperty(PREFIX + DEFAULT + "." + property, defaultValue));
+    }
+
+    /**
+     * Getter for the backend field.
+     * @return Backend representing the cache implementation.
+     */
+    public Backend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Getter for the maximumSize field.
+     * @return long representing the maximum number of entries.
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Getter for the maximumWeight field.
+     * @return long representing the maximum weight of the entries.
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Getter for the expireAfterWrite field.
+     * @return long representing the time to live of an entry, in seconds.
+     */
+    public long getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    /**
+     * Getter for the refreshAfterWrite field.
+     * @return long representing the time after which an entry is reloaded, in seconds.
+     */
+    public long getRefreshAfterWrite() {
+        return refreshAfterWrite;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheSettings [backend=" + backend + ", maximumSize=" + maximumSize + ", maximumWeight="
+                + maximumWeight + ", expireAfterWrite=" + expireAfterWrite + ", refreshAfterWrite="
+                + refreshAfterWrite + "]";
+    }
+}
@@ -0,0 +1,68 @@
+package com.excilys.formation.cache;
+
+import com.google.common.cache.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Util class gathering the statistics of the caches.
+ */
+public final class CacheStatistics {
+
+    private CacheStatistics() {
+    }
+
+    /**
+     * Get the statistics of all the caches of a CacheManager.
+     * @param cacheManager the CacheManager
+     * @return a Map associating the name of each cache to its statistics
+     */
+    public static Map<String, Map<String, Number>> collect(CacheManager cacheManager) {
+        if (cacheManager == null) {
+            throw new IllegalArgumentException("A CacheManager is needed");
+        }
+        Map<String, Map<String, Number>> statistics = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            statistics.put(name, collect(cacheManager.getCache(name)));
+        }
+        return statistics;
+    }
+
+    /**
+     * Get the statistics of a cache.
+     * @param cache the Cache
+     * @return a Map associating the name of each statistic to its value
+     */
+    public static Map<String, Number> collect(Cache cache) {
+        Map<String, Number> statistics = new LinkedHashMap<>();
+        if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache) {
+            com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache =
+                    (com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache();
+            com.github.benmanes.caffeine.cache.stats.CacheStats stats = nativeCache.stats();
+            statistics.put("size", nativeCache.estimatedSize());
+            statistics.put("hitCount", stats.hitCount());
+            statistics.put("missCount", stats.missCount());
+            statistics.put("hitRatio", stats.hitRate());
+            statistics.put("evictionCount", stats.evictionCount());
+            statistics.put("evictionWeight", stats.evictionWeight());
+        } else if (cache != null && cache.getNativeCache() instanceof com.google.common.cache.Cache) {
+            com.google.common.cache.Cache<?, ?> nativeCache = (com.google.common.cache.Cache<?, ?>) cache.getNativeCache();
+            CacheStats stats = nativeCache.stats();
+            statistics.put("size", nativeCache.size());
+            statistics.put("hitCount", stats.hitCount());
+            statistics.put("missCount", stats.missCount());
+            statistics.put("hitRatio", stats.hitRate());
+            statistics.put("evictionCount", stats.evictionCount());
+        }
+        if (cache instanceof PageCache) {
+            PageCache pageCache = (PageCache) cache;
+            statistics.put("invalidations", pageCache.getInvalidations());
+            statistics.put("evictedByWrites", pageCache.getEvictedEntries());
+            statistics.put("retainedByWrites", pageCache.getRetainedEntries());
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,236 @@
+package com.excilys.formation.cache;
+
+import com.excilys.formation.model.Computer;
+import com.excilys.formation.model.util.ComputerRow;
+import com.excilys.formation.model.util.PageFilterKey;
+import com.excilys.formation.pagination.Page;
+import org.springframework.cache.Cache;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the pages of computers, evicting on a write only the pages the modified computer has an effect on.
+ * A page is evicted if it contains the computer, if the computer enters or leaves its search,
+ * or if the value its sort is based on changes.
+ * The pages may contain Computers or ComputerRows.
+ */
+public class PageCache implements Cache {
+    private final Cache cache;
+    private final ConcurrentMap<Object, Object> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong evictedEntries = new AtomicLong();
+    private final AtomicLong retainedEntries = new AtomicLong();
+
+    /**
+     * PageCache constructor.
+     * @param cache the Cache holding the pages, built by the CacheFactory
+     */
+    public PageCache(Cache cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("A cache is needed");
+        }
+        this.cache = cache;
+        this.entries = CacheFactory.asMap(cache);
+    }
+
+    @Override
+    public String getName() {
+        return cache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return cache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return cache.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return cache.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return cache.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return cache.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Evicts the pages affected by the modification of a computer.
+     * @param id the id of the modified computer
+     * @param before the computer before the modification, null if it has been created or is unknown
+     * @param after the computer after the modification, null if it has been deleted
+     */
+    public void invalidate(long id, Computer before, Computer after) {
+        invalidations.incrementAndGet();
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            if (isAffected(entry.getKey(), entry.getValue(), id, before, after)) {
+                if (entries.remove(entry.getKey(), entry.getValue())) {
+                    evictedEntries.incrementAndGet();
+                }
+            } else {
+                retainedEntries.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Get the number of writes that invalidated pages.
+     * @return the number of invalidations
+     */
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * Get the number of pages evicted by the writes.
+     * @return the number of evicted pages
+     */
+    public long getEvictedEntries() {
+        return evictedEntries.get();
+    }
+
+    /**
+     * Get the number of pages kept by the writes, which an eviction of all the entries would have dropped.
+     * @return the number of retained pages
+     */
+    public long getRetainedEntries() {
+        return retainedEntries.get();
+    }
+
+    /**
+     * Checks if a cached page is affected by the modification of a computer.
+     * @param key the key of the page
+     * @param value the cached page
+     * @param id the id of the modified computer
+     * @param before the computer before the modification, or null
+     * @param after the computer after the modification, or null
+     * @return true if the page has to be evicted
+     */
+    private static boolean isAffected(Object key, Object value, long id, Computer before, Computer after) {
+        if (!(key instanceof PageFilterKey) || !(value instanceof Page)) {
+            return true;
+        }
+        for (Object element : ((Page<?>) value).getElements()) {
+            Long elementId = getId(element);
+            if (elementId == null || elementId == id) {
+                return true;
+            }
+        }
+        PageFilterKey pageKey = (PageFilterKey) key;
+        boolean matchedBefore = matches(pageKey, before);
+        boolean matchedAfter = matches(pageKey, after);
+        if (matchedBefore != matchedAfter) {
+            // The total and the position of the following elements change
+            return true;
+        }
+        return matchedBefore && isSortChanged(pageKey.getSortKey(), before, after);
+    }
+
+    /**
+     * Get the id of an element of a page.
+     * @param element the element
+     * @return the id of the Computer or the ComputerRow, or null for another element
+     */
+    private static Long getId(Object element) {
+        if (element instanceof Computer) {
+            return ((Computer) element).getId();
+        }
+        if (element instanceof ComputerRow) {
+            return ((ComputerRow) element).getId();
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a computer is part of the search of a page.
+     * @param key the key of the page
+     * @param computer the computer to check, may be null
+     * @return true if the computer matches the search, or if it can't be known
+     */
+    private static boolean matches(PageFilterKey key, Computer computer) {
+        if (computer == null) {
+            return false;
+        }
+        // As in the DAO, the search is only applied when both names are given
+        if (key.getComputerName() == null || key.getCompanyName() == null) {
+            return true;
+        }
+        if (startsWith(computer.getName(), key.getComputerName())) {
+            return true;
+        }
+        if (computer.getCompany() == null) {
+            return false;
+        }
+        // Only the id of the company may be known, the computer can then be part of any search
+        return computer.getCompany().getName() == null || startsWith(computer.getCompany().getName(), key.getCompanyName());
+    }
+
+    /**
+     * Checks if the value a page is sorted on has changed.
+     * @param sortKey the sort of the page, in the form "table.column", or null
+     * @param before the computer before the modification
+     * @param after the computer after the modification
+     * @return true if the order of the page may have changed
+     */
+    private static boolean isSortChanged(String sortKey, Computer before, Computer after) {
+        if (sortKey == null) {
+            return false;
+        }
+        switch (sortKey) {
+        case "computer.name":
+            return !Objects.equals(before.getName(), after.getName());
+        case "computer.introduced":
+            return !Objects.equals(before.getIntroduced(), after.getIntroduced());
+        case "computer.discontinued":
+            return !Objects.equals(before.getDiscontinued(), after.getDiscontinued());
+        case "company.name":
+            return !Objects.equals(before.getCompany() == null ? null : before.getCompany().getId(),
+                    after.getCompany() == null ? null : after.getCompany().getId());
+        default:
+            return true;
+        }
+    }
+
+    /**
+     * Checks if a name starts with a prefix, ignoring the case like the database.
+     * A prefix containing LIKE wildcards is considered as matching.
+     * @param name the name, may be null
+     * @param prefix the prefix
+     * @return true if the name starts with the prefix
+     */
+    private static boolean startsWith(String name, String prefix) {
+        if (prefix.indexOf('%') >= 0 || prefix.indexOf('_') >= 0) {
+            return true;
+        }
+        return name != null && name.toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT));
+    }
+}
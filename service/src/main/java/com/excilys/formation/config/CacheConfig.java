@@ -1,65 +1,93 @@
 package com.excilys.formation.config;
 
+import com.excilys.formation.cache.CacheFactory;
+import com.excilys.formation.cache.CacheSettings;
+import com.excilys.formation.cache.PageCache;
 import com.excilys.formation.model.util.PageFilter;
-import com.google.common.cache.CacheBuilder;
+import com.excilys.formation.model.util.PageFilterKey;
+import com.excilys.formation.persistence.CompanyDao;
+import com.excilys.formation.persistence.ComputerDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.guava.GuavaCache;
 import org.springframework.cache.interceptor.KeyGenerator;
-import org.springframework.cache.interceptor.SimpleKeyGenerator;
 import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Class configuring the cache.
+ * The caches are size-bounded and configured by the properties "cache.&lt;name&gt;.*", see CacheSettings.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig extends CachingConfigurerSupport {
+    @Autowired
+    private Environment environment;
+    @Autowired
+    @Lazy
+    private ComputerDao computerDao;
+    @Autowired
+    @Lazy
+    private CompanyDao companyDao;
+    @Autowired
+    @Lazy
+    private PlatformTransactionManager transactionManager;
+
     @Bean
     @Override
     public CacheManager cacheManager() {
         SimpleCacheManager cacheManager = new SimpleCacheManager();
-        GuavaCache cacheCompanies = new GuavaCache("cacheCompanies",
-                CacheBuilder.newBuilder().expireAfterWrite(60, TimeUnit.MINUTES).build());
-        GuavaCache cachePages = new GuavaCache("cachePages",
-                CacheBuilder.newBuilder().expireAfterWrite(60, TimeUnit.MINUTES).build());
-        GuavaCache cacheUsers = new GuavaCache("cacheUsers",
-                CacheBuilder.newBuilder().expireAfterWrite(60, TimeUnit.MINUTES).build());
-        cacheManager.setCaches(Arrays.asList(cacheCompanies, cachePages, cacheUsers));
+        Cache cacheCompanies = CacheFactory.build("cacheCompanies",
+                CacheSettings.from(environment, "cacheCompanies"),
+                key -> "getAll".equals(key) ? readOnly(status -> companyDao.getAll()) : null);
+        PageCache cachePages = new PageCache(CacheFactory.build("cachePages",
+                CacheSettings.from(environment, "cachePages"),
+                key -> key instanceof PageFilterKey
+                        ? readOnly(status -> computerDao.getPage(((PageFilterKey) key).toPageFilter())) : null));
+        PageCache cacheRows = new PageCache(CacheFactory.build("cacheRows",
+                CacheSettings.from(environment, "cacheRows"),
+                key -> key instanceof PageFilterKey
+                        ? readOnly(status -> computerDao.getRowPage(((PageFilterKey) key).toPageFilter())) : null));
+        Cache cacheUsers = CacheFactory.build("cacheUsers", CacheSettings.from(environment, "cacheUsers"), null);
+        cacheManager.setCaches(Arrays.asList(cacheCompanies, cachePages, cacheRows, cacheUsers));
         return cacheManager;
     }
 
+    /**
+     * Executes a refresh of a cached value in a read-only transaction.
+     * @param callback the callback reading the value
+     * @param <T> the type of the value
+     * @return the value read
+     */
+    private <T> T readOnly(TransactionCallback<T> callback) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(callback);
+    }
+
     @Bean
     @Override
     public KeyGenerator keyGenerator() {
         return (arg0, arg1, arg2) -> {
+            // The pages are evicted by PageCache according to the attributes of their key
+            if (arg2.length == 1 && arg2[0] instanceof PageFilter) {
+                return ((PageFilter) arg2[0]).toKey();
+            }
             StringBuilder sb = new StringBuilder();
             sb.append(arg1.getName());
             for (Object param : arg2) {
                 if (param != null) {
-                    if (arg1.getName().equals("getPage")) {
-                        PageFilter pageFilter = (PageFilter)param;
-                        sb.append(pageFilter.getPageNum());
-                        sb.append("&").append(pageFilter.getElementsByPage());
-                        if (!pageFilter.getConditions().isEmpty()) {
-                            if (pageFilter.getConditions().containsKey("column")) {
-                                sb.append(pageFilter.getConditions().get("column")).append(pageFilter.getConditions().get("order"));
-                            }
-                            if (pageFilter.getConditions().containsKey("computerName")) {
-                                sb.append(pageFilter.getConditions().get("computerName"));
-                            }
-                        }
-                    }
-                    else {
-                        sb.append(param.toString());
-                    }
+                    sb.append(param.toString());
                 }
             }
             return sb.toString();
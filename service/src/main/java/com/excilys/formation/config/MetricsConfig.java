@@ -0,0 +1,56 @@
+package com.excilys.formation.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Slf4jReporter;
+import com.excilys.formation.metrics.CacheMetrics;
+import com.excilys.formation.metrics.TimingPostProcessor;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class configuring the metrics : the timers of the DAOs, services and controllers, the gauges of the caches,
+ * and their periodic report to the logger "com.excilys.formation.metrics".
+ * The report is disabled when the property "metrics.reporter.periodSeconds" is 0.
+ */
+@Configuration
+public class MetricsConfig {
+    @Value("${metrics.reporter.periodSeconds:60}")
+    private long reporterPeriodSeconds;
+
+    /**
+     * Static so that the post-processor can get it without creating the configuration first.
+     * @return the MetricRegistry of the application
+     */
+    @Bean
+    public static MetricRegistry metricRegistry() {
+        return new MetricRegistry();
+    }
+
+    @Bean
+    public static TimingPostProcessor timingPostProcessor(MetricRegistry metricRegistry) {
+        return new TimingPostProcessor(metricRegistry);
+    }
+
+    @Bean
+    public CacheMetrics cacheMetrics(MetricRegistry metricRegistry, CacheManager cacheManager) {
+        CacheMetrics cacheMetrics = new CacheMetrics(cacheManager);
+        metricRegistry.registerAll(cacheMetrics);
+        return cacheMetrics;
+    }
+
+    @Bean(destroyMethod = "stop")
+    public Slf4jReporter metricsReporter(MetricRegistry metricRegistry) {
+        Slf4jReporter reporter = Slf4jReporter.forRegistry(metricRegistry)
+                .outputTo(LoggerFactory.getLogger("com.excilys.formation.metrics"))
+                .convertRatesTo(TimeUnit.SECONDS).convertDurationsTo(TimeUnit.MILLISECONDS).build();
+        if (reporterPeriodSeconds > 0) {
+            reporter.start(reporterPeriodSeconds, TimeUnit.SECONDS);
+        }
+        return reporter;
+    }
+}
@@ -4,6 +4,7 @@ import com.excilys.formation.dto.CompanyDto;
 import com.excilys.formation.dto.ComputerDto;
 import com.excilys.formation.model.Company;
 import com.excilys.formation.model.Computer;
+import com.excilys.formation.model.util.ComputerRow;
 import com.excilys.formation.pagination.Page;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -48,6 +49,21 @@ public class PageMapper {
         return pPageComputerDto;
     }
 
+    /**
+     * Converts a Page from ComputerRow to ComputerDto.
+     * @param pageRows the Page to convert
+     * @return a Page<ComputerDto>
+     */
+    public Page<ComputerDto> fromComputerRowToComputerDto(Page<ComputerRow> pageRows) {
+        Page<ComputerDto> pPageComputerDto = null;
+        if (pageRows != null) {
+            pPageComputerDto = new Page<>(10);
+            copyAttributes(pageRows, pPageComputerDto);
+            pPageComputerDto.setElements(dtoMapper.fromComputerRowList(pageRows.getElements()));
+        }
+        return pPageComputerDto;
+    }
+
     /**
      * Copy attributes from to page to another, used when we need the same page
      * but with a different list of elements (like going from a DTO page to an
@@ -60,5 +76,6 @@ public class PageMapper {
         newPage.setElementsByPage(pageToCopy.getElementsByPage());
         newPage.setTotalPages(pageToCopy.getTotalPages());
         newPage.setTotalElements(pageToCopy.getTotalElements());
+        newPage.setNextCursor(pageToCopy.getNextCursor());
     }
 }
\ No newline at end of file
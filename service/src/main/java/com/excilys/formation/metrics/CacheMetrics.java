@@ -0,0 +1,44 @@
+package com.excilys.formation.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
+import com.excilys.formation.cache.CacheStatistics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gauges of the statistics of the caches, named "cache.name.statistic", for example "cache.cachePages.hitCount".
+ * They read the statistics the caches record themselves, see CacheStatistics.
+ */
+public class CacheMetrics implements MetricSet {
+    private final CacheManager cacheManager;
+
+    /**
+     * CacheMetrics constructor.
+     * @param cacheManager the CacheManager of the measured caches
+     */
+    public CacheMetrics(CacheManager cacheManager) {
+        if (cacheManager == null) {
+            throw new IllegalArgumentException("A CacheManager is needed");
+        }
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metrics = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            for (String statistic : CacheStatistics.collect(cache).keySet()) {
+                metrics.put(MetricRegistry.name("cache", name, statistic),
+                        (Gauge<Number>) () -> CacheStatistics.collect(cache).get(statistic));
+            }
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,122 @@
+package com.excilys.formation.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Util class reading the values of the metrics, the durations in milliseconds.
+ */
+public final class MetricsSnapshot {
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private MetricsSnapshot() {
+    }
+
+    /**
+     * Get the values of the metrics whose name starts with a prefix.
+     * @param metricRegistry the MetricRegistry
+     * @param prefix the prefix of the names, for example "dao.", or null for all the metrics
+     * @return a Map associating the name of each metric to its values, sorted by name
+     */
+    public static Map<String, Map<String, Number>> collect(MetricRegistry metricRegistry, String prefix) {
+        if (metricRegistry == null) {
+            throw new IllegalArgumentException("A MetricRegistry is needed");
+        }
+        MetricFilter filter = prefix == null || prefix.isEmpty() ? MetricFilter.ALL
+                : (name, metric) -> name.startsWith(prefix);
+        Map<String, Map<String, Number>> values = new TreeMap<>();
+        metricRegistry.getTimers(filter).forEach((name, timer) -> values.put(name, collect(timer)));
+        metricRegistry.getCounters(filter).forEach((name, counter) -> values.put(name, collect(counter)));
+        metricRegistry.getMeters(filter).forEach((name, meter) -> values.put(name, collect(meter)));
+        metricRegistry.getHistograms(filter).forEach((name, histogram) -> values.put(name, collect(histogram)));
+        metricRegistry.getGauges(filter).forEach((name, gauge) -> {
+            Map<String, Number> gaugeValues = collect(gauge);
+            if (!gaugeValues.isEmpty()) {
+                values.put(name, gaugeValues);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Get the values of a Timer.
+     * @param timer the Timer
+     * @return the number of calls, their rate and the distribution of their duration
+     */
+    private static Map<String, Number> collect(Timer timer) {
+        Map<String, Number> values = new TreeMap<>();
+        Snapshot snapshot = timer.getSnapshot();
+        values.put("count", timer.getCount());
+        values.put("rate1m", timer.getOneMinuteRate());
+        values.put("meanMs", snapshot.getMean() / NANOS_PER_MILLI);
+        values.put("p50Ms", snapshot.getMedian() / NANOS_PER_MILLI);
+        values.put("p95Ms", snapshot.get95thPercentile() / NANOS_PER_MILLI);
+        values.put("p99Ms", snapshot.get99thPercentile() / NANOS_PER_MILLI);
+        values.put("maxMs", snapshot.getMax() / NANOS_PER_MILLI);
+        return values;
+    }
+
+    /**
+     * Get the value of a Counter.
+     * @param counter the Counter
+     * @return the count
+     */
+    private static Map<String, Number> collect(Counter counter) {
+        Map<String, Number> values = new TreeMap<>();
+        values.put("count", counter.getCount());
+        return values;
+    }
+
+    /**
+     * Get the values of a Meter.
+     * @param meter the Meter
+     * @return the count and its rate
+     */
+    private static Map<String, Number> collect(Meter meter) {
+        Map<String, Number> values = new TreeMap<>();
+        values.put("count", meter.getCount());
+        values.put("rate1m", meter.getOneMinuteRate());
+        return values;
+    }
+
+    /**
+     * Get the values of a Histogram.
+     * @param histogram the Histogram
+     * @return the count and the distribution of the values
+     */
+    private static Map<String, Number> collect(Histogram histogram) {
+        Map<String, Number> values = new TreeMap<>();
+        Snapshot snapshot = histogram.getSnapshot();
+        values.put("count", histogram.getCount());
+        values.put("mean", snapshot.getMean());
+        values.put("p50", snapshot.getMedian());
+        values.put("p95", snapshot.get95thPercentile());
+        values.put("p99", snapshot.get99thPercentile());
+        values.put("max", snapshot.getMax());
+        return values;
+    }
+
+    /**
+     * Get the value of a Gauge.
+     * @param gauge the Gauge
+     * @return the value, or nothing if it isn't a number
+     */
+    private static Map<String, Number> collect(Gauge<?> gauge) {
+        Map<String, Number> values = new TreeMap<>();
+        Object value = gauge.getValue();
+        if (value instanceof Number) {
+            values.put("value", (Number) value);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,145 @@
+package com.excilys.formation.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.excilys.formation.persistence.CompanyDao;
+import com.excilys.formation.persistence.ComputerDao;
+import com.excilys.formation.persistence.UserDao;
+import com.excilys.formation.service.CompanyService;
+import com.excilys.formation.service.ComputerService;
+import com.excilys.formation.service.UserService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bean post-processor timing each call to the DAOs, the services and the controllers.
+ * Each method gets a Timer named "layer.Type.method", for example "dao.ComputerDao.getPage",
+ * and a Counter of the calls which threw an exception, named after the Timer with ".errors".
+ * The DAOs and services are timed through their interface, the controllers through their public methods.
+ * The timing advice is placed before the existing ones, so that the time of a service includes its cache
+ * and its transaction.
+ */
+public class TimingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+    private static final long serialVersionUID = -2236451734567311928L;
+    private static final List<Class<?>> DAO_TYPES = Arrays.asList(ComputerDao.class, CompanyDao.class, UserDao.class);
+    private static final List<Class<?>> SERVICE_TYPES = Arrays.asList(ComputerService.class, CompanyService.class,
+            UserService.class);
+
+    /**
+     * TimingPostProcessor constructor.
+     * @param metricRegistry the MetricRegistry in which the timers are registered
+     */
+    public TimingPostProcessor(MetricRegistry metricRegistry) {
+        if (metricRegistry == null) {
+            throw new IllegalArgumentException("A MetricRegistry is needed");
+        }
+        setBeforeExistingAdvisors(true);
+        this.advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return method.getDeclaringClass() != Object.class && getName(targetClass, method) != null;
+            }
+        }, new TimingInterceptor(metricRegistry));
+    }
+
+    /**
+     * Get the name of the Timer of a method.
+     * @param targetClass the class of the timed bean
+     * @param method the called method
+     * @return the name of the Timer, or null if the method isn't timed
+     */
+    static String getName(Class<?> targetClass, Method method) {
+        Class<?> userClass = ClassUtils.getUserClass(targetClass);
+        for (Class<?> type : DAO_TYPES) {
+            if (type.isAssignableFrom(userClass) && ClassUtils.hasMethod(type, method.getName(),
+                    method.getParameterTypes())) {
+                return MetricRegistry.name("dao", type.getSimpleName(), method.getName());
+            }
+        }
+        for (Class<?> type : SERVICE_TYPES) {
+            if (type.isAssignableFrom(userClass) && ClassUtils.hasMethod(type, method.getName(),
+                    method.getParameterTypes())) {
+                return MetricRegistry.name("service", type.getSimpleName(), method.getName());
+            }
+        }
+        if (AnnotatedElementUtils.hasAnnotation(userClass, Controller.class) && Modifier.isPublic(method.getModifiers())
+                && method.getDeclaringClass() == userClass) {
+            return MetricRegistry.name("controller", userClass.getSimpleName(), method.getName());
+        }
+        return null;
+    }
+
+    /**
+     * Interceptor timing the calls, with the metrics of each method looked up by the class of the called bean.
+     */
+    private static final class TimingInterceptor implements MethodInterceptor {
+        private final MetricRegistry metricRegistry;
+        private final ClassValue<ConcurrentMap<Method, MethodMetrics>> metrics =
+                new ClassValue<ConcurrentMap<Method, MethodMetrics>>() {
+                    @Override
+                    protected ConcurrentMap<Method, MethodMetrics> computeValue(Class<?> type) {
+                        return new ConcurrentHashMap<>();
+                    }
+                };
+
+        /**
+         * TimingInterceptor constructor.
+         * @param metricRegistry the MetricRegistry in which the timers are registered
+         */
+        private TimingInterceptor(MetricRegistry metricRegistry) {
+            this.metricRegistry = metricRegistry;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Class<?> targetClass = invocation.getThis() == null ? invocation.getMethod().getDeclaringClass()
+                    : invocation.getThis().getClass();
+            MethodMetrics methodMetrics = metrics.get(targetClass).computeIfAbsent(invocation.getMethod(),
+                    method -> new MethodMetrics(metricRegistry, getName(targetClass, method)));
+            if (methodMetrics.timer == null) {
+                return invocation.proceed();
+            }
+            Timer.Context context = methodMetrics.timer.time();
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                methodMetrics.errors.inc();
+                throw e;
+            } finally {
+                context.stop();
+            }
+        }
+    }
+
+    /**
+     * Metrics of a timed method.
+     */
+    private static final class MethodMetrics {
+        private final Timer timer;
+        private final Counter errors;
+
+        /**
+         * MethodMetrics constructor, registering the metrics if they don't exist yet.
+         * @param metricRegistry the MetricRegistry
+         * @param name the name of the Timer, or null if the method isn't timed
+         */
+        private MethodMetrics(MetricRegistry metricRegistry, String name) {
+            this.timer = name == null ? null : metricRegistry.timer(name);
+            this.errors = name == null ? null : metricRegistry.counter(MetricRegistry.name(name, "errors"));
+        }
+    }
+}
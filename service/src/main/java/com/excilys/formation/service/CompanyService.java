@@ -1,5 +1,6 @@
 package com.excilys.formation.service;
 
+import com.excilys.formation.dto.DeletionJob;
 import com.excilys.formation.model.Company;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
@@ -30,4 +31,20 @@ public interface CompanyService extends BaseService<Company> {
      * @return a Company or null
      */
     Company getById(long id);
+
+    /**
+     * Starts the deletion of a company in the background : its computers are deleted by chunks of
+     * delete.chunkSize, each in its own transaction, then the company itself.
+     * If the company is already being deleted, the running job is returned instead.
+     * @param id the id of the company to delete
+     * @return the DeletionJob following the deletion
+     */
+    DeletionJob deleteAsync(long id);
+
+    /**
+     * Get a deletion job, running or recently finished.
+     * @param jobId the id of the job
+     * @return the DeletionJob, or null if it is unknown
+     */
+    DeletionJob getDeletionJob(String jobId);
 }
\ No newline at end of file
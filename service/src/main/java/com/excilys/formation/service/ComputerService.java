@@ -1,10 +1,16 @@
 package com.excilys.formation.service;
 
+import com.excilys.formation.dto.BatchReport;
+import com.excilys.formation.dto.ComputerDto;
+import com.excilys.formation.dto.ImportReport;
 import com.excilys.formation.model.Computer;
+import com.excilys.formation.model.util.ComputerRow;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface for ComputerServices.
@@ -26,9 +32,90 @@ public interface ComputerService extends BaseService<Computer> {
      */
     Page<Computer> getPage(PageFilter pageFilter);
 
+    /**
+     * Get a Page of ComputerRows, the listed columns of the computers without their entities.
+     * @param pageFilter the PageFilter containing the parameters
+     * @return the Page with the populated list
+     */
+    Page<ComputerRow> getRowPage(PageFilter pageFilter);
+
+    /**
+     * Streams all the computers as rows ordered by id, without loading them all in memory.
+     * @param consumer the Consumer receiving the rows as they are read
+     * @return the number of rows read
+     */
+    long forEachRow(Consumer<ComputerRow> consumer);
+
+    /**
+     * Streams the computers matching the search and the sort of a PageFilter, chunk by chunk of stream.chunkSize
+     * rows, without loading them all in memory. Each chunk is read in its own short read-only transaction,
+     * seeking after the last row of the previous one when the sort allows a cursor.
+     * @param pageFilter the PageFilter containing the search and the sort, whose pagination is ignored
+     * @param consumer the Consumer receiving the chunks as they are read, outside of the transactions
+     * @return the number of rows read
+     */
+    long forEachChunk(PageFilter pageFilter, Consumer<List<ComputerRow>> consumer);
+
+    /**
+     * Imports computers read one by one, without loading them all in memory.
+     * Each computer is validated and its company resolved by id or by name, then the valid ones are
+     * inserted by JDBC batches of import.batchSize rows, each batch in its own transaction.
+     * @param computers the Iterator of the ComputerDtos to import, whose dates are in the format of the current locale
+     * @return the ImportReport of the import, with the errors of the rejected rows
+     */
+    ImportReport importAll(Iterator<ComputerDto> computers);
+
+    /**
+     * Get computers by their ids, read together in one read-only transaction.
+     * @param ids the ids of the computers, at most batch.maxSize of them
+     * @return the BatchReport with the ComputerDto of each found computer, a 404 status for the unknown ones
+     * @throws IllegalArgumentException if the list is null or too long
+     */
+    BatchReport getByIds(List<Long> ids);
+
+    /**
+     * Creates computers, validated and with their company resolved like the imported ones.
+     * The valid ones are inserted together in one transaction, then the cached pages are invalidated once.
+     * @param computers the ComputerDtos to create, at most batch.maxSize of them
+     * @return the BatchReport with a 201 status and the created ComputerDto of each inserted computer,
+     * a 400 status for the invalid ones and a 500 status for all of them if the insertion failed
+     * @throws IllegalArgumentException if the list is null or too long
+     */
+    BatchReport createAll(List<ComputerDto> computers);
+
+    /**
+     * Updates computers, validated and with their company resolved like the imported ones.
+     * The valid ones are updated together in one transaction, then the cached pages are invalidated once.
+     * @param computers the ComputerDtos to update, with their id, at most batch.maxSize of them
+     * @return the BatchReport with a 200 status for each updated computer, a 400 status for the invalid ones,
+     * a 404 status for the unknown ones and a 500 status for all of them if the update failed
+     * @throws IllegalArgumentException if the list is null or too long
+     */
+    BatchReport updateAll(List<ComputerDto> computers);
+
+    /**
+     * Deletes computers together in one transaction, then invalidates the cached pages once.
+     * @param ids the ids of the computers, at most batch.maxSize of them
+     * @return the BatchReport with a 200 status for each deleted computer, a 404 status for the unknown ones
+     * and a 500 status for all of them if the deletion failed
+     * @throws IllegalArgumentException if the list is null or too long
+     */
+    BatchReport deleteAll(List<Long> ids);
+
     /**
      * Delete a list of Computers.
+     * Above delete.chunkSize ids, the list is deleted chunk by chunk, each chunk in its own short transaction.
      * @param computersId the list of ids of computers to delete in a String of the form "1,2,3"
      */
     void deleteList(List<Long> computersId);
+
+    /**
+     * Delete all the computers matching the search of a PageFilter, as listed by the dashboard,
+     * without loading their ids all at once : they are selected and deleted chunk by chunk,
+     * each chunk in its own short transaction.
+     * @param pageFilter the PageFilter containing the search, whose sort and pagination are ignored
+     * @return the number of deleted computers
+     * @throws IllegalArgumentException if the search is missing or blank, which would match all the computers
+     */
+    long deleteByFilter(PageFilter pageFilter);
 }
\ No newline at end of file
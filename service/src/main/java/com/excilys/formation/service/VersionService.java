@@ -0,0 +1,38 @@
+package com.excilys.formation.service;
+
+/**
+ * Interface of the service keeping a version of the elements of each entity, changed by their writes,
+ * from which the conditional requests are answered without reading the elements.
+ */
+public interface VersionService {
+
+    /**
+     * Marks the elements of an entity as changed.
+     * Inside a transaction, the version changes at once and again when the transaction ends,
+     * so that the same version never describes the elements both before and after the write.
+     * @param entity the class of the entity
+     */
+    void changed(Class<?> entity);
+
+    /**
+     * Get the current version of the elements of an entity.
+     * @param entity the class of the entity
+     * @return the version, starting from 0 for each run of the application
+     */
+    long getVersion(Class<?> entity);
+
+    /**
+     * Get the time of the last change of the elements of entities, truncated to the second like the HTTP dates.
+     * @param entities the classes of the entities
+     * @return the time of the most recent change, in milliseconds
+     */
+    long getLastModified(Class<?>... entities);
+
+    /**
+     * Builds a strong ETag of a representation of the elements of entities, to be read before the elements.
+     * @param variant what distinguishes the representations of the same elements, like their locale
+     * @param entities the classes of the entities
+     * @return the quoted ETag
+     */
+    String getETag(String variant, Class<?>... entities);
+}
@@ -1,20 +1,36 @@
 package com.excilys.formation.service.implementation;
 
 import ch.qos.logback.classic.Logger;
+import com.excilys.formation.dto.DeletionJob;
 import com.excilys.formation.model.Company;
+import com.excilys.formation.model.Computer;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
 import com.excilys.formation.persistence.CompanyDao;
 import com.excilys.formation.persistence.ComputerDao;
 import com.excilys.formation.service.CompanyService;
+import com.excilys.formation.service.VersionService;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PreDestroy;
+import java.util.Comparator;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 /**
  * Manages Company services.
@@ -28,9 +44,47 @@ public class CompanyServiceImpl implements CompanyService {
     @Autowired
     private CompanyDao companyDao;
 
+    /**
+     * Number of finished deletion jobs kept for their status requests, the oldest ones being dropped.
+     */
+    private static final int MAX_FINISHED_JOBS = 100;
+
+    /**
+     * The caches emptied by the deletion of a company.
+     */
+    private static final String[] DELETION_CACHES = {"cacheCompanies", "cachePages", "cacheRows"};
+
+    /**
+     * The caches of the pages, emptied after each deleted chunk of computers.
+     */
+    private static final String[] PAGE_CACHES = {"cachePages", "cacheRows"};
+
+    private final ConcurrentMap<String, DeletionJob> deletionJobs = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the deletion jobs one after the other, so that a single company deletion holds locks at a time.
+     */
+    private final ExecutorService deletionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "company-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     @Autowired
     private ComputerDao computerDao;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private VersionService versionService;
+
+    @Value("${delete.chunkSize:1000}")
+    private int deleteChunkSize;
+
     @Override
     @Transactional(readOnly = true)
     public Page<Company> getPage(PageFilter pageFilter) {
@@ -39,10 +93,128 @@ public class CompanyServiceImpl implements CompanyService {
 
     @Override
     @Transactional
-    @CacheEvict(value = "cacheCompanies", allEntries = true)
+    @CacheEvict(value = {"cacheCompanies", "cachePages", "cacheRows"}, allEntries = true)
     public void delete(long id) {
         computerDao.deleteByCompany(id);
         companyDao.delete(id);
+        versionService.changed(Computer.class);
+        versionService.changed(Company.class);
+    }
+
+    @Override
+    public DeletionJob deleteAsync(long id) {
+        synchronized (deletionJobs) {
+            for (DeletionJob job : deletionJobs.values()) {
+                if (job.getCompanyId() == id && !job.isFinished()) {
+                    return job;
+                }
+            }
+            removeOldestFinishedJobs();
+            DeletionJob job = new DeletionJob(UUID.randomUUID().toString(), id);
+            deletionJobs.put(job.getId(), job);
+            deletionExecutor.execute(() -> runDeletion(job));
+            return job;
+        }
+    }
+
+    @Override
+    public DeletionJob getDeletionJob(String jobId) {
+        if (jobId == null) {
+            throw new IllegalArgumentException("A job id is needed");
+        }
+        return deletionJobs.get(jobId);
+    }
+
+    /**
+     * Stops the running deletion job, whose current chunk is rolled back.
+     */
+    @PreDestroy
+    public void shutdown() {
+        deletionExecutor.shutdownNow();
+    }
+
+    /**
+     * Deletes the computers of a company chunk by chunk, then the company, updating the progress of the job.
+     * @param job the DeletionJob to run
+     */
+    private void runDeletion(DeletionJob job) {
+        long companyId = job.getCompanyId();
+        job.setStartTime(System.currentTimeMillis());
+        job.setStatus(DeletionJob.Status.RUNNING);
+        int chunkSize = Math.max(1, deleteChunkSize);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        DeletionJob.Status result = DeletionJob.Status.FAILED;
+        try {
+            job.setTotal(transactionTemplate.execute(status -> computerDao.countByCompany(companyId)));
+            long lastId = 0;
+            List<Long> chunk;
+            do {
+                long afterId = lastId;
+                // Each chunk is committed on its own, so that the locks on the computers are held briefly
+                chunk = transactionTemplate.execute(status -> {
+                    List<Long> ids = computerDao.getIdsByCompany(companyId, afterId, chunkSize);
+                    computerDao.deleteList(ids);
+                    return ids;
+                });
+                if (!chunk.isEmpty()) {
+                    lastId = chunk.get(chunk.size() - 1);
+                    job.setDeleted(job.getDeleted() + chunk.size());
+                    clearCaches(PAGE_CACHES);
+                    versionService.changed(Computer.class);
+                    LOGGER.debug("CompanyServiceImpl : deletion of the company " + companyId + " at "
+                            + job.getDeleted() + "/" + job.getTotal());
+                }
+            } while (chunk.size() == chunkSize && !Thread.currentThread().isInterrupted());
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("The deletion was interrupted");
+            }
+            // The computers added to the company since its chunks were read are deleted with it
+            transactionTemplate.execute(status -> {
+                computerDao.deleteByCompany(companyId);
+                companyDao.delete(companyId);
+                return null;
+            });
+            result = DeletionJob.Status.DONE;
+        } catch (RuntimeException e) {
+            LOGGER.error("CompanyServiceImpl : deletion of the company " + companyId + " failed", e);
+            job.setError(e.getMessage());
+        } finally {
+            if (result == DeletionJob.Status.FAILED && job.getError() == null) {
+                // An Error stopped the job, which mustn't stay RUNNING and be returned for its company forever
+                job.setError("The deletion was stopped");
+            }
+            clearCaches(DELETION_CACHES);
+            versionService.changed(Computer.class);
+            versionService.changed(Company.class);
+            // The job is finished last, once its end time is known and the caches are emptied
+            job.setEndTime(System.currentTimeMillis());
+            job.setStatus(result);
+            LOGGER.info("CompanyServiceImpl : " + job);
+        }
+    }
+
+    /**
+     * Drops the finished jobs ending the earliest, so that at most MAX_FINISHED_JOBS of them are kept.
+     */
+    private void removeOldestFinishedJobs() {
+        List<DeletionJob> finished = deletionJobs.values().stream().filter(DeletionJob::isFinished)
+                .sorted(Comparator.comparingLong(DeletionJob::getEndTime)).collect(Collectors.toList());
+        for (int i = 0; i <= finished.size() - MAX_FINISHED_JOBS; i++) {
+            deletionJobs.remove(finished.get(i).getId());
+        }
+    }
+
+    /**
+     * Empties caches.
+     * @param names the names of the caches
+     */
+    private void clearCaches(String[] names) {
+        for (String name : names) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
     }
 
     @Override
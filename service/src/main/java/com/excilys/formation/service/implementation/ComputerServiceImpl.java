@@ -1,19 +1,53 @@
 package com.excilys.formation.service.implementation;
 
 import ch.qos.logback.classic.Logger;
+import com.excilys.formation.cache.PageCache;
+import com.excilys.formation.dto.BatchReport;
+import com.excilys.formation.dto.BatchReport.ItemStatus;
+import com.excilys.formation.dto.ComputerDto;
+import com.excilys.formation.dto.ImportReport;
+import com.excilys.formation.mapper.DtoMapper;
+import com.excilys.formation.mapper.LocaleFormats;
+import com.excilys.formation.model.Company;
 import com.excilys.formation.model.Computer;
+import com.excilys.formation.model.util.ComputerRow;
+import com.excilys.formation.model.util.PageCursor;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
 import com.excilys.formation.persistence.ComputerDao;
+import com.excilys.formation.service.CompanyService;
 import com.excilys.formation.service.ComputerService;
+import com.excilys.formation.service.VersionService;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Service class for Computers.
@@ -24,28 +58,129 @@ public class ComputerServiceImpl implements ComputerService {
 
     private static final Logger LOGGER = (Logger) LoggerFactory.getLogger(ComputerServiceImpl.class);
 
+    /**
+     * Above this number of deleted computers, all the pages are evicted instead of looking for the affected ones.
+     */
+    private static final int MAX_TARGETED_EVICTIONS = 100;
+
+    /**
+     * The caches of the pages, of Computers and of ComputerRows.
+     */
+    private static final String[] PAGE_CACHES = {"cachePages", "cacheRows"};
+
+    /**
+     * Validator of the imported ComputerDtos, with the constraints used by the forms.
+     * Its messages are interpolated without expression language, which is only provided by the servlet containers.
+     */
+    private static final Validator VALIDATOR = Validation.byDefaultProvider().configure()
+            .messageInterpolator(new ParameterMessageInterpolator()).buildValidatorFactory().getValidator();
+
     @Autowired
     private ComputerDao computerDao;
 
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private VersionService versionService;
+
+    @Value("${import.batchSize:500}")
+    private int importBatchSize;
+
+    @Value("${delete.chunkSize:1000}")
+    private int deleteChunkSize;
+
+    @Value("${stream.chunkSize:100}")
+    private int streamChunkSize;
+
+    @Value("${batch.maxSize:1000}")
+    private int batchMaxSize;
+
     @Override
     @Transactional
-    @CacheEvict(value = "cachePages", allEntries = true)
     public Computer create(Computer computer) {
-        return computerDao.create(computer);
+        Computer created = computerDao.create(computer);
+        invalidatePages(created.getId(), null, created);
+        return created;
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = "cachePages", allEntries = true)
     public void delete(long id) {
+        Computer before = getStored(id);
         computerDao.delete(id);
+        invalidatePages(id, before, null);
     }
 
     @Override
-    @Transactional
-    @CacheEvict(value = "cachePages", allEntries = true)
     public void deleteList(List<Long> idList) {
-        computerDao.deleteList(idList);
+        if (idList == null || idList.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        if (idList.size() > MAX_TARGETED_EVICTIONS) {
+            // The locks of each chunk are released by its commit instead of being held until the last one
+            int chunkSize = Math.max(1, deleteChunkSize);
+            for (int from = 0; from < idList.size(); from += chunkSize) {
+                List<Long> chunk = idList.subList(from, Math.min(from + chunkSize, idList.size()));
+                transactionTemplate.execute(status -> {
+                    computerDao.deleteList(chunk);
+                    return null;
+                });
+            }
+            evictAllPages();
+            return;
+        }
+        transactionTemplate.execute(status -> {
+            List<Computer> before = new ArrayList<>();
+            idList.forEach(id -> before.add(getStored(id)));
+            computerDao.deleteList(idList);
+            for (int i = 0; i < idList.size(); i++) {
+                invalidatePages(idList.get(i), before.get(i), null);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public long deleteByFilter(PageFilter pageFilter) {
+        if (pageFilter == null) {
+            throw new IllegalArgumentException("A PageFilter is needed");
+        }
+        // A blank search would match all the computers, the whole catalog isn't deleted by a filter
+        Map<String, String> conditions = pageFilter.getConditions();
+        if (conditions == null || !StringUtils.hasText(conditions.get("computerName"))
+                || !StringUtils.hasText(conditions.get("companyName"))) {
+            throw new IllegalArgumentException("A search is needed");
+        }
+        int chunkSize = Math.max(1, deleteChunkSize);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long deleted = 0;
+        long lastId = 0;
+        List<Long> chunk;
+        do {
+            long afterId = lastId;
+            chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = computerDao.getIds(pageFilter, afterId, chunkSize);
+                computerDao.deleteList(ids);
+                return ids;
+            });
+            if (!chunk.isEmpty()) {
+                deleted += chunk.size();
+                lastId = chunk.get(chunk.size() - 1);
+            }
+        } while (chunk.size() == chunkSize);
+        if (deleted > 0) {
+            evictAllPages();
+        }
+        LOGGER.info("ComputerServiceImpl : deleteByFilter() deleted " + deleted + " computers");
+        return deleted;
     }
 
     @Override
@@ -61,10 +196,491 @@ public class ComputerServiceImpl implements ComputerService {
         return computerDao.getPage(viewDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "cacheRows", keyGenerator = "keyGenerator")
+    public Page<ComputerRow> getRowPage(PageFilter pageFilter) {
+        return computerDao.getRowPage(pageFilter);
+    }
+
+    @Override
+    public long forEachRow(Consumer<ComputerRow> consumer) {
+        // The DAO reads the rows in its own stateless session, outside of the transactions
+        return computerDao.forEachRow(consumer);
+    }
+
+    @Override
+    public long forEachChunk(PageFilter pageFilter, Consumer<List<ComputerRow>> consumer) {
+        if (pageFilter == null || consumer == null) {
+            throw new IllegalArgumentException("A PageFilter and a consumer are needed");
+        }
+        int chunkSize = Math.max(1, streamChunkSize);
+        PageFilter chunkFilter = new PageFilter();
+        pageFilter.getConditions().forEach(chunkFilter::addCondition);
+        chunkFilter.setElementsByPage(chunkSize);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        long count = 0;
+        int pageNum = 1;
+        List<ComputerRow> chunk;
+        do {
+            chunkFilter.setPageNum(pageNum++);
+            // Read from the DAO rather than the cached pages, a stream going through the whole search
+            Page<ComputerRow> page = transactionTemplate.execute(status -> computerDao.getRowPage(chunkFilter));
+            chunk = page.getElements();
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+                count += chunk.size();
+            }
+            // Without a cursor, when the sort doesn't allow one, the next chunk is read by its offset
+            chunkFilter.setCursor(PageCursor.decode(page.getNextCursor()));
+        } while (chunk.size() == chunkSize);
+        return count;
+    }
+
+    @Override
+    public ImportReport importAll(Iterator<ComputerDto> computers) {
+        if (computers == null) {
+            throw new IllegalArgumentException("An iterator of computers is needed");
+        }
+        ImportReport report = new ImportReport();
+        long start = System.currentTimeMillis();
+        int batchSize = Math.max(1, importBatchSize);
+        // Each batch is committed on its own, so that the session and the memory don't grow with the import
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocaleFormats formats = LocaleFormats.current();
+        Map<Long, Company> companiesById = new HashMap<>();
+        Map<String, Company> companiesByName = new HashMap<>();
+        loadCompanies(companiesById, companiesByName);
+        List<Computer> batch = new ArrayList<>(batchSize);
+        long batchLine = 1;
+        long line = 0;
+        while (true) {
+            ComputerDto computerDto;
+            try {
+                if (!computers.hasNext()) {
+                    break;
+                }
+                line++;
+                computerDto = computers.next();
+            } catch (RuntimeException e) {
+                // The rows following an unreadable one can't be located, the import stops there
+                report.reject(line, 1, "Unreadable row, the import stopped : " + e.getMessage());
+                break;
+            }
+            report.setRead(line);
+            Computer computer;
+            try {
+                computer = toImportedComputer(computerDto, formats, companiesById, companiesByName);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                report.reject(line, 1, e.getMessage());
+                continue;
+            }
+            if (batch.isEmpty()) {
+                batchLine = line;
+            }
+            batch.add(computer);
+            if (batch.size() == batchSize) {
+                insertBatch(transactionTemplate, batch, batchLine, report);
+            }
+        }
+        insertBatch(transactionTemplate, batch, batchLine, report);
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        if (report.getImported() > 0) {
+            evictAllPages();
+        }
+        LOGGER.info("ComputerServiceImpl : importAll() " + report);
+        return report;
+    }
+
+    /**
+     * Loads the companies by which the imported computers are resolved.
+     * @param companiesById the Map filled with the companies by id
+     * @param companiesByName the Map filled with the companies by lower-cased name
+     */
+    private void loadCompanies(Map<Long, Company> companiesById, Map<String, Company> companiesByName) {
+        for (Company company : companyService.getAll()) {
+            companiesById.put(company.getId(), company);
+            if (company.getName() != null) {
+                companiesByName.putIfAbsent(company.getName().trim().toLowerCase(Locale.ROOT), company);
+            }
+        }
+    }
+
+    /**
+     * Validates an imported ComputerDto and converts it to a Computer with its resolved company.
+     * @param computerDto the ComputerDto
+     * @param formats the LocaleFormats of the dates
+     * @param companiesById the companies by id
+     * @param companiesByName the companies by lower-cased name
+     * @return a Computer without id
+     * @throws IllegalArgumentException if the ComputerDto isn't valid or its company is unknown
+     */
+    private static Computer toImportedComputer(ComputerDto computerDto, LocaleFormats formats,
+            Map<Long, Company> companiesById, Map<String, Company> companiesByName) {
+        if (computerDto == null) {
+            throw new IllegalArgumentException("A computer is needed");
+        }
+        Set<ConstraintViolation<ComputerDto>> violations = VALIDATOR.validate(computerDto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .collect(Collectors.joining(", ")));
+        }
+        Company company = null;
+        Long companyId = computerDto.getCompanyId();
+        String companyName = computerDto.getCompanyName();
+        if (companyId != null && companyId > 0) {
+            company = companiesById.get(companyId);
+            if (company == null) {
+                throw new IllegalArgumentException("Unknown company id " + companyId);
+            }
+        } else if (companyName != null && !companyName.trim().isEmpty()) {
+            company = companiesByName.get(companyName.trim().toLowerCase(Locale.ROOT));
+            if (company == null) {
+                throw new IllegalArgumentException("Unknown company " + companyName);
+            }
+        }
+        return new Computer.ComputerBuilder(computerDto.getName())
+                .dateIntro(parseDate(computerDto.getIntroduced(), formats))
+                .dateDisc(parseDate(computerDto.getDiscontinued(), formats)).company(company).build();
+    }
+
+    /**
+     * Parses an imported date.
+     * @param date the date, may be null or empty
+     * @param formats the LocaleFormats of the dates
+     * @return a LocalDate or null
+     */
+    private static LocalDate parseDate(String date, LocaleFormats formats) {
+        return date == null || date.isEmpty() ? null : formats.parse(date);
+    }
+
+    /**
+     * Inserts a batch of imported computers in its own transaction, then empties it.
+     * @param transactionTemplate the TransactionTemplate of the batches
+     * @param batch the List of Computers to insert
+     * @param batchLine the line of the first computer of the batch
+     * @param report the ImportReport to update
+     */
+    private void insertBatch(TransactionTemplate transactionTemplate, List<Computer> batch, long batchLine,
+            ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.execute(status -> {
+                computerDao.createAll(batch);
+                return null;
+            });
+            report.setImported(report.getImported() + batch.size());
+        } catch (RuntimeException e) {
+            LOGGER.error("ComputerServiceImpl : importAll() failed to insert the batch from line " + batchLine, e);
+            report.reject(batchLine, batch.size(), "Batch of " + batch.size() + " rows not inserted : "
+                    + e.getMessage());
+        }
+        batch.clear();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BatchReport getByIds(List<Long> ids) {
+        checkBatch(ids);
+        List<Computer> computers = computerDao.getByIds(withoutNulls(ids));
+        DtoMapper dtoMapper = new DtoMapper();
+        BatchReport report = new BatchReport();
+        int loaded = 0;
+        for (int index = 0; index < ids.size(); index++) {
+            Long id = ids.get(index);
+            Computer computer = id == null ? null : computers.get(loaded++);
+            if (id == null) {
+                report.add(new ItemStatus(index, null, BatchReport.INVALID, "An id is needed"));
+            } else if (computer == null) {
+                report.add(new ItemStatus(index, id, BatchReport.NOT_FOUND, "Unknown computer " + id));
+            } else {
+                ItemStatus item = new ItemStatus(index, id, BatchReport.OK, null);
+                item.setComputer(dtoMapper.fromComputer(computer));
+                report.add(item);
+            }
+        }
+        return report;
+    }
+
+    @Override
+    public BatchReport createAll(List<ComputerDto> computers) {
+        checkBatch(computers);
+        ItemStatus[] items = new ItemStatus[computers.size()];
+        Map<Integer, Computer> valid = toBatchComputers(computers, false, items);
+        if (!valid.isEmpty()) {
+            List<Computer> created = new ArrayList<>(valid.values());
+            try {
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    computerDao.createAll(created);
+                    return null;
+                });
+                DtoMapper dtoMapper = new DtoMapper();
+                valid.forEach((index, computer) -> {
+                    items[index] = new ItemStatus(index, computer.getId(), BatchReport.CREATED, null);
+                    items[index].setComputer(dtoMapper.fromComputer(computer));
+                });
+                invalidatePages(created, null, created);
+            } catch (RuntimeException e) {
+                LOGGER.error("ComputerServiceImpl : createAll() failed to insert " + created.size() + " computers", e);
+                valid.keySet().forEach(index -> items[index] = new ItemStatus(index, null, BatchReport.FAILED,
+                        e.getMessage()));
+            }
+        }
+        return toReport(items);
+    }
+
+    @Override
+    public BatchReport updateAll(List<ComputerDto> computers) {
+        checkBatch(computers);
+        ItemStatus[] items = new ItemStatus[computers.size()];
+        Map<Integer, Computer> valid = toBatchComputers(computers, true, items);
+        if (!valid.isEmpty()) {
+            List<Computer> before = new ArrayList<>();
+            List<Computer> after = new ArrayList<>();
+            try {
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    List<Computer> stored = computerDao.getByIds(valid.values().stream().map(Computer::getId)
+                            .collect(Collectors.toList()));
+                    int loaded = 0;
+                    for (Map.Entry<Integer, Computer> entry : valid.entrySet()) {
+                        Computer computer = entry.getValue();
+                        Computer previous = stored.get(loaded++);
+                        if (previous == null) {
+                            items[entry.getKey()] = new ItemStatus(entry.getKey(), computer.getId(),
+                                    BatchReport.NOT_FOUND, "Unknown computer " + computer.getId());
+                            continue;
+                        }
+                        before.add(copyOf(previous));
+                        after.add(computer);
+                        computerDao.update(computer);
+                        items[entry.getKey()] = new ItemStatus(entry.getKey(), computer.getId(), BatchReport.OK, null);
+                    }
+                    return null;
+                });
+                invalidatePages(after, before, after);
+            } catch (RuntimeException e) {
+                LOGGER.error("ComputerServiceImpl : updateAll() failed to update " + valid.size() + " computers", e);
+                valid.forEach((index, computer) -> items[index] = new ItemStatus(index, computer.getId(),
+                        BatchReport.FAILED, e.getMessage()));
+            }
+        }
+        return toReport(items);
+    }
+
+    @Override
+    public BatchReport deleteAll(List<Long> ids) {
+        checkBatch(ids);
+        ItemStatus[] items = new ItemStatus[ids.size()];
+        List<Computer> before = new ArrayList<>();
+        try {
+            new TransactionTemplate(transactionManager).execute(status -> {
+                List<Computer> stored = computerDao.getByIds(withoutNulls(ids));
+                List<Long> deleted = new ArrayList<>();
+                int loaded = 0;
+                for (int index = 0; index < ids.size(); index++) {
+                    Long id = ids.get(index);
+                    Computer computer = id == null ? null : stored.get(loaded++);
+                    if (id == null) {
+                        items[index] = new ItemStatus(index, null, BatchReport.INVALID, "An id is needed");
+                    } else if (computer == null) {
+                        items[index] = new ItemStatus(index, id, BatchReport.NOT_FOUND, "Unknown computer " + id);
+                    } else {
+                        if (!deleted.contains(id)) {
+                            deleted.add(id);
+                            before.add(copyOf(computer));
+                        }
+                        items[index] = new ItemStatus(index, id, BatchReport.OK, null);
+                    }
+                }
+                computerDao.deleteList(deleted);
+                return null;
+            });
+            invalidatePages(before, before, null);
+        } catch (RuntimeException e) {
+            LOGGER.error("ComputerServiceImpl : deleteAll() failed to delete " + ids.size() + " computers", e);
+            for (int index = 0; index < ids.size(); index++) {
+                items[index] = new ItemStatus(index, ids.get(index), BatchReport.FAILED, e.getMessage());
+            }
+        }
+        return toReport(items);
+    }
+
+    /**
+     * Checks the size of a batch.
+     * @param items the items of the batch
+     * @throws IllegalArgumentException if the list is null or has more than batch.maxSize items
+     */
+    private void checkBatch(List<?> items) {
+        if (items == null || items.size() > batchMaxSize) {
+            throw new IllegalArgumentException("A batch of at most " + batchMaxSize + " computers is needed");
+        }
+    }
+
+    /**
+     * Get the ids of a batch without the null ones, which are rejected.
+     * @param ids the ids of the batch
+     * @return the List of the non-null ids, in their order
+     */
+    private static List<Long> withoutNulls(List<Long> ids) {
+        return ids.stream().filter(id -> id != null).collect(Collectors.toList());
+    }
+
+    /**
+     * Validates the ComputerDtos of a batch and converts the valid ones, the invalid ones getting a 400 status.
+     * @param computers the ComputerDtos of the batch
+     * @param withId true if the computers need their id, for an update
+     * @param items the ItemStatuses of the batch, filled for the invalid ComputerDtos
+     * @return the valid Computers by index in the batch, in their order
+     */
+    private Map<Integer, Computer> toBatchComputers(List<ComputerDto> computers, boolean withId, ItemStatus[] items) {
+        Map<Long, Company> companiesById = new HashMap<>();
+        Map<String, Company> companiesByName = new HashMap<>();
+        loadCompanies(companiesById, companiesByName);
+        LocaleFormats formats = LocaleFormats.current();
+        Map<Integer, Computer> valid = new LinkedHashMap<>();
+        for (int index = 0; index < computers.size(); index++) {
+            ComputerDto computerDto = computers.get(index);
+            Long id = computerDto == null ? null : computerDto.getId();
+            try {
+                if (withId && (id == null || id <= 0)) {
+                    throw new IllegalArgumentException("An id is needed");
+                }
+                Computer computer = toImportedComputer(computerDto, formats, companiesById, companiesByName);
+                if (withId) {
+                    computer.setId(id);
+                }
+                valid.put(index, computer);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                items[index] = new ItemStatus(index, id, BatchReport.INVALID, e.getMessage());
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Builds the BatchReport of the ItemStatuses of a batch.
+     * @param items the ItemStatuses, in the order of the batch
+     * @return the BatchReport
+     */
+    private static BatchReport toReport(ItemStatus[] items) {
+        BatchReport report = new BatchReport();
+        for (ItemStatus item : items) {
+            report.add(item);
+        }
+        LOGGER.info("ComputerServiceImpl : " + report);
+        return report;
+    }
+
+    /**
+     * Evicts the cached pages affected by the modification of the computers of a batch,
+     * all the pages above MAX_TARGETED_EVICTIONS computers.
+     * @param computers the modified computers
+     * @param before the computers before their modification, or null if they are created
+     * @param after the computers after their modification, or null if they are deleted
+     */
+    private void invalidatePages(List<Computer> computers, List<Computer> before, List<Computer> after) {
+        if (computers.isEmpty()) {
+            return;
+        }
+        if (computers.size() > MAX_TARGETED_EVICTIONS) {
+            evictAllPages();
+            return;
+        }
+        for (int i = 0; i < computers.size(); i++) {
+            invalidatePages(computers.get(i).getId(), before == null ? null : before.get(i),
+                    after == null ? null : after.get(i));
+        }
+    }
+
     @Override
     @Transactional
-    @CacheEvict(value = "cachePages", allEntries = true)
     public void update(Computer computer) {
+        if (computer == null || computer.getId() == null) {
+            computerDao.update(computer);
+            evictAllPages();
+            return;
+        }
+        Computer before = getStored(computer.getId());
         computerDao.update(computer);
+        invalidatePages(computer.getId(), before, computer);
+    }
+
+    /**
+     * Get a computer from the DAO, whose entities are kept in the second-level cache.
+     * @param id the id of the computer
+     * @return a Computer or null, which isn't modified by the following writes of the transaction
+     */
+    private Computer getStored(long id) {
+        Computer stored = computerDao.getById(id);
+        return stored == null ? null : copyOf(stored);
+    }
+
+    /**
+     * Copies a stored computer, which is attached to the session and would be updated in place.
+     * @param stored the stored Computer
+     * @return a detached copy of the Computer
+     */
+    private static Computer copyOf(Computer stored) {
+        return new Computer.ComputerBuilder(stored.getName()).id(stored.getId()).dateIntro(stored.getIntroduced())
+                .dateDisc(stored.getDiscontinued()).company(stored.getCompany()).build();
+    }
+
+    /**
+     * Evicts the cached pages affected by the modification of a computer, and changes the version of the computers.
+     * Inside a transaction, the pages are evicted once it is committed.
+     * @param id the id of the computer
+     * @param before the computer before the modification, or null
+     * @param after the computer after the modification, or null
+     */
+    private void invalidatePages(long id, Computer before, Computer after) {
+        versionService.changed(Computer.class);
+        afterCommit(() -> {
+            for (String name : PAGE_CACHES) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache instanceof PageCache) {
+                    ((PageCache) cache).invalidate(id, before, after);
+                } else if (cache != null) {
+                    cache.clear();
+                }
+            }
+        });
+    }
+
+    /**
+     * Evicts all the cached pages, and changes the version of the computers.
+     * Inside a transaction, the pages are evicted once it is committed.
+     */
+    private void evictAllPages() {
+        versionService.changed(Computer.class);
+        afterCommit(() -> {
+            for (String name : PAGE_CACHES) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs an eviction once the current transaction is committed, or right away outside a transaction,
+     * so that a page read by another transaction before the commit isn't cached again with the old rows.
+     * @param eviction the Runnable evicting the pages
+     */
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
     }
 }
\ No newline at end of file
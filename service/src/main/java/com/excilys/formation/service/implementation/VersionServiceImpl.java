@@ -0,0 +1,124 @@
+package com.excilys.formation.service.implementation;
+
+import com.excilys.formation.service.VersionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service keeping in memory a change counter by entity, incremented by the write methods of the services.
+ * The ETags also hold the start time of the application, so that those of a previous run don't match.
+ * The writes of another process aren't seen by this one : like the cached pages, a version is also changed
+ * when it is older than version.ttlSeconds, so that these writes are served after at most this delay.
+ */
+@Service
+public class VersionServiceImpl implements VersionService {
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final ConcurrentMap<Class<?>, Version> versions = new ConcurrentHashMap<>();
+    @Value("${version.ttlSeconds:300}")
+    private long ttlSeconds;
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Override
+    public void changed(Class<?> entity) {
+        if (entity == null) {
+            throw new IllegalArgumentException("An entity is needed");
+        }
+        Version version = getOrCreate(entity);
+        version.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A reader between the first increment and the commit still sees the elements before the write
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.increment();
+                }
+            });
+        }
+    }
+
+    @Override
+    public long getVersion(Class<?> entity) {
+        if (entity == null) {
+            throw new IllegalArgumentException("An entity is needed");
+        }
+        return getOrCreate(entity).get(TimeUnit.SECONDS.toMillis(ttlSeconds));
+    }
+
+    @Override
+    public long getLastModified(Class<?>... entities) {
+        long lastModified = 0;
+        for (Class<?> entity : entities) {
+            lastModified = Math.max(lastModified, getOrCreate(entity).getLastModified());
+        }
+        return lastModified / 1000 * 1000;
+    }
+
+    @Override
+    public String getETag(String variant, Class<?>... entities) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch);
+        for (Class<?> entity : entities) {
+            etag.append('-').append(getVersion(entity));
+        }
+        if (variant != null) {
+            etag.append('-').append(Integer.toHexString(variant.hashCode()));
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Get the Version of an entity.
+     * @param entity the class of the entity
+     * @return the Version, created with the first use of the entity
+     */
+    private Version getOrCreate(Class<?> entity) {
+        return versions.computeIfAbsent(entity, e -> new Version());
+    }
+
+    /**
+     * Change counter of an entity, with the time of its last change.
+     */
+    private static final class Version {
+        private long value;
+        /**
+         * Time of the last change, the start of the application standing for the changes made before it.
+         */
+        private long lastModified = System.currentTimeMillis();
+
+        /**
+         * Increments the counter.
+         */
+        synchronized void increment() {
+            value++;
+            lastModified = System.currentTimeMillis();
+        }
+
+        /**
+         * Get the counter, incremented first if it hasn't changed for a while.
+         * @param ttlMillis the maximum age of the counter in milliseconds, 0 for no maximum
+         * @return the counter
+         */
+        synchronized long get(long ttlMillis) {
+            if (ttlMillis > 0 && System.currentTimeMillis() - lastModified > ttlMillis) {
+                increment();
+            }
+            return value;
+        }
+
+        /**
+         * Get the time of the last change.
+         * @return the time in milliseconds
+         */
+        synchronized long getLastModified() {
+            return lastModified;
+        }
+    }
+}
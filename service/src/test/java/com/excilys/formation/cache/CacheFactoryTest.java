@@ -0,0 +1,70 @@
+package com.excilys.formation.cache;
+
+import com.excilys.formation.model.Computer;
+import com.excilys.formation.pagination.Page;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.guava.GuavaCache;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CacheFactoryTest {
+    private StandardEnvironment environment;
+
+    @Before
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("cache.default.maximumSize", "50");
+        properties.put("cache.default.expireAfterWrite", "60");
+        properties.put("cache.cachePages.maximumWeight", "10");
+        properties.put("cache.cacheUsers.backend", "guava");
+        environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+    }
+
+    @Test
+    public void from_ShouldFallBackOnTheDefaultSettings() {
+        CacheSettings settings = CacheSettings.from(environment, "cachePages");
+        assertEquals(CacheSettings.Backend.CAFFEINE, settings.getBackend());
+        assertEquals(50, settings.getMaximumSize());
+        assertEquals(10, settings.getMaximumWeight());
+        assertEquals(60, settings.getExpireAfterWrite());
+        assertEquals(0, settings.getRefreshAfterWrite());
+    }
+
+    @Test
+    public void build_ShouldUseTheConfiguredBackend() {
+        assertTrue(CacheFactory.build("cachePages", CacheSettings.from(environment, "cachePages"), null)
+                instanceof CaffeineCache);
+        assertTrue(CacheFactory.build("cacheUsers", CacheSettings.from(environment, "cacheUsers"), null)
+                instanceof GuavaCache);
+    }
+
+    @Test
+    public void build_ShouldBoundTheCacheByTheNumberOfElements() {
+        Cache cache = CacheFactory.build("cachePages", CacheSettings.from(environment, "cachePages"), null);
+        cache.put("first", page(6));
+        cache.put("second", page(6));
+        ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache()).cleanUp();
+        assertEquals(1, CacheFactory.asMap(cache).size());
+    }
+
+    private static Page<Computer> page(int size) {
+        List<Computer> computers = new ArrayList<>();
+        for (long i = 1; i <= size; i++) {
+            computers.add(new Computer.ComputerBuilder("Computer " + i).id(i).build());
+        }
+        Page<Computer> page = new Page<>(size);
+        page.setElements(computers);
+        return page;
+    }
+}
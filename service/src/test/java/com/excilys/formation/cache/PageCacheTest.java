@@ -0,0 +1,117 @@
+package com.excilys.formation.cache;
+
+import com.excilys.formation.model.Company;
+import com.excilys.formation.model.Computer;
+import com.excilys.formation.model.util.ComputerRow;
+import com.excilys.formation.model.util.PageFilter;
+import com.excilys.formation.model.util.PageFilterKey;
+import com.excilys.formation.pagination.Page;
+import com.google.common.cache.CacheBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.guava.GuavaCache;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PageCacheTest {
+    private PageCache pageCache;
+    private Company apple = new Company.CompanyBuilder("Apple Inc.").id(1L).build();
+    private Computer macBook = new Computer.ComputerBuilder("MacBook").id(1L).company(apple).build();
+    private Computer amiga = new Computer.ComputerBuilder("Amiga").id(2L).build();
+    private PageFilterKey unfiltered = key(1, null, null);
+    private PageFilterKey byName = key(1, null, "name");
+    private PageFilterKey searchMac = key(1, "mac", null);
+    private PageFilterKey searchAmi = key(1, "ami", null);
+
+    @Before
+    public void setUp() {
+        pageCache = new PageCache(new GuavaCache("cachePages", CacheBuilder.newBuilder().build()));
+        pageCache.put(unfiltered, page(macBook));
+        pageCache.put(byName, page(amiga));
+        pageCache.put(searchMac, page(macBook));
+        pageCache.put(searchAmi, page(amiga));
+    }
+
+    @Test
+    public void pageFilterKey_ShouldBeInternedAndDistinguishTheSortTable() {
+        assertSame(unfiltered, key(1, null, null));
+        assertEquals(searchMac, key(1, "mac", null));
+        PageFilter byCompanyName = new PageFilter();
+        byCompanyName.setPageNum(1);
+        byCompanyName.setElementsByPage(10);
+        byCompanyName.addCondition("table", "company");
+        byCompanyName.addCondition("column", "name");
+        assertNotEquals(byName, byCompanyName.toKey());
+        assertNotEquals(key(11, null, null), key(1, null, null));
+    }
+
+    @Test
+    public void invalidate_UpdateOfDates_ShouldOnlyEvictPagesContainingTheComputer() {
+        Computer updated = new Computer.ComputerBuilder("MacBook").id(1L).company(apple)
+                .dateIntro(LocalDate.parse("2006-05-16")).build();
+        pageCache.invalidate(1L, macBook, updated);
+        assertNull(pageCache.get(unfiltered));
+        assertNull(pageCache.get(searchMac));
+        assertNotNull(pageCache.get(byName));
+        assertNotNull(pageCache.get(searchAmi));
+        assertEquals(2, pageCache.getEvictedEntries());
+        assertEquals(2, pageCache.getRetainedEntries());
+    }
+
+    @Test
+    public void invalidate_Creation_ShouldEvictMatchingSearchesOnly() {
+        Computer created = new Computer.ComputerBuilder("Macintosh").id(3L).build();
+        pageCache.invalidate(3L, null, created);
+        assertNull(pageCache.get(unfiltered));
+        assertNull(pageCache.get(byName));
+        assertNull(pageCache.get(searchMac));
+        assertNotNull(pageCache.get(searchAmi));
+    }
+
+    @Test
+    public void invalidate_Rename_ShouldEvictPagesSortedByName() {
+        Computer renamed = new Computer.ComputerBuilder("Amiga 500").id(2L).build();
+        pageCache.put(unfiltered, page(macBook));
+        pageCache.invalidate(2L, amiga, renamed);
+        assertNotNull(pageCache.get(unfiltered));
+        assertNull(pageCache.get(byName));
+        assertNull(pageCache.get(searchAmi));
+        assertNotNull(pageCache.get(searchMac));
+    }
+
+    @Test
+    public void invalidate_PageOfRows_ShouldEvictPagesContainingTheComputer() {
+        Page<ComputerRow> rows = new Page<>(10);
+        rows.setElements(Arrays.asList(new ComputerRow(2L, "Amiga", null, null, null, null)));
+        pageCache.put(unfiltered, rows);
+        pageCache.put(byName, page(macBook));
+        Computer updated = new Computer.ComputerBuilder("Amiga").id(2L).dateIntro(LocalDate.parse("1985-07-23")).build();
+        pageCache.invalidate(2L, amiga, updated);
+        assertNull(pageCache.get(unfiltered));
+        assertNotNull(pageCache.get(byName));
+    }
+
+    private static PageFilterKey key(int pageNum, String search, String column) {
+        PageFilter pageFilter = new PageFilter();
+        pageFilter.setPageNum(pageNum);
+        pageFilter.setElementsByPage(10);
+        if (search != null) {
+            pageFilter.addCondition("computerName", search);
+            pageFilter.addCondition("companyName", search);
+        }
+        if (column != null) {
+            pageFilter.addCondition("table", "computer");
+            pageFilter.addCondition("column", column);
+        }
+        return pageFilter.toKey();
+    }
+
+    private static Page<Computer> page(Computer... computers) {
+        Page<Computer> page = new Page<>(10);
+        page.setElements(Arrays.asList(computers));
+        return page;
+    }
+}
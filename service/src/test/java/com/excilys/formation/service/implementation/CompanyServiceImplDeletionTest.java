@@ -0,0 +1,152 @@
+package com.excilys.formation.service.implementation;
+
+import com.excilys.formation.dto.DeletionJob;
+import com.excilys.formation.persistence.CompanyDao;
+import com.excilys.formation.persistence.ComputerDao;
+import com.excilys.formation.service.VersionService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the lifecycle of the background deletions of companies, whose DAOs are mocked.
+ */
+public class CompanyServiceImplDeletionTest {
+    private CompanyServiceImpl companyService;
+    private CompanyDao companyDao;
+    private ComputerDao computerDao;
+
+    @Before
+    public void setUp() {
+        companyDao = Mockito.mock(CompanyDao.class);
+        computerDao = Mockito.mock(ComputerDao.class);
+        companyService = new CompanyServiceImpl();
+        ReflectionTestUtils.setField(companyService, "companyDao", companyDao);
+        ReflectionTestUtils.setField(companyService, "computerDao", computerDao);
+        ReflectionTestUtils.setField(companyService, "cacheManager", Mockito.mock(CacheManager.class));
+        ReflectionTestUtils.setField(companyService, "transactionManager",
+                Mockito.mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(companyService, "versionService", Mockito.mock(VersionService.class));
+        ReflectionTestUtils.setField(companyService, "deleteChunkSize", 2);
+        when(computerDao.getIdsByCompany(anyLong(), anyLong(), Mockito.anyInt()))
+                .thenReturn(Collections.<Long>emptyList());
+    }
+
+    @After
+    public void tearDown() {
+        companyService.shutdown();
+    }
+
+    @Test
+    public void deleteAsync_ShouldDeleteTheComputersChunkByChunk() throws Exception {
+        when(computerDao.countByCompany(1L)).thenReturn(5L);
+        when(computerDao.getIdsByCompany(1L, 0L, 2)).thenReturn(Arrays.asList(1L, 2L));
+        when(computerDao.getIdsByCompany(1L, 2L, 2)).thenReturn(Arrays.asList(3L, 4L));
+        when(computerDao.getIdsByCompany(1L, 4L, 2)).thenReturn(Collections.singletonList(5L));
+        DeletionJob job = companyService.deleteAsync(1L);
+        assertSame(job, companyService.getDeletionJob(job.getId()));
+        waitForTheEnd(job);
+        assertEquals(DeletionJob.Status.DONE, job.getStatus());
+        assertEquals(5, job.getTotal());
+        assertEquals(5, job.getDeleted());
+        assertTrue(job.getEndTime() >= job.getStartTime());
+        verify(computerDao, times(3)).deleteList(Mockito.<List<Long>>any());
+        verify(companyDao).delete(1L);
+    }
+
+    @Test
+    public void deleteAsync_ShouldReturnTheUnfinishedJobOfTheCompany() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(computerDao.countByCompany(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 0L;
+        });
+        DeletionJob job = companyService.deleteAsync(1L);
+        assertSame(job, companyService.deleteAsync(1L));
+        assertNotSame(job, companyService.deleteAsync(2L));
+        release.countDown();
+        waitForTheEnd(job);
+        // Once finished, a new deletion of the company gets its own job
+        assertNotSame(job, companyService.deleteAsync(1L));
+    }
+
+    @Test
+    public void deleteAsync_Failure_ShouldFailTheJob() throws Exception {
+        when(computerDao.countByCompany(1L)).thenThrow(new IllegalStateException("Lock wait timeout"));
+        DeletionJob job = companyService.deleteAsync(1L);
+        waitForTheEnd(job);
+        assertEquals(DeletionJob.Status.FAILED, job.getStatus());
+        assertEquals("Lock wait timeout", job.getError());
+        verify(companyDao, Mockito.never()).delete(1L);
+    }
+
+    @Test
+    public void deleteAsync_Error_ShouldNotLeaveTheJobRunning() throws Exception {
+        when(computerDao.countByCompany(1L)).thenReturn(2L);
+        when(computerDao.getIdsByCompany(eq(1L), anyLong(), Mockito.anyInt()))
+                .thenThrow(new NoClassDefFoundError("com/mysql/cj/Query"));
+        DeletionJob job = companyService.deleteAsync(1L);
+        waitForTheEnd(job);
+        assertEquals(DeletionJob.Status.FAILED, job.getStatus());
+        assertNotNull(job.getError());
+        assertNotSame(job, companyService.deleteAsync(1L));
+    }
+
+    @Test
+    public void deleteAsync_ShouldKeepTheLastHundredFinishedJobs() throws Exception {
+        List<DeletionJob> jobs = new ArrayList<>();
+        for (long companyId = 1; companyId <= 101; companyId++) {
+            DeletionJob job = companyService.deleteAsync(companyId);
+            waitForTheEnd(job);
+            jobs.add(job);
+        }
+        DeletionJob last = companyService.deleteAsync(102L);
+        waitForTheEnd(last);
+        int kept = 0;
+        for (DeletionJob job : jobs) {
+            if (companyService.getDeletionJob(job.getId()) != null) {
+                kept++;
+            }
+        }
+        // The finished jobs are pruned before a new one is added
+        assertEquals(99, kept);
+        assertSame(last, companyService.getDeletionJob(last.getId()));
+        try {
+            companyService.getDeletionJob(null);
+            fail("A job id is needed");
+        } catch (IllegalArgumentException e) {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Waits until a job is finished.
+     * @param job the DeletionJob
+     * @throws InterruptedException if the test is interrupted
+     */
+    private static void waitForTheEnd(DeletionJob job) throws InterruptedException {
+        long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (!job.isFinished() && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        assertTrue("The job is still " + job.getStatus(), job.isFinished());
+    }
+}
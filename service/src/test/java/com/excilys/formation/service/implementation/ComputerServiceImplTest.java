@@ -2,6 +2,7 @@ package com.excilys.formation.service.implementation;
 
 import com.excilys.formation.config.ServiceSpringTestConfig;
 import com.excilys.formation.model.Computer;
+import com.excilys.formation.model.util.ComputerRow;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
 import com.excilys.formation.service.ComputerService;
@@ -15,6 +16,8 @@ import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -34,6 +37,8 @@ import static org.junit.Assert.*;
 public class ComputerServiceImplTest {
     @Autowired
     private ComputerService computerService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @Test
     public void createComputer_ShouldReturnComputerOrNull() throws Exception {
@@ -69,6 +74,54 @@ public class ComputerServiceImplTest {
 
     }
 
+    @Test
+    public void deleteList_ShouldDeleteInChunks() throws Exception {
+        // Above the targeted evictions, the ids are deleted chunk by chunk, each in its own transaction
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 150; id++) {
+            ids.add(id);
+        }
+        computerService.deleteList(ids);
+        assertNull(computerService.getById((long) 1));
+        assertNull(computerService.getById((long) 2));
+    }
+
+    @Test
+    public void deleteByFilter_ShouldDeleteTheMatchingComputers() throws Exception {
+        PageFilter pageFilter = new PageFilter();
+        pageFilter.addCondition("computerName", "Test Computer 2");
+        pageFilter.addCondition("companyName", "Test Computer 2");
+        assertEquals(1, computerService.deleteByFilter(pageFilter));
+        assertNotNull(computerService.getById((long) 1));
+        assertNull(computerService.getById((long) 2));
+        pageFilter.addCondition("computerName", "Test");
+        pageFilter.addCondition("companyName", "Test");
+        assertEquals(1, computerService.deleteByFilter(pageFilter));
+        assertNull(computerService.getById((long) 1));
+        assertEquals(0, computerService.deleteByFilter(pageFilter));
+    }
+
+    @Test
+    public void deleteByFilter_ShouldRefuseABlankSearch() throws Exception {
+        PageFilter pageFilter = new PageFilter();
+        pageFilter.addCondition("computerName", " ");
+        pageFilter.addCondition("companyName", " ");
+        try {
+            computerService.deleteByFilter(pageFilter);
+            fail("A blank search would delete all the computers");
+        } catch (IllegalArgumentException e) {
+            assertTrue(true);
+        }
+        try {
+            computerService.deleteByFilter(new PageFilter());
+            fail("A search is needed");
+        } catch (IllegalArgumentException e) {
+            assertTrue(true);
+        }
+        assertNotNull(computerService.getById((long) 1));
+        assertNotNull(computerService.getById((long) 2));
+    }
+
     @Test
     public void getComputerById_ShouldReturnComputerOrNull() throws Exception {
         Computer computer = null;
@@ -101,6 +154,39 @@ public class ComputerServiceImplTest {
         }
     }
 
+    @Test
+    public void forEachChunk_ShouldStreamTheSortedSearch() throws Exception {
+        PageFilter pageFilter = new PageFilter();
+        pageFilter.addCondition("computerName", "Test");
+        pageFilter.addCondition("companyName", "Test");
+        pageFilter.addCondition("table", "computer");
+        pageFilter.addCondition("column", "name");
+        pageFilter.addCondition("order", "DESC");
+        List<ComputerRow> rows = new ArrayList<>();
+        long count = computerService.forEachChunk(pageFilter, rows::addAll);
+        assertEquals(2, count);
+        assertEquals("Test Computer 2", rows.get(0).getName());
+        assertEquals("Test Computer 1", rows.get(1).getName());
+    }
+
+    @Test
+    public void update_ShouldEvictTheCachedPagesOnceCommitted() throws Exception {
+        PageFilter pageFilter = new PageFilter();
+        pageFilter.setPageNum(1);
+        pageFilter.setElementsByPage(10);
+        Page<Computer> cached = computerService.getPage(pageFilter);
+        Computer computer = new Computer.ComputerBuilder("Renamed Computer").id((long) 1).build();
+        new TransactionTemplate(transactionManager).execute(status -> {
+            computerService.update(computer);
+            // Before the commit, the page is still the one of the other transactions
+            assertSame(cached, computerService.getPage(pageFilter));
+            return null;
+        });
+        Page<Computer> page = computerService.getPage(pageFilter);
+        assertNotSame(cached, page);
+        assertEquals("Renamed Computer", page.getElements().get(0).getName());
+    }
+
     @Test
     public void updateComputer() throws Exception {
         Computer computer = new Computer.ComputerBuilder("Test Computer 1").id((long) 1).dateIntro(LocalDate.parse("1991-02-02"))
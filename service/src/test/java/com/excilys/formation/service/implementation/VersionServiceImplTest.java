@@ -0,0 +1,53 @@
+package com.excilys.formation.service.implementation;
+
+import com.excilys.formation.model.Company;
+import com.excilys.formation.model.Computer;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.Assert.*;
+
+public class VersionServiceImplTest {
+    private VersionServiceImpl versionService;
+
+    @Before
+    public void setUp() {
+        versionService = new VersionServiceImpl();
+    }
+
+    @Test
+    public void getETag_ShouldChangeWithTheWritesOfItsEntities() {
+        String etag = versionService.getETag("fr", Computer.class, Company.class);
+        assertEquals(etag, versionService.getETag("fr", Computer.class, Company.class));
+        assertNotEquals(etag, versionService.getETag("en", Computer.class, Company.class));
+        versionService.changed(Company.class);
+        assertNotEquals(etag, versionService.getETag("fr", Computer.class, Company.class));
+        String computerETag = versionService.getETag("fr", Computer.class);
+        versionService.changed(Company.class);
+        assertEquals(computerETag, versionService.getETag("fr", Computer.class));
+    }
+
+    @Test
+    public void changed_ShouldChangeTheVersionAgainWhenTheTransactionEnds() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            versionService.changed(Computer.class);
+            assertEquals(1, versionService.getVersion(Computer.class));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(2, versionService.getVersion(Computer.class));
+    }
+
+    @Test
+    public void getLastModified_ShouldBeTruncatedToTheSecond() {
+        versionService.changed(Computer.class);
+        assertEquals(0, versionService.getLastModified(Computer.class, Company.class) % 1000);
+        assertTrue(versionService.getLastModified(Computer.class) <= System.currentTimeMillis());
+    }
+}
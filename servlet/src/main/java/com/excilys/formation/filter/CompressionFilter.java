@@ -0,0 +1,408 @@
+package com.excilys.formation.filter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Filter compressing the responses with gzip, or deflate, when the client accepts it.
+ * Only the textual types and Smile are compressed, and only when their length is unknown or large enough.
+ * The streamed responses are compressed as they are written : each flush of the application sends
+ * what was compressed so far, so that the server-sent events still arrive one by one.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+    /**
+     * Responses of a known length smaller than this are sent as is, their compression not paying off.
+     */
+    private static final long MIN_LENGTH = 1024;
+    private static final int BUFFER_SIZE = 8192;
+    /**
+     * Prefixes of the compressed content types.
+     */
+    private static final List<String> COMPRESSED_TYPES = Arrays.asList("text/", "application/json",
+            "application/x-ndjson", "application/x-jackson-smile", "application/javascript", "application/xml",
+            "image/svg+xml");
+
+    /**
+     * The responses of the asynchronous requests are finished by their last dispatch.
+     * @return false
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // An asynchronous dispatch gets the response wrapped by the first one
+        CompressedResponse compressedResponse = WebUtils.getNativeResponse(response, CompressedResponse.class);
+        if (compressedResponse == null) {
+            String encoding = getAcceptedEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            if (encoding == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            compressedResponse = new CompressedResponse(response, encoding);
+        }
+        try {
+            filterChain.doFilter(request, compressedResponse);
+        } finally {
+            if (!isAsyncStarted(request)) {
+                compressedResponse.finish();
+            }
+        }
+    }
+
+    /**
+     * Get the encoding of the responses accepted by a client, gzip being preferred to deflate.
+     * @param acceptEncoding the Accept-Encoding header of the request, may be null
+     * @return gzip, deflate, or null if the client accepts neither
+     */
+    static String getAcceptedEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String coding : acceptEncoding.toLowerCase(Locale.ENGLISH).split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            if (isRefused(parameters)) {
+                continue;
+            }
+            if (GZIP.equals(name) || "*".equals(name)) {
+                return GZIP;
+            }
+            deflate |= DEFLATE.equals(name);
+        }
+        return deflate ? DEFLATE : null;
+    }
+
+    /**
+     * Tells whether a coding of an Accept-Encoding header has a null quality.
+     * @param parameters the name of the coding followed by its parameters
+     * @return true if the coding is refused by the client
+     */
+    private static boolean isRefused(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Response whose body is compressed once its first bytes are written, if its type and length allow it.
+     * Its length is held until then, the compressed length being unknown.
+     */
+    private static final class CompressedResponse extends HttpServletResponseWrapper {
+        private final String encoding;
+        private long contentLength = -1;
+        private CompressedOutputStream outputStream;
+        private PrintWriter writer;
+
+        /**
+         * CompressedResponse constructor.
+         * @param response the HttpServletResponse to compress
+         * @param encoding the accepted encoding, gzip or deflate
+         */
+        CompressedResponse(HttpServletResponse response, String encoding) {
+            super(response);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (outputStream != null && outputStream.isStarted()) {
+                if (!outputStream.isCompressed()) {
+                    super.setContentLengthLong(len);
+                }
+                return;
+            }
+            contentLength = len;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called on this response");
+            }
+            return getCompressedOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called on this response");
+                }
+                writer = new PrintWriter(new OutputStreamWriter(getCompressedOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            } else if (outputStream != null) {
+                outputStream.flush();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public void reset() {
+            resetBuffer();
+            super.reset();
+            contentLength = -1;
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (outputStream != null && outputStream.isStarted()) {
+                throw new IllegalStateException("The compressed response has already been written");
+            }
+            super.resetBuffer();
+        }
+
+        /**
+         * Get the stream compressing the body, created with the first call.
+         * @return the CompressedOutputStream
+         */
+        private CompressedOutputStream getCompressedOutputStream() {
+            if (outputStream == null) {
+                outputStream = new CompressedOutputStream(this);
+            }
+            return outputStream;
+        }
+
+        /**
+         * Tells whether the body is to be compressed, from the headers set before its first bytes.
+         * @return true if the body is to be compressed
+         */
+        private boolean shouldCompress() {
+            if (containsHeader(HttpHeaders.CONTENT_ENCODING) || (contentLength >= 0 && contentLength < MIN_LENGTH)) {
+                return false;
+            }
+            String contentType = getContentType();
+            if (contentType == null) {
+                return false;
+            }
+            String type = contentType.toLowerCase(Locale.ENGLISH);
+            for (String compressedType : COMPRESSED_TYPES) {
+                if (type.startsWith(compressedType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Opens the stream the body is written to, setting the headers of the encoding if it is compressed.
+         * @return the stream compressing the body, or the one of the response
+         * @throws IOException if the stream of the response can't be opened
+         */
+        private OutputStream open() throws IOException {
+            ServletOutputStream out = super.getOutputStream();
+            if (!shouldCompress()) {
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+                return out;
+            }
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+            super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            weakenETag();
+            return GZIP.equals(encoding) ? new GZIPOutputStream(out, BUFFER_SIZE, true)
+                    : new DeflaterOutputStream(out, true);
+        }
+
+        /**
+         * The compressed body differs from the one the ETag was computed from : only their content
+         * is the same, which is what a weak ETag stands for.
+         */
+        private void weakenETag() {
+            String etag = getHeader(HttpHeaders.ETAG);
+            if (etag != null && !etag.startsWith("W/")) {
+                super.setHeader(HttpHeaders.ETAG, "W/" + etag);
+            }
+        }
+
+        /**
+         * Ends the body, writing what remains of the compressed stream.
+         * @throws IOException if the end of the body can't be written
+         */
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null && outputStream.isStarted()) {
+                outputStream.close();
+                return;
+            }
+            // No body : a 304 status answers a compressed response, whose ETag was weak
+            if (getStatus() == HttpServletResponse.SC_NOT_MODIFIED) {
+                weakenETag();
+            } else if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+        }
+    }
+
+    /**
+     * Stream of the body of a CompressedResponse, deciding whether to compress it with its first bytes.
+     */
+    private static final class CompressedOutputStream extends ServletOutputStream {
+        private final CompressedResponse response;
+        private OutputStream target;
+        private boolean compressed;
+        private boolean closed;
+
+        /**
+         * CompressedOutputStream constructor.
+         * @param response the CompressedResponse whose body is written
+         */
+        CompressedOutputStream(CompressedResponse response) {
+            this.response = response;
+        }
+
+        /**
+         * Tells whether the first bytes have been written, the compression being decided.
+         * @return true if the stream has started
+         */
+        boolean isStarted() {
+            return target != null;
+        }
+
+        /**
+         * Tells whether the body is compressed.
+         * @return true if the body is compressed
+         */
+        boolean isCompressed() {
+            return compressed;
+        }
+
+        /**
+         * Get the stream the body is written to, opened with the first bytes.
+         * @return the OutputStream
+         * @throws IOException if the stream can't be opened
+         */
+        private OutputStream getTarget() throws IOException {
+            if (closed) {
+                throw new IOException("The stream is closed");
+            }
+            if (target == null) {
+                target = response.open();
+                compressed = target instanceof DeflaterOutputStream;
+            }
+            return target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            getTarget().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                getTarget().write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (target != null && !closed) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // An empty body is left to the container, an empty compressed stream not being empty
+            if (target != null) {
+                target.close();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return response.getResponse().getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                response.getResponse().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.excilys.formation.filter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.*;
+
+public class CompressionFilterTest {
+    private static final String LARGE_BODY = repeat("{\"name\":\"MacBook Pro\",\"company\":\"Apple Inc.\"}", 100);
+    private CompressionFilter compressionFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        compressionFilter = new CompressionFilter();
+        request = new MockHttpServletRequest("GET", "/rest/computers");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void doFilter_LargeBody_ShouldBeCompressed() throws Exception {
+        byte[] body = LARGE_BODY.getBytes(StandardCharsets.UTF_8);
+        compressionFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.setContentLength(body.length);
+            res.getOutputStream().write(body);
+        });
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        // The length of the compressed body isn't the one set by the application
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertTrue(response.getContentAsByteArray().length < body.length);
+        assertEquals(LARGE_BODY, gunzip(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void doFilter_SmallBody_ShouldBeSentAsIs() throws Exception {
+        byte[] body = "{\"name\":\"MacBook Pro\"}".getBytes(StandardCharsets.UTF_8);
+        compressionFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.setContentLength(body.length);
+            res.getOutputStream().write(body);
+        });
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(body.length, response.getContentLength());
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void doFilter_UnknownLength_ShouldBeCompressed() throws Exception {
+        // A streamed body has no length, its size can't be known before it is compressed
+        compressionFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/x-ndjson");
+            res.getOutputStream().write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            res.flushBuffer();
+            res.getOutputStream().write("{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+        });
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", gunzip(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void doFilter_NonCompressibleType_ShouldBeSentAsIs() throws Exception {
+        byte[] body = LARGE_BODY.getBytes(StandardCharsets.UTF_8);
+        compressionFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("image/png");
+            res.setContentLength(body.length);
+            res.getOutputStream().write(body);
+        });
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(body.length, response.getContentLength());
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void doFilter_RefusedEncoding_ShouldFallBackOrSendAsIs() throws Exception {
+        request = new MockHttpServletRequest("GET", "/rest/computers");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate");
+        compressionFilter.doFilter(request, response, write(LARGE_BODY));
+        assertEquals("deflate", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_BODY, inflate(response.getContentAsByteArray()));
+
+        request = new MockHttpServletRequest("GET", "/rest/computers");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0");
+        response = new MockHttpServletResponse();
+        compressionFilter.doFilter(request, response, write(LARGE_BODY));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_BODY, response.getContentAsString());
+    }
+
+    @Test
+    public void getAcceptedEncoding_ShouldPreferGzipAndSkipTheNullQualities() {
+        assertEquals("gzip", CompressionFilter.getAcceptedEncoding("deflate, gzip"));
+        assertEquals("gzip", CompressionFilter.getAcceptedEncoding("*"));
+        assertEquals("deflate", CompressionFilter.getAcceptedEncoding("GZIP;q=0.0, deflate;q=0.5"));
+        assertNull(CompressionFilter.getAcceptedEncoding("identity"));
+        assertNull(CompressionFilter.getAcceptedEncoding("gzip;q=0, deflate;q=0"));
+        assertNull(CompressionFilter.getAcceptedEncoding(null));
+    }
+
+    @Test
+    public void doFilter_NotModified_ShouldWeakenTheETag() throws Exception {
+        // The ETag sent with the compressed body was weak, the 304 status has to match it
+        compressionFilter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, "\"42\"");
+            ((HttpServletResponse) res).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        });
+        assertEquals("W/\"42\"", response.getHeader(HttpHeaders.ETAG));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void doFilter_CompressedBody_ShouldWeakenTheETag() throws Exception {
+        compressionFilter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, "\"42\"");
+            write(LARGE_BODY).doFilter(req, res);
+        });
+        assertEquals("W/\"42\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(LARGE_BODY, gunzip(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void doFilter_Writer_ShouldBeCompressed() throws Exception {
+        compressionFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("text/html");
+            res.setCharacterEncoding("UTF-8");
+            PrintWriter writer = res.getWriter();
+            writer.write(LARGE_BODY);
+            writer.write("é");
+        });
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_BODY + "é", gunzip(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void doFilter_WriterAfterOutputStream_ShouldThrowIllegalStateException() throws Exception {
+        compressionFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("text/html");
+            res.getOutputStream();
+            try {
+                res.getWriter();
+                fail("getOutputStream() has already been called");
+            } catch (IllegalStateException e) {
+                assertTrue(true);
+            }
+        });
+    }
+
+    /**
+     * Get a FilterChain writing a JSON body of an unknown length with getWriter.
+     * @param body the body
+     * @return the FilterChain
+     */
+    private static FilterChain write(String body) {
+        return (req, res) -> {
+            res.setContentType("application/json");
+            res.setCharacterEncoding("UTF-8");
+            res.getWriter().write(body);
+        };
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        return read(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+    }
+
+    private static String inflate(byte[] compressed) throws IOException {
+        return read(new InflaterInputStream(new ByteArrayInputStream(compressed)));
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
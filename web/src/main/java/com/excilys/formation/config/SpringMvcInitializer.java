@@ -1,10 +1,12 @@
 package com.excilys.formation.config;
 
+import com.excilys.formation.filter.CompressionFilter;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.FrameworkServlet;
 import org.springframework.web.servlet.support.AbstractAnnotationConfigDispatcherServletInitializer;
 
+import javax.servlet.Filter;
 import javax.servlet.ServletRegistration;
 
 /**
@@ -28,6 +30,11 @@ public class SpringMvcInitializer extends AbstractAnnotationConfigDispatcherServ
         return new String[] {"/" };
     }
 
+    @Override
+    protected Filter[] getServletFilters() {
+        return new Filter[] {new CompressionFilter()};
+    }
+
     @Override
     protected FrameworkServlet createDispatcherServlet(WebApplicationContext servletAppContext) {
         DispatcherServlet serv = (DispatcherServlet) super.createDispatcherServlet(servletAppContext);
@@ -9,6 +9,13 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.www.DigestAuthenticationEntryPoint;
 import org.springframework.security.web.authentication.www.DigestAuthenticationFilter;
+import org.springframework.security.web.header.HeaderWriter;
+import org.springframework.security.web.header.writers.CacheControlHeadersWriter;
+import org.springframework.security.web.header.writers.DelegatingRequestMatcherHeaderWriter;
+import org.springframework.security.web.header.writers.StaticHeadersWriter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import javax.annotation.Resource;
 
@@ -19,6 +26,12 @@ import javax.annotation.Resource;
 @EnableWebSecurity
 public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 
+    private static final RequestMatcher DASHBOARD = new AntPathRequestMatcher("/dashboard", "GET");
+    /**
+     * Lets the browser keep the dashboard, provided it sends its ETag back to check it is still current.
+     */
+    private static final HeaderWriter REVALIDATE = new StaticHeadersWriter("Cache-Control", "private, no-cache");
+
     @Resource(name = "UserService")
     private UserDetailsService userDetailsService;
 
@@ -47,7 +60,14 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/resources/**")
                 .permitAll()
                 .antMatchers("/dashboard", "/editComputer", "/addComputer", "/deleteComputer")
-                .authenticated();
+                .authenticated()
+                .and()
+                .headers()
+                .cacheControl()
+                .disable()
+                .addHeaderWriter(new DelegatingRequestMatcherHeaderWriter(DASHBOARD, REVALIDATE))
+                .addHeaderWriter(new DelegatingRequestMatcherHeaderWriter(new NegatedRequestMatcher(DASHBOARD),
+                        new CacheControlHeadersWriter()));
     }
 
     @Override
@@ -6,19 +6,24 @@ import com.excilys.formation.dto.ComputerDto;
 import com.excilys.formation.exception.NotFoundException;
 import com.excilys.formation.mapper.DtoMapper;
 import com.excilys.formation.mapper.PageMapper;
+import com.excilys.formation.model.Company;
+import com.excilys.formation.model.Computer;
 import com.excilys.formation.model.util.PageFilter;
 import com.excilys.formation.pagination.Page;
 import com.excilys.formation.service.CompanyService;
 import com.excilys.formation.service.ComputerService;
+import com.excilys.formation.service.VersionService;
 import com.excilys.formation.util.WebUtil;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.support.RequestContextUtils;
 
@@ -50,12 +55,21 @@ public class ComputerController {
     @Autowired
     private PageMapper pageMapper;
 
+    @Autowired
+    private VersionService versionService;
+
     @RequestMapping(path = "/dashboard", method = RequestMethod.GET)
-    public ModelAndView dashboard(@RequestParam Map<String, String> parameters) {
+    public ModelAndView dashboard(@RequestParam Map<String, String> parameters, WebRequest request) {
+        // The page depends on the computers, the companies, the locale and the roles of the user
+        String variant = LocaleContextHolder.getLocale().toLanguageTag() + "-" + request.getRemoteUser();
+        if (request.checkNotModified(versionService.getETag(variant, Computer.class, Company.class),
+                versionService.getLastModified(Computer.class, Company.class))) {
+            return null;
+        }
         ModelAndView model = new ModelAndView("/dashboard");
         PageFilter pageFilter = WebUtil.toPageFilter(parameters);
         model.addObject("deleted", null);
-        Page<ComputerDto> computerPage = pageMapper.fromComputerToComputerDto(computerService.getPage(pageFilter));
+        Page<ComputerDto> computerPage = pageMapper.fromComputerRowToComputerDto(computerService.getRowPage(pageFilter));
         model.addObject("order", parameters.get("order"));
         model.addObject("column", parameters.get("column"));
         model.addObject("search", parameters.get("search"));
@@ -102,6 +116,13 @@ public class ComputerController {
     @RequestMapping(path = "/deleteComputer", method = RequestMethod.POST)
     public ModelAndView deleteComputerPost(@RequestParam Map<String, String> parameters) {
         ModelAndView model = new ModelAndView("redirect:/dashboard");
+        // All the computers matching the search are deleted by the service, without shipping their ids.
+        // Without a search, only the selected computers are deleted.
+        String search = parameters.get("search");
+        if ("true".equals(parameters.get("all")) && search != null && !search.trim().isEmpty()) {
+            computerService.deleteByFilter(WebUtil.toPageFilter(parameters));
+            return model;
+        }
         // We get the id list of computers to delete from the parameters
         // and ask the service to delete id
         List<Long> computersId = WebUtil.toListIds(parameters.get("selection"));
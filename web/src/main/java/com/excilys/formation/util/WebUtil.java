@@ -1,5 +1,6 @@
 package com.excilys.formation.util;
 
+import com.excilys.formation.model.util.PageCursor;
 import com.excilys.formation.model.util.PageFilter;
 
 import java.util.ArrayList;
@@ -44,6 +45,9 @@ public class WebUtil {
                 table = "company";
                 column = "name";
             }
+            if ("introduced".equals(column) || "discontinued".equals(column)) {
+                table = "computer";
+            }
             pageFilter.addCondition("table", table);
             pageFilter.addCondition("column", column);
         }
@@ -51,6 +55,9 @@ public class WebUtil {
             String order = parameters.get("order").replace("'", "''");
             pageFilter.addCondition("order", order);
         }
+        if (parameters.containsKey("cursor")) {
+            pageFilter.setCursor(PageCursor.decode(parameters.get("cursor")));
+        }
         return pageFilter;
     }
 
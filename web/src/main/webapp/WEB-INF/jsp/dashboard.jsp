@@ -82,6 +82,10 @@
 
 		<form id="deleteForm" action="deleteComputer" method="post">
 			<input type="hidden" name="selection" value="">
+			<input type="hidden" name="all" value="">
+			<c:if test="${not empty search}">
+				<input type="hidden" name="search" value="${search}">
+			</c:if>
 		</form>
 
 		<div class="container" style="margin-top: 10px;">
@@ -173,7 +177,8 @@
 
 				<my:link currentPage="${pageComputer.page}"
 					numberPages="${pageComputer.totalPages}"
-					currentLimit="${pageComputer.elementsByPage}" />
+					currentLimit="${pageComputer.elementsByPage}"
+					nextCursor="${pageComputer.nextCursor}" />
 			</ul>
 
 			<div class="btn-group btn-group-sm pull-right" role="group">
@@ -60,10 +60,14 @@ $(function() {
 
 
 // Function delete selected: Asks for confirmation to delete selected computers, then submits it to the deleteForm
+// When the whole page is selected, also offers to delete all the computers matching the search on the server
 (function ( $ ) {
     $.fn.deleteSelected = function() {
         if (confirm(messages["confirm.delete"])) { 
             $('#deleteForm input[name=selection]').setCheckboxValues('selection','cb');
+            if ($("#selectall").is(":checked") && confirm(messages["confirm.deleteAll"])) {
+                $('#deleteForm input[name=all]').attr('value', 'true');
+            }
             $('#deleteForm').submit();
         }
     };
@@ -1,5 +1,6 @@
 package com.excilys.formation.util;
 
+import com.excilys.formation.model.util.PageCursor;
 import com.excilys.formation.model.util.PageFilter;
 import org.junit.Test;
 
@@ -27,6 +28,18 @@ public class WebUtilTest {
         assertTrue(pageFilter.getElementsByPage() == 10);
     }
 
+    @Test
+    public void toPageFilterWithCursor() throws Exception {
+        PageCursor cursor = new PageCursor("computer.name", true, "CM-2", 42L);
+        Map<String, String> params = new HashMap<>();
+        params.put("page", "3");
+        params.put("cursor", cursor.encode());
+        PageFilter pageFilter = WebUtil.toPageFilter(params);
+        assertEquals(cursor, pageFilter.getCursor());
+        params.put("cursor", "not a cursor");
+        assertNull(WebUtil.toPageFilter(params).getCursor());
+    }
+
     @Test
     public void stringToListIds() throws Exception {
         String ids = "1, 2, 3, 4";